@@ -0,0 +1,145 @@
+package com.ceshi.forest.converter;
+
+import com.ceshi.forest.dto.StandDTO;
+import com.ceshi.forest.entity.ForestStand;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 林分列表转换基准：50k 行，对比原手写 convertToDTO（含空编码的逐行 log.warn）、BeanUtils 反射拷贝与 MapStruct 生成代码
+ * 每 nullCodeEvery 行一条小班编码为空，复现原实现的告警日志开销
+ * 运行：./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StandMappingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StandMappingBenchmark.class);
+
+    @Param({"50000"})
+    public int rows;
+
+    @Param({"100"})
+    public int nullCodeEvery;
+
+    private List<ForestStand> stands;
+    private StandConverter converter;
+
+    @Setup
+    public void setUp() {
+        converter = Mappers.getMapper(StandConverter.class);
+        stands = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ForestStand stand = new ForestStand();
+            stand.setStandId(i);
+            stand.setZoneId(i % 20);
+            stand.setXiaoBanCode(i % nullCodeEvery == 0 ? null : String.format("%02d-%02d", i % 100, i % 50));
+            stand.setStandName("林分" + i);
+            stand.setDominantSpecies(i % 2 == 0 ? "杉木" : "马尾松");
+            stand.setOrigin("人工林");
+            stand.setAreaHa(10.0 + i % 7);
+            stand.setVolumePerHa(120.0 + i % 30);
+            stand.setTotalVolume(stand.getAreaHa() * stand.getVolumePerHa());
+            stand.setStandAge(10 + i % 40);
+            stand.setCanopyDensity(0.7);
+            stand.setAvgDbh(18.5);
+            stand.setAvgHeight(15.2);
+            stand.setElevation(300 + i % 500);
+            stand.setSlope(15.0);
+            stand.setAspect("南");
+            stand.setCenterLon(118.0 + i * 1e-5);
+            stand.setCenterLat(32.0 + i * 1e-5);
+            stand.setSurveyDate(LocalDate.of(2024, 5, 1));
+            stand.setSiteClass(2);
+            stands.add(stand);
+        }
+    }
+
+    @Benchmark
+    public List<StandDTO> handWritten() {
+        List<StandDTO> result = new ArrayList<>(stands.size());
+        for (ForestStand stand : stands) {
+            result.add(convertToDTO(stand));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<StandDTO> beanUtils() {
+        List<StandDTO> result = new ArrayList<>(stands.size());
+        for (ForestStand stand : stands) {
+            StandDTO dto = new StandDTO();
+            BeanUtils.copyProperties(stand, dto);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<StandDTO> mapstruct() {
+        return converter.toDTOList(stands);
+    }
+
+    /**
+     * 迁移到 MapStruct 之前 ForestStandServiceImpl 中的手写转换，原样保留作为基线
+     */
+    private static StandDTO convertToDTO(ForestStand stand) {
+        StandDTO dto = new StandDTO();
+
+        // 基本信息
+        dto.setStandId(stand.getStandId());
+        dto.setStandName(stand.getStandName());
+        dto.setXiaoBanCode(stand.getXiaoBanCode());
+        dto.setAreaHa(stand.getAreaHa());
+        dto.setZoneId(stand.getZoneId());
+
+        // 树种信息
+        dto.setDominantSpecies(stand.getDominantSpecies());
+        dto.setSpeciesComposition(stand.getSpeciesComposition());
+
+        // 蓄积信息
+        dto.setVolumePerHa(stand.getVolumePerHa());
+        dto.setTotalVolume(stand.getTotalVolume());
+
+        // 林分特征
+        dto.setStandAge(stand.getStandAge());
+        dto.setCanopyDensity(stand.getCanopyDensity());
+        dto.setAvgDbh(stand.getAvgDbh());
+        dto.setAvgHeight(stand.getAvgHeight());
+
+        // 地形因子
+        dto.setElevation(stand.getElevation());
+        dto.setSlope(stand.getSlope());
+        dto.setAspect(stand.getAspect());
+        dto.setSiteType(stand.getSiteType());
+
+        // 位置信息
+        dto.setCenterLon(stand.getCenterLon());
+        dto.setCenterLat(stand.getCenterLat());
+
+        // 调查信息
+        dto.setSurveyDate(stand.getSurveyDate());
+        dto.setSurveyor(stand.getSurveyor());
+
+        // 其他
+        dto.setOrigin(stand.getOrigin());
+        dto.setSiteClass(stand.getSiteClass());
+        dto.setRemark(stand.getRemark());
+
+        // 调试日志
+        if (dto.getXiaoBanCode() == null) {
+            log.warn("转换 DTO 时 xiaoBanCode 为 null, standId={}", stand.getStandId());
+        }
+
+        return dto;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ceshi.forest.util;
+
+import com.ceshi.forest.entity.ForestStand;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 小班定位基准：内存索引（PreparedGeometry + STR 树）对比 PostGIS ST_Covers 单点往返
+ * 需要可访问的数据库，连接参数通过系统属性传入（默认与 application.yml 一致）：
+ * ./gradlew jmh -Djmh.includes=StandLocateBenchmark -Dforest.bench.jdbc-url=... -Dforest.bench.username=... -Dforest.bench.password=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StandLocateBenchmark {
+
+    // 与 StandLocateServiceImpl 的索引口径一致：边界上的点也算在内，多个结果取 stand_id 最小
+    private static final String COVERING_SQL = "SELECT stand_id FROM forest_stand "
+            + "WHERE deleted = 0 AND boundary IS NOT NULL "
+            + "AND ST_Covers(boundary, ST_SetSRID(ST_MakePoint(?, ?), 4326)) "
+            + "ORDER BY stand_id LIMIT 1";
+
+    private static final int POINTS = 4096;
+
+    private Connection connection;
+    private PreparedStatement coveringStatement;
+    private StandBoundaryIndex index;
+    private final double[] lons = new double[POINTS];
+    private final double[] lats = new double[POINTS];
+    private int cursor;
+
+    @Setup
+    public void setUp() throws SQLException, ParseException {
+        connection = DriverManager.getConnection(
+                System.getProperty("forest.bench.jdbc-url", "jdbc:postgresql://localhost:6666/forest"),
+                System.getProperty("forest.bench.username", "postgres"),
+                System.getProperty("forest.bench.password", "9876"));
+        index = StandBoundaryIndex.build(loadStands());
+        if (index.size() == 0) {
+            throw new IllegalStateException("暂无林分边界数据");
+        }
+        coveringStatement = connection.prepareStatement(COVERING_SQL);
+
+        // 在林分范围内均匀取随机点，两种实现使用同一批点
+        Envelope extent = index.extent();
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            lons[i] = extent.getMinX() + random.nextDouble() * extent.getWidth();
+            lats[i] = extent.getMinY() + random.nextDouble() * extent.getHeight();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        coveringStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Integer memoryIndex() {
+        int i = next();
+        StandBoundaryIndex.Entry entry = index.find(lons[i], lats[i]);
+        return entry != null ? entry.standId() : null;
+    }
+
+    @Benchmark
+    public Integer postgisRoundTrip() throws SQLException {
+        int i = next();
+        coveringStatement.setDouble(1, lons[i]);
+        coveringStatement.setDouble(2, lats[i]);
+        try (ResultSet rs = coveringStatement.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : null;
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (POINTS - 1);
+        return cursor;
+    }
+
+    private List<ForestStand> loadStands() throws SQLException, ParseException {
+        List<ForestStand> stands = new ArrayList<>();
+        WKBReader reader = new WKBReader();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT stand_id, xiao_ban_code, stand_name, "
+                     + "ST_AsBinary(boundary) FROM forest_stand WHERE boundary IS NOT NULL AND deleted = 0")) {
+            while (rs.next()) {
+                ForestStand stand = new ForestStand();
+                stand.setStandId(rs.getInt(1));
+                stand.setXiaoBanCode(rs.getString(2));
+                stand.setStandName(rs.getString(3));
+                stand.setBoundary(reader.read(rs.getBytes(4)));
+                stands.add(stand);
+            }
+        }
+        return stands;
+    }
+}
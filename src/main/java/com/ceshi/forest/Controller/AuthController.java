@@ -5,6 +5,7 @@ import com.ceshi.forest.dto.auth.LoginRequest;
 import com.ceshi.forest.dto.auth.LoginResponse;
 import com.ceshi.forest.dto.auth.RegisterRequest;
 import com.ceshi.forest.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,8 +25,9 @@ public class AuthController {
      * 用户登录
      */
     @PostMapping("/login")
-    public ResultDTO<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public ResultDTO<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                          HttpServletRequest httpRequest) {
+        LoginResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResultDTO.ok(response);
     }
 
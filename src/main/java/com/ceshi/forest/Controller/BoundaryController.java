@@ -0,0 +1,54 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.BoundaryDTO;
+import com.ceshi.forest.dto.BoundaryLodDTO;
+import com.ceshi.forest.dto.ResultDTO;
+import com.ceshi.forest.service.BoundaryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 林分/林场边界接口
+ * 边界要素通过 /api/features/{layer}?zoom= 按层级输出
+ */
+@RestController
+@RequestMapping("/api/boundaries")
+@RequiredArgsConstructor
+public class BoundaryController {
+
+    private final BoundaryService boundaryService;
+
+    @PutMapping("/{ownerType}/{id}")
+    public ResponseEntity<ResultDTO<List<BoundaryLodDTO>>> updateBoundary(
+            @PathVariable String ownerType,
+            @PathVariable Integer id,
+            @RequestBody @Valid BoundaryDTO boundaryDTO) {
+        List<BoundaryLodDTO> lods = boundaryService.updateBoundary(ownerType, id, boundaryDTO.getWkt());
+        return ResponseEntity.ok(ResultDTO.ok(lods, "边界更新成功"));
+    }
+
+    @GetMapping("/{ownerType}/{id}/lods")
+    public ResponseEntity<List<BoundaryLodDTO>> getLodSummary(@PathVariable String ownerType,
+                                                              @PathVariable Integer id) {
+        return ResponseEntity.ok(boundaryService.getLodSummary(ownerType, id));
+    }
+
+    @PostMapping("/{ownerType}/rebuild")
+    public ResponseEntity<ResultDTO<Integer>> rebuildLods(@PathVariable String ownerType) {
+        int count = boundaryService.rebuildLods(ownerType);
+        return ResponseEntity.ok(ResultDTO.ok(count, "简化层级重建完成"));
+    }
+
+    /**
+     * 查看缩放级别/容差对应的层级，便于前端调试
+     */
+    @GetMapping("/level")
+    public ResponseEntity<Integer> resolveLevel(@RequestParam(required = false) Integer zoom,
+                                                @RequestParam(required = false) Double tolerance) {
+        return ResponseEntity.ok(boundaryService.resolveLevel(zoom, tolerance));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 数据变更推送接口
+ * 前端订阅后按事件增量更新列表，不再轮询全量接口
+ */
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * 事件：change（单条变更）、resync（需整体重新加载）；每 25 秒一次注释心跳
+     * @param tables 关注的表（逗号分隔：forest_stand, sample_plot, tree_measurement），为空表示全部
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String tables,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeedService.subscribe(parseTables(tables), lastEventId);
+    }
+
+    private Set<String> parseTables(String tables) {
+        if (tables == null || tables.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(tables.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
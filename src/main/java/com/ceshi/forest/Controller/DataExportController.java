@@ -0,0 +1,82 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.ExportQueryDTO;
+import com.ceshi.forest.service.DataExportService;
+import com.ceshi.forest.util.export.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 林分 / 样地数据导出接口
+ * 支持 csv / xlsx(excel) / json / geojson，从数据库游标直接流式写出，不设 Content-Length
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class DataExportController {
+
+    private final DataExportService dataExportService;
+
+    /**
+     * 导出林分
+     * 筛选参数：zoneId、species（优势树种）、minLon / minLat / maxLon / maxLat
+     */
+    @GetMapping("/stands/export")
+    public ResponseEntity<StreamingResponseBody> exportStands(
+            @RequestParam(defaultValue = "csv") String format,
+            ExportQueryDTO query) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        checkExtent(query);
+        log.info("导出林分数据, format={}, 条件={}", exportFormat, query);
+        return attachment("林分数据", exportFormat,
+                out -> dataExportService.exportStands(query, exportFormat, out));
+    }
+
+    /**
+     * 导出样地
+     * 筛选参数：standId、zoneId、species（所属林分优势树种）、minLon / minLat / maxLon / maxLat
+     */
+    @GetMapping("/plots/export")
+    public ResponseEntity<StreamingResponseBody> exportPlots(
+            @RequestParam(defaultValue = "csv") String format,
+            ExportQueryDTO query) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        checkExtent(query);
+        log.info("导出样地数据, format={}, 条件={}", exportFormat, query);
+        return attachment("样地数据", exportFormat,
+                out -> dataExportService.exportPlots(query, exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format,
+                                                             StreamingResponseBody body) {
+        String filename = name + "_" + LocalDate.now() + "." + format.getExtension();
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replace("+", "%20");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
+                .header("Access-Control-Expose-Headers", "Content-Disposition")
+                .body(body);
+    }
+
+    private void checkExtent(ExportQueryDTO query) {
+        if (query.getMinLon() != null && query.getMaxLon() != null && query.getMinLon() > query.getMaxLon()) {
+            throw new RuntimeException("minLon 不能大于 maxLon");
+        }
+        if (query.getMinLat() != null && query.getMaxLat() != null && query.getMinLat() > query.getMaxLat()) {
+            throw new RuntimeException("minLat 不能大于 maxLat");
+        }
+    }
+}
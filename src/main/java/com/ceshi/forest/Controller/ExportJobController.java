@@ -0,0 +1,161 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.ExportJobDTO;
+import com.ceshi.forest.dto.ResultDTO;
+import com.ceshi.forest.service.ExportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 异步导出任务接口
+ * 提交任务 -> 轮询进度 -> 下载（支持 Range 断点续传）
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    public ResponseEntity<ResultDTO<ExportJobDTO>> submit(
+            @RequestParam(defaultValue = "stand") String scope,
+            @RequestParam Integer scopeId,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportJobDTO job = exportJobService.submit(scope, scopeId, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ResultDTO.ok(job, "导出任务已提交"));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ResultDTO<ExportJobDTO>> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ResultDTO.ok(exportJobService.getJob(jobId)));
+    }
+
+    /**
+     * 下载导出文件，支持单段 Range 请求，使用 FileChannel.transferTo 直接写出
+     */
+    @GetMapping("/{jobId}/download")
+    public void download(@PathVariable String jobId,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        ExportJobDTO job = exportJobService.getJob(jobId);
+        Path file = exportJobService.getJobFile(jobId);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            String etag = "\"" + jobId + "-" + size + "\"";
+
+            long start = 0;
+            long end = size - 1;
+
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            boolean rangeApplicable = range != null && (ifRange == null || ifRange.equals(etag));
+
+            if (rangeApplicable) {
+                long[] parsed = parseRange(range, size);
+                if (parsed == null) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            } else {
+                response.setStatus(HttpStatus.OK.value());
+            }
+
+            long length = end - start + 1;
+            String encodedFilename = URLEncoder.encode(job.getFileName(), StandardCharsets.UTF_8)
+                    .replace("+", "%20");
+
+            response.setContentType(contentType(job.getFormat()));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader("Access-Control-Expose-Headers", "Content-Disposition, Content-Range, Accept-Ranges");
+            response.setContentLengthLong(length);
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            response.flushBuffer();
+
+            log.info("导出文件下载: jobId={}, 范围: {}-{}/{}", jobId, start, end, size);
+        }
+    }
+
+    /**
+     * 解析 "bytes=start-end" / "bytes=start-" / "bytes=-suffix"，多段范围不支持
+     * @return [start, end]，无法满足时返回 null
+     */
+    private long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.contains(",") || size == 0) {
+            return null;
+        }
+        String spec = range.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (startPart.isEmpty()) {
+                long suffix = Long.parseLong(endPart);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(startPart);
+                end = endPart.isEmpty() ? size - 1 : Math.min(Long.parseLong(endPart), size - 1);
+            }
+            if (start > end || start >= size) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String contentType(String format) {
+        return switch (format) {
+            case "excel" -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case "json" -> "application/json;charset=UTF-8";
+            case "parquet" -> "application/vnd.apache.parquet";
+            default -> "text/csv;charset=UTF-8";
+        };
+    }
+}
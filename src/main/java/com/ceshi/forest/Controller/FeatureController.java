@@ -0,0 +1,132 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.FeatureQueryDTO;
+import com.ceshi.forest.service.BoundaryService;
+import com.ceshi.forest.service.FeatureService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GeoJSON 要素接口
+ * 直接从数据库游标流式输出，地图端可边接收边渲染
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/features")
+@RequiredArgsConstructor
+public class FeatureController {
+
+    private static final MediaType GEO_JSON = MediaType.parseMediaType("application/geo+json");
+    private static final MediaType GEO_JSON_SEQ = MediaType.parseMediaType("application/geo+json-seq");
+
+    private final FeatureService featureService;
+    private final BoundaryService boundaryService;
+
+    /**
+     * @param bbox minLon,minLat,maxLon,maxLat
+     * @param props 逗号分隔的属性名，为空输出全部
+     * @param precision 坐标小数位数（0-10），默认 6 位约 0.1 米
+     * @param gzip 是否压缩，为空时根据 Accept-Encoding 决定
+     * @param seq 是否输出 GeoJSON Text Sequence，便于客户端逐条解析
+     * @param geometry 林分几何：point / boundary，为空时指定了 zoom 或 tolerance 即输出边界
+     * @param zoom 地图缩放级别，用于选择边界简化层级
+     * @param tolerance 简化容差（度），优先于 zoom
+     */
+    @GetMapping("/{layer}")
+    public ResponseEntity<StreamingResponseBody> getFeatures(
+            @PathVariable String layer,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String props,
+            @RequestParam(defaultValue = "6") int precision,
+            @RequestParam(required = false) Boolean gzip,
+            @RequestParam(defaultValue = "false") boolean seq,
+            @RequestParam(required = false) String geometry,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            HttpServletRequest request) {
+
+        if (!featureService.supportsLayer(layer)) {
+            throw new RuntimeException("不支持的图层: " + layer);
+        }
+
+        FeatureQueryDTO query = new FeatureQueryDTO();
+        query.setBbox(parseBbox(bbox));
+        query.setProperties(parseProps(props));
+        query.setPrecision(Math.max(0, Math.min(precision, 10)));
+        query.setSequence(seq);
+
+        boolean boundary = geometry != null ? "boundary".equals(geometry) : (zoom != null || tolerance != null);
+        if (boundary || "zones".equals(layer)) {
+            query.setLodLevel(boundaryService.resolveLevel(zoom, tolerance));
+        }
+
+        boolean compress = gzip != null ? gzip : acceptsGzip(request);
+
+        StreamingResponseBody body = out -> {
+            if (compress) {
+                // syncFlush 保证每次 flush 都能把已压缩数据推给客户端
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true)) {
+                    featureService.writeFeatures(layer, query, gzipOut);
+                }
+            } else {
+                featureService.writeFeatures(layer, query, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(seq ? GEO_JSON_SEQ : GEO_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compress) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    private double[] parseBbox(String bbox) {
+        if (bbox == null || bbox.isBlank()) {
+            return null;
+        }
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new RuntimeException("bbox 格式应为 minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            double[] extent = new double[4];
+            for (int i = 0; i < 4; i++) {
+                extent[i] = Double.parseDouble(parts[i].trim());
+            }
+            if (extent[0] > extent[2] || extent[1] > extent[3]) {
+                throw new RuntimeException("bbox 最小值不能大于最大值");
+            }
+            return extent;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("bbox 包含非数字: " + bbox);
+        }
+    }
+
+    private Set<String> parseProps(String props) {
+        if (props == null || props.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(props.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
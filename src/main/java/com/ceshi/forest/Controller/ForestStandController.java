@@ -1,20 +1,34 @@
 package com.ceshi.forest.controller;
 
+import com.ceshi.forest.aspect.DataVersioned;
 import com.ceshi.forest.aspect.NoLog;
+import com.ceshi.forest.dto.DeltaSyncDTO;
+import com.ceshi.forest.dto.LocateDTO;
 import com.ceshi.forest.dto.ResultDTO;
 import com.ceshi.forest.dto.StandDTO;
-import com.ceshi.forest.dto.StatisticsDTO;
 import com.ceshi.forest.mapper.ForestStandMapper;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.DeltaSyncService;
 import com.ceshi.forest.service.StandCacheService;
 import com.ceshi.forest.service.ForestStandService;
+import com.ceshi.forest.service.StandImportService;
+import com.ceshi.forest.service.StandLocateService;
+import com.ceshi.forest.util.CompressedResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,38 +42,88 @@ public class ForestStandController {
 
     private final StandCacheService standCacheService;
     private final ForestStandService standService;
+    private final DeltaSyncService deltaSyncService;
     private final ForestStandMapper forestStandMapper;
+    private final DataVersionService dataVersionService;
+    private final CompressedResponseCache compressedResponseCache;
+    private final StandLocateService standLocateService;
+    private final StandImportService standImportService;
 
     // ==================== 查询接口 ====================
 
     @GetMapping
-    public ResponseEntity<List<StandDTO>> getAllStands() {
-        return ResponseEntity.ok(standCacheService.getAllStands());
+    @DataVersioned(DataVersionService.TABLE_STAND)
+    public ResponseEntity<byte[]> getAllStands(HttpServletRequest request, HttpServletResponse response) {
+        return compressedResponseCache.respond("stands:all",
+                dataVersionService.getVersion(DataVersionService.TABLE_STAND),
+                standCacheService::getAllStands, request, response);
     }
 
     @GetMapping("/{id}")
+    @DataVersioned(DataVersionService.TABLE_STAND)
     public ResponseEntity<StandDTO> getStandById(@PathVariable Integer id) {
         return ResponseEntity.ok(standCacheService.getStandById(id));
     }
 
+    /**
+     * 林分增量同步：返回 since 之后的新增/修改记录和已删除 ID，按 next 游标翻页
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<DeltaSyncDTO<StandDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        return ResponseEntity.ok(deltaSyncService.getStandChanges(since, limit));
+    }
+
     @GetMapping("/nearby")
+    @DataVersioned(DataVersionService.TABLE_STAND)
     public ResponseEntity<List<StandDTO>> getNearbyStands(
             @RequestParam Double lon,
             @RequestParam Double lat,
-            @RequestParam(defaultValue = "45000") Integer radiusMeters) {
-        return ResponseEntity.ok(standCacheService.getNearbyStands(lon, lat, radiusMeters));
+            @RequestParam(defaultValue = "45000") @Positive Integer radiusMeters,
+            @RequestParam(required = false) @Min(1) @Max(1000) Integer k) {
+        return ResponseEntity.ok(standCacheService.getNearbyStands(lon, lat, radiusMeters, k));
+    }
+
+    /**
+     * 最近的 k 个林分（不限半径，KNN 索引扫描）
+     */
+    @GetMapping("/nearest")
+    @DataVersioned(DataVersionService.TABLE_STAND)
+    public ResponseEntity<List<StandDTO>> getNearestStands(
+            @RequestParam Double lon,
+            @RequestParam Double lat,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) Integer k) {
+        return ResponseEntity.ok(standCacheService.getNearbyStands(lon, lat, null, k));
     }
 
     @GetMapping("/high-value")
+    @DataVersioned(DataVersionService.TABLE_STAND)
     public ResponseEntity<List<StandDTO>> getHighValueStands(
             @RequestParam(defaultValue = "120") Double minVolumePerHa) {
         return ResponseEntity.ok(standCacheService.getHighValueStands(minVolumePerHa));
     }
 
     @GetMapping("/statistics/species")
-    public List<StatisticsDTO> getSpeciesStatistics() {
-        // 从缓存获取或从数据库查询
-        return forestStandMapper.getStatisticsBySpecies();
+    @DataVersioned(DataVersionService.TABLE_STAND)
+    public ResponseEntity<byte[]> getSpeciesStatistics(HttpServletRequest request, HttpServletResponse response) {
+        // 按数据版本缓存序列化结果，版本不变时不访问数据库
+        return compressedResponseCache.respond("stands:statistics:species",
+                dataVersionService.getVersion(DataVersionService.TABLE_STAND),
+                forestStandMapper::getStatisticsBySpecies, request, response);
+    }
+
+    // ==================== 小班定位接口 ====================
+
+    @NoLog
+    @GetMapping("/locate")
+    public ResponseEntity<LocateDTO> locate(@RequestParam Double lon, @RequestParam Double lat) {
+        return ResponseEntity.ok(standLocateService.locate(lon, lat));
+    }
+
+    @PostMapping("/locate/batch")
+    public ResponseEntity<List<LocateDTO>> locateBatch(@RequestBody @Valid List<LocateDTO> points) {
+        return ResponseEntity.ok(standLocateService.locateBatch(points));
     }
 
     // ==================== CRUD接口 ====================
@@ -85,6 +149,19 @@ public class ForestStandController {
         }
     }
 
+    /**
+     * 批量导入林分（csv / xlsx / geojson），按小班编码插入或更新
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResultDTO<Map<String, Object>>> importStands(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+
+        String operator = authentication != null ? authentication.getName() : "system";
+        Map<String, Object> result = standImportService.importStands(file, operator);
+        return ResponseEntity.ok(ResultDTO.ok(result, "林分导入完成"));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ResultDTO<StandDTO>> updateStand(
             @PathVariable Integer id,
@@ -136,11 +213,19 @@ public class ForestStandController {
     }
 
     @GetMapping("/check-id/{id}")
+    @DataVersioned(DataVersionService.TABLE_STAND)
     public ResponseEntity<ResultDTO<Boolean>> checkStandIdExists(@PathVariable Integer id) {
-        boolean exists = standService.getStandById(id) != null;
+        boolean exists = standCacheService.existsStand(id);
         return ResponseEntity.ok(ResultDTO.ok(exists, exists ? "林分存在" : "林分不存在"));
     }
 
+    @GetMapping("/check-code/{code}")
+    @DataVersioned(DataVersionService.TABLE_STAND)
+    public ResponseEntity<ResultDTO<Boolean>> checkXiaoBanCodeExists(@PathVariable String code) {
+        boolean exists = standCacheService.existsXiaoBanCode(code);
+        return ResponseEntity.ok(ResultDTO.ok(exists, exists ? "小班编码已存在" : "小班编码不存在"));
+    }
+
     // ==================== 缓存管理接口 ====================
 
     @DeleteMapping("/cache/{id}")
@@ -160,6 +245,30 @@ public class ForestStandController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/cache/warmup")
+    public ResponseEntity<Map<String, Object>> warmUpStandCache() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "林分缓存预热完成");
+        result.put("keys", standCacheService.warmUp());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 存在性查询统计（布隆过滤器 / 负缓存节省的数据库查询次数）
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getStandCacheStats() {
+        return ResponseEntity.ok(standCacheService.getLookupStats());
+    }
+
+    @PostMapping("/cache/bloom/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildBloomFilter() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "布隆过滤器已重建");
+        result.put("stands", standCacheService.rebuildBloomFilter());
+        return ResponseEntity.ok(result);
+    }
+
     @NoLog
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
@@ -1,5 +1,6 @@
 package com.ceshi.forest.controller;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -16,12 +17,14 @@ import jakarta.servlet.http.HttpServletRequest;
 @Slf4j
 @RestController
 @RequestMapping("/geoserver")
+@RequiredArgsConstructor
 public class GeoserverProxyController {
 
     @Value("${geoserver.url:http://localhost:8080/geoserver}")
     private String geoserverUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // 使用 GeoserverConfig 中基于 JDK HttpClient 的共享实例
+    private final RestTemplate restTemplate;
 
     @GetMapping("/wms")
     public ResponseEntity<byte[]> proxyWms(HttpServletRequest request) {
@@ -0,0 +1,55 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.GridCellDTO;
+import com.ceshi.forest.service.GridAggregationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 网格聚合接口
+ * 低缩放级别下用聚合单元代替逐个点位
+ */
+@RestController
+@RequestMapping("/api/grid")
+@RequiredArgsConstructor
+public class GridController {
+
+    private final GridAggregationService gridAggregationService;
+
+    /**
+     * @param layer stands / plots / trees
+     * @param zoom 地图缩放级别
+     * @param precision Geohash 精度（优先于 zoom）
+     * @param bbox minLon,minLat,maxLon,maxLat
+     */
+    @GetMapping("/{layer}")
+    public ResponseEntity<List<GridCellDTO>> getCells(
+            @PathVariable String layer,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Integer precision,
+            @RequestParam(required = false) String bbox) {
+        return ResponseEntity.ok(gridAggregationService.getCells(layer, zoom, precision, parseBbox(bbox)));
+    }
+
+    private double[] parseBbox(String bbox) {
+        if (bbox == null || bbox.isBlank()) {
+            return null;
+        }
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new RuntimeException("bbox 格式应为 minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            double[] extent = new double[4];
+            for (int i = 0; i < 4; i++) {
+                extent[i] = Double.parseDouble(parts[i].trim());
+            }
+            return extent;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("bbox 包含非数字: " + bbox);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.RecordingDTO;
+import com.ceshi.forest.dto.ResultDTO;
+import com.ceshi.forest.service.ProfilingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * JFR 性能录制接口（仅管理员）
+ * 按需录制：开始 -> 到时自动停止或手动停止 -> 下载；常驻录制：出现延迟尖刺后导出最近一段时间的环形缓冲。
+ * 下载的 .jfr 文件用 JDK Mission Control 或 jfr 命令打开
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/profiling")
+@RequiredArgsConstructor
+public class ProfilingController {
+
+    private final ProfilingService profilingService;
+
+    @PostMapping("/recordings")
+    public ResponseEntity<ResultDTO<RecordingDTO>> start(
+            @RequestParam(defaultValue = "default") String settings,
+            @RequestParam(required = false) Integer durationSeconds,
+            @RequestParam(required = false) Integer lockThresholdMs) {
+        RecordingDTO recording = profilingService.start(settings, durationSeconds, lockThresholdMs);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ResultDTO.ok(recording, "录制已开始"));
+    }
+
+    @PostMapping("/recordings/{id}/stop")
+    public ResponseEntity<ResultDTO<RecordingDTO>> stop(@PathVariable String id) {
+        return ResponseEntity.ok(ResultDTO.ok(profilingService.stop(id), "录制已停止"));
+    }
+
+    @GetMapping("/recordings")
+    public ResponseEntity<ResultDTO<List<RecordingDTO>>> list() {
+        return ResponseEntity.ok(ResultDTO.ok(profilingService.listRecordings()));
+    }
+
+    @GetMapping("/recordings/{id}")
+    public ResponseEntity<ResultDTO<RecordingDTO>> get(@PathVariable String id) {
+        return ResponseEntity.ok(ResultDTO.ok(profilingService.getRecording(id)));
+    }
+
+    /**
+     * 下载录制文件，Range 请求由 Spring 按 Resource 处理
+     */
+    @GetMapping("/recordings/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        Path file = profilingService.getRecordingFile(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    @PostMapping("/continuous/dump")
+    public ResponseEntity<ResultDTO<RecordingDTO>> dumpContinuous() {
+        return ResponseEntity.ok(ResultDTO.ok(profilingService.dumpContinuous(), "常驻录制已导出"));
+    }
+
+    @GetMapping("/continuous")
+    public ResponseEntity<ResultDTO<Boolean>> continuousStatus() {
+        return ResponseEntity.ok(ResultDTO.ok(profilingService.isContinuousEnabled()));
+    }
+
+    @PutMapping("/continuous")
+    public ResponseEntity<ResultDTO<Boolean>> setContinuous(@RequestParam boolean enabled) {
+        profilingService.setContinuousEnabled(enabled);
+        log.info("常驻录制开关: {}", enabled);
+        return ResponseEntity.ok(ResultDTO.ok(profilingService.isContinuousEnabled()));
+    }
+}
@@ -1,9 +1,17 @@
 package com.ceshi.forest.controller;
 
+import com.ceshi.forest.aspect.DataVersioned;
+import com.ceshi.forest.dto.DeltaSyncDTO;
 import com.ceshi.forest.dto.PlotDTO;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.DeltaSyncService;
 import com.ceshi.forest.service.SamplePlotService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -13,37 +21,68 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/plots")
 @RequiredArgsConstructor
+@Validated
 public class SamplePlotController {
 
     private final SamplePlotService plotService;
+    private final DeltaSyncService deltaSyncService;
 
     @GetMapping
+    @DataVersioned(DataVersionService.TABLE_PLOT)
     public ResponseEntity<List<PlotDTO>> getAllPlots() {
         return ResponseEntity.ok(plotService.getAllPlots());
     }
 
     @GetMapping("/{id}")
+    @DataVersioned(DataVersionService.TABLE_PLOT)
     public ResponseEntity<PlotDTO> getPlotById(@PathVariable Integer id) {
         return ResponseEntity.ok(plotService.getPlotById(id));
     }
 
     @GetMapping("/stand/{standId}")
+    @DataVersioned(DataVersionService.TABLE_PLOT)
     public ResponseEntity<List<PlotDTO>> getPlotsByStandId(@PathVariable Integer standId) {
         return ResponseEntity.ok(plotService.getPlotsByStandId(standId));
     }
 
     @GetMapping("/high-volume")
+    @DataVersioned(DataVersionService.TABLE_PLOT)
     public ResponseEntity<List<PlotDTO>> getHighVolumePlots(
             @RequestParam(defaultValue = "150") Double minVolumePerHa) {
         return ResponseEntity.ok(plotService.getHighVolumePlots(minVolumePerHa));
     }
 
+    /**
+     * 样地增量同步：返回 since 之后的新增/修改记录和已删除 ID，按 next 游标翻页
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<DeltaSyncDTO<PlotDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        return ResponseEntity.ok(deltaSyncService.getPlotChanges(since, limit));
+    }
+
+    /**
+     * 最近的 k 个样地，指定 radiusMeters 时只在半径内查找
+     */
+    @GetMapping("/nearby")
+    @DataVersioned(DataVersionService.TABLE_PLOT)
+    public ResponseEntity<List<PlotDTO>> getNearbyPlots(
+            @RequestParam Double lon,
+            @RequestParam Double lat,
+            @RequestParam(required = false) @Positive Integer radiusMeters,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) Integer k) {
+        return ResponseEntity.ok(plotService.getNearbyPlots(lon, lat, radiusMeters, k));
+    }
+
     @GetMapping("/stand/{standId}/statistics")
+    @DataVersioned(DataVersionService.TABLE_PLOT)
     public ResponseEntity<Map<String, Object>> getPlotStatistics(@PathVariable Integer standId) {
         return ResponseEntity.ok(plotService.getPlotStatistics(standId));
     }
 
     @GetMapping("/{plotId}/verify")
+    @DataVersioned({DataVersionService.TABLE_PLOT, DataVersionService.TABLE_TREE})
     public ResponseEntity<Map<String, Object>> verifyPlotVolume(@PathVariable Integer plotId) {
         return ResponseEntity.ok(plotService.verifyPlotVolume(plotId));
     }
@@ -0,0 +1,32 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.dto.ResultDTO;
+import com.ceshi.forest.service.StandLocateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 林分批量维护接口（仅管理员）
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/stands")
+@RequiredArgsConstructor
+public class StandAdminController {
+
+    private final StandLocateService standLocateService;
+
+    /**
+     * 按坐标重新归属样地，单木随样地一起改
+     */
+    @PostMapping("/locate/assign-plots")
+    public ResponseEntity<ResultDTO<Map<String, Object>>> assignPlots(
+            @RequestParam(defaultValue = "false") boolean apply) {
+        Map<String, Object> result = standLocateService.assignPlots(apply);
+        return ResponseEntity.ok(ResultDTO.ok(result, apply ? "样地归属已更新" : "样地归属差异（未写入）"));
+    }
+}
@@ -1,15 +1,26 @@
 package com.ceshi.forest.controller;
 
+import com.ceshi.forest.aspect.DataVersioned;
+import com.ceshi.forest.dto.DeltaSyncDTO;
 import com.ceshi.forest.dto.TreeDTO;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.DeltaSyncService;
 import com.ceshi.forest.service.TreeMeasurementService;
 import com.ceshi.forest.util.ExportUtil;
+import com.ceshi.forest.util.export.ExportFormat;
+import com.ceshi.forest.util.export.ExportSchemas;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -22,22 +33,27 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/trees")
 @RequiredArgsConstructor
+@Validated
 public class TreeMeasurementController {
 
     private final TreeMeasurementService treeService;
+    private final DeltaSyncService deltaSyncService;
     private final ExportUtil exportUtil;
 
     @GetMapping
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<TreeDTO>> getAllTrees() {
         return ResponseEntity.ok(treeService.getAllTrees());
     }
 
     @GetMapping("/{id}")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<TreeDTO> getTreeById(@PathVariable Integer id) {
         return ResponseEntity.ok(treeService.getTreeById(id));
     }
 
     @GetMapping("/plot/{plotId}")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<TreeDTO>> getTreesByPlotId(@PathVariable Integer plotId) {
         return ResponseEntity.ok(treeService.getTreesByPlotId(plotId));
     }
@@ -46,6 +62,7 @@ public class TreeMeasurementController {
      * 根据林分ID获取单木列表 - 支持数字和字符串类型的林分ID
      */
     @GetMapping("/stand/{standId}")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<TreeDTO>> getTreesByStandId(@PathVariable String standId) {
         List<TreeDTO> result;
         try {
@@ -59,22 +76,26 @@ public class TreeMeasurementController {
     }
 
     @GetMapping("/large-trees")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<TreeDTO>> getLargeTrees(
             @RequestParam(defaultValue = "30") Double minDbh) {
         return ResponseEntity.ok(treeService.getLargeTrees(minDbh));
     }
 
     @GetMapping("/species/{species}")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<TreeDTO>> getTreesBySpecies(@PathVariable String species) {
         return ResponseEntity.ok(treeService.getTreesBySpecies(species));
     }
 
     @GetMapping("/statistics/species")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<Map<String, Object>>> getSpeciesStatistics() {
         return ResponseEntity.ok(treeService.getSpeciesStatistics());
     }
 
     @GetMapping("/stand/{standId}/statistics")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<Map<String, Object>>> getStandSpeciesStatistics(@PathVariable String standId) {
         List<TreeDTO> trees;
         try {
@@ -101,85 +122,92 @@ public class TreeMeasurementController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * 单木增量同步：返回 since 之后的新增/修改记录和已删除 ID，按 next 游标翻页
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<DeltaSyncDTO<TreeDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        return ResponseEntity.ok(deltaSyncService.getTreeChanges(since, limit));
+    }
+
+    /**
+     * 最近的 k 株单木（按所在样地距离），指定 radiusMeters 时只在半径内查找
+     */
+    @GetMapping("/nearby")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
+    public ResponseEntity<List<TreeDTO>> getNearbyTrees(
+            @RequestParam Double lon,
+            @RequestParam Double lat,
+            @RequestParam(required = false) @Positive Integer radiusMeters,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) Integer k) {
+        return ResponseEntity.ok(treeService.getNearbyTrees(lon, lat, radiusMeters, k));
+    }
+
     @GetMapping("/top-trees")
+    @DataVersioned({DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT})
     public ResponseEntity<List<TreeDTO>> getTopTrees(
             @RequestParam(defaultValue = "10") Integer limit) {
         return ResponseEntity.ok(treeService.getTopTrees(limit));
     }
 
     /**
-     * 导出单木数据 - 支持 CSV、Excel、JSON 格式
+     * 导出单木数据 - 支持 CSV、Excel、JSON、Parquet（parquet / parquet-zstd）格式
+     * 游标逐行读取并流式写出，不设 Content-Length
      */
     @GetMapping("/stand/export")
-    public ResponseEntity<byte[]> exportTreesByStand(
+    public ResponseEntity<StreamingResponseBody> exportTreesByStand(
             @RequestParam String standId,
             @RequestParam(defaultValue = "csv") String format) {
 
         log.info("导出单木数据, standId={}, format={}", standId, format);
 
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (RuntimeException e) {
+            // 与原接口一致，未知格式按 CSV 导出
+            exportFormat = ExportFormat.CSV;
+        }
+        if (!exportFormat.supports(ExportSchemas.TREES)) {
+            return message(HttpStatus.BAD_REQUEST, "单木数据不支持导出为 " + exportFormat.getExtension());
+        }
+
+        Integer standIdInt;
         try {
-            List<TreeDTO> trees;
-            Integer standIdInt = null;
-
-            try {
-                standIdInt = Integer.parseInt(standId);
-                trees = treeService.getTreesByStandId(standIdInt);
-            } catch (NumberFormatException e) {
-                log.warn("林分ID '{}' 不是数字格式，使用字符串查询", standId);
-                trees = treeService.getTreesByStandIdString(standId);
-                if (!trees.isEmpty() && trees.get(0).getStandId() != null) {
-                    standIdInt = trees.get(0).getStandId();
-                }
-            }
-
-            if (trees.isEmpty()) {
-                log.warn("林分 {} 暂无单木数据", standId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("该小班暂无单木数据".getBytes(StandardCharsets.UTF_8));
-            }
-
-            byte[] data;
-            String filename;
-            String contentType;
-            String fileId = standIdInt != null ? String.valueOf(standIdInt) : standId;
-
-            switch (format.toLowerCase()) {
-                case "excel", "xlsx" -> {
-                    data = exportUtil.exportToExcel(trees, standIdInt != null ? standIdInt : 0);
-                    filename = String.format("小班_%s_单木数据.xlsx", fileId);
-                    contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-                }
-                case "json" -> {
-                    data = exportUtil.exportToJson(trees, standIdInt != null ? standIdInt : 0);
-                    filename = String.format("小班_%s_单木数据.json", fileId);
-                    contentType = "application/json;charset=UTF-8";
-                }
-                default -> {
-                    data = exportUtil.exportToCsv(trees, standIdInt != null ? standIdInt : 0);
-                    filename = String.format("小班_%s_单木数据.csv", fileId);
-                    contentType = "text/csv;charset=UTF-8";
-                }
-            }
-
-            String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8)
-                    .replace("+", "%20");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(contentType));
-            headers.setContentDispositionFormData("attachment", encodedFilename);
-            headers.setContentLength(data.length);
-
-            headers.set("Access-Control-Expose-Headers", "Content-Disposition");
-
-            log.info("导出成功, standId={}, format={}, 共 {} 条记录", standId, format, trees.size());
-
-            return new ResponseEntity<>(data, headers, HttpStatus.OK);
-
-        } catch (Exception e) {
-            log.error("导出失败, standId={}, format={}: {}", standId, format, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("导出失败: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            standIdInt = Integer.parseInt(standId.trim());
+        } catch (NumberFormatException e) {
+            log.warn("林分ID '{}' 不是数字格式", standId);
+            return message(HttpStatus.NOT_FOUND, "该小班暂无单木数据");
+        }
+
+        int total = treeService.countTrees("stand", standIdInt);
+        if (total == 0) {
+            log.warn("林分 {} 暂无单木数据", standId);
+            return message(HttpStatus.NOT_FOUND, "该小班暂无单木数据");
         }
+
+        String filename = String.format("小班_%s_单木数据.%s", standIdInt, exportFormat.getExtension());
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8)
+                .replace("+", "%20");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        headers.setContentDispositionFormData("attachment", encodedFilename);
+        headers.set("Access-Control-Expose-Headers", "Content-Disposition");
+
+        ExportFormat selected = exportFormat;
+        StreamingResponseBody body = out -> treeService.readTrees("stand", standIdInt,
+                trees -> exportUtil.write(selected, trees, total, standIdInt, out, null));
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private ResponseEntity<StreamingResponseBody> message(HttpStatus status, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.parseMediaType("text/plain;charset=UTF-8"))
+                .body(out -> out.write(bytes));
     }
 
     @GetMapping("/health")
@@ -0,0 +1,68 @@
+package com.ceshi.forest.controller;
+
+import com.ceshi.forest.service.TreeTilesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单木 3D Tiles 接口（Cesium3DTileset 直接加载 tileset.json，按视野请求瓦片）
+ */
+@RestController
+@RequestMapping("/api/tiles/trees")
+@RequiredArgsConstructor
+public class TreeTilesController {
+
+    private final TreeTilesService treeTilesService;
+
+    /**
+     * 瓦片集入口，scope 为 stand / zone；首次请求或数据变化后会同步生成瓦片
+     */
+    @GetMapping("/{scope}/{scopeId}/tileset.json")
+    public ResponseEntity<Resource> getTileset(
+            @PathVariable String scope,
+            @PathVariable Integer scopeId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TreeTilesService.Tileset tileset = treeTilesService.getTileset(scope, scopeId);
+        if (tileset == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + tileset.version() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new FileSystemResource(tileset.file()));
+    }
+
+    /**
+     * 瓦片内容；路径含数据版本，内容不会变化，允许客户端长期缓存
+     */
+    @GetMapping("/{scope}/{scopeId}/{version}/{tileId}.i3dm")
+    public ResponseEntity<Resource> getTile(
+            @PathVariable String scope,
+            @PathVariable Integer scopeId,
+            @PathVariable String version,
+            @PathVariable String tileId) {
+        Path file = treeTilesService.getTile(scope, scopeId, version, tileId);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
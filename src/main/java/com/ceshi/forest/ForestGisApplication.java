@@ -3,12 +3,14 @@ package com.ceshi.forest;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 智慧林场GIS平台 - 主启动类
  */
 @SpringBootApplication
 @MapperScan("com.ceshi.forest.mapper")  // MyBatis Mapper 扫描路径
+@EnableScheduling  // 定时任务（导出文件清理等）
 public class ForestGisApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,18 @@
+package com.ceshi.forest.aspect;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记接口结果只依赖于指定数据表
+ * 由 DataVersionETagInterceptor 根据表版本生成 ETag，未变化时直接返回 304
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DataVersioned {
+
+    /**
+     * 依赖的数据表，见 DataVersionService 中的常量
+     */
+    String[] value();
+}
@@ -0,0 +1,55 @@
+package com.ceshi.forest.aspect;
+
+import com.ceshi.forest.profiling.MapperCallEvent;
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Mapper 调用 JFR 事件切面
+ * 未开启录制（或录制中未启用该事件）时只做一次布尔判断，不创建事件对象
+ */
+@Aspect
+@Component
+public class MapperProfilingAspect {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(MapperCallEvent.class);
+
+    /**
+     * 定义切点：所有 Mapper 接口方法
+     */
+    @Pointcut("execution(* com.ceshi.forest.mapper.*.*(..))")
+    public void mapperMethods() {}
+
+    @Around("mapperMethods()")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!EVENT_TYPE.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        MapperCallEvent event = new MapperCallEvent();
+        event.begin();
+        event.rows = -1;
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof List<?> list) {
+                event.rows = list.size();
+            }
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.mapper = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                event.inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+                event.commit();
+            }
+        }
+    }
+}
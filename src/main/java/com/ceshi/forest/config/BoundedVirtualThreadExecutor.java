@@ -0,0 +1,72 @@
+package com.ceshi.forest.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 虚拟线程执行器：最多 concurrency 个任务同时运行，另有 queueCapacity 个在虚拟线程中排队，
+ * 超出后立即抛出 TaskRejectedException，提交方不会被阻塞（与平台线程池队列满时的行为一致）
+ */
+class BoundedVirtualThreadExecutor implements AsyncTaskExecutor {
+
+    private final SimpleAsyncTaskExecutor delegate;
+    // 已接收（运行 + 排队）的任务数
+    private final Semaphore admitted;
+    // 正在运行的任务数
+    private final Semaphore running;
+
+    BoundedVirtualThreadExecutor(String prefix, int concurrency, int queueCapacity) {
+        this.delegate = new SimpleAsyncTaskExecutor(prefix);
+        this.delegate.setVirtualThreads(true);
+        this.admitted = new Semaphore(concurrency + Math.max(0, queueCapacity));
+        this.running = new Semaphore(concurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new TaskRejectedException("执行器已满，任务被拒绝: " + task);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    // 在虚拟线程内等待运行名额
+                    running.acquire();
+                } catch (InterruptedException e) {
+                    admitted.release();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                    admitted.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+}
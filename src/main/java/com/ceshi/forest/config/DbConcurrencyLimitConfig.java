@@ -0,0 +1,41 @@
+package com.ceshi.forest.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据库并发限流配置
+ * 虚拟线程模式下请求线程数不再受限，在取连接处用信号量把同时借出的连接数限制在连接池大小以内，
+ * 避免大量线程在 Hikari 中排队超时。事务、游标在整个持有连接期间占用许可
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "forest.db-limiter.enabled", havingValue = "true")
+public class DbConcurrencyLimitConfig {
+
+    /**
+     * 包装应用使用的主数据源（单库为 Hikari，读写分离时为延迟连接代理）
+     */
+    @Bean
+    public static BeanPostProcessor dbConcurrencyLimitPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("forest.db-limiter.permits", Integer.class, 10);
+                long timeoutMs = environment.getProperty("forest.db-limiter.acquire-timeout-ms", Long.class, 5000L);
+                log.info("数据库并发限流已启用, 许可数: {}, 获取超时: {}ms", permits, timeoutMs);
+                return new ConcurrencyLimitedDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.ceshi.forest.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 业务线程池配置
+ * 默认使用有界平台线程池；开启 spring.threads.virtual.enabled（JDK 21+）后
+ * 导出、缓存刷新、变更推送任务改为虚拟线程执行，保留并发上限与排队上限，超出时拒绝而不阻塞提交方
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * 导出任务线程池
+     */
+    @Bean
+    public AsyncTaskExecutor exportExecutor(@Value("${forest.executor.export.pool-size:4}") int poolSize,
+                                            @Value("${forest.executor.export.queue-capacity:50}") int queueCapacity) {
+        return buildExecutor("export-", poolSize, queueCapacity);
+    }
+
+    /**
+     * 缓存刷新线程池
+     */
+    @Bean
+    public AsyncTaskExecutor cacheRefreshExecutor(@Value("${forest.executor.cache-refresh.pool-size:2}") int poolSize,
+                                                  @Value("${forest.executor.cache-refresh.queue-capacity:100}") int queueCapacity) {
+        return buildExecutor("cache-refresh-", poolSize, queueCapacity);
+    }
+
+    /**
+     * 变更推送线程池（SSE 写出、Redis 转发）
+     */
+    @Bean
+    public AsyncTaskExecutor changeFeedExecutor(@Value("${forest.executor.change-feed.pool-size:4}") int poolSize,
+                                                @Value("${forest.executor.change-feed.queue-capacity:2000}") int queueCapacity) {
+        return buildExecutor("change-feed-", poolSize, queueCapacity);
+    }
+
+    /**
+     * 密码哈希线程池（BCrypt 校验 / 加密）
+     * CPU 密集任务，始终使用固定大小的平台线程池；队列满时直接拒绝，由调用方返回 429
+     */
+    @Bean
+    public AsyncTaskExecutor passwordHashExecutor(@Value("${forest.executor.password-hash.pool-size:2}") int poolSize,
+                                                  @Value("${forest.executor.password-hash.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        log.info("线程池 password-hash- 使用平台线程, 大小: {}, 队列: {}", poolSize, queueCapacity);
+        return executor;
+    }
+
+    private AsyncTaskExecutor buildExecutor(String prefix, int poolSize, int queueCapacity) {
+        if (virtualThreads) {
+            log.info("线程池 {} 使用虚拟线程, 并发上限: {}, 排队上限: {}", prefix, poolSize, queueCapacity);
+            return new BoundedVirtualThreadExecutor(prefix, poolSize, queueCapacity);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        log.info("线程池 {} 使用平台线程, 大小: {}, 队列: {}", prefix, poolSize, queueCapacity);
+        return executor;
+    }
+}
@@ -1,11 +1,16 @@
 package com.ceshi.forest.config;
 
+import com.ceshi.forest.profiling.ProxyCallInterceptor;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * Geoserver配置类
  */
@@ -22,8 +27,18 @@ public class GeoserverConfig {
     @Value("${geoserver.password:geoserver}")
     private String geoserverPassword;
 
+    /**
+     * 代理请求使用 JDK HttpClient，保留其默认执行器（有界执行器会阻塞或拒绝 HttpClient 内部的 I/O 回调）
+     */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(30));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(new ProxyCallInterceptor());
+        return restTemplate;
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.ceshi.forest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离数据源配置
+ * 仅在配置了 forest.datasource.replica-urls 时生效，否则沿用 spring.datasource 单库
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${forest.datasource.replica-urls:}'.trim().isEmpty()")
+public class ReadReplicaConfig {
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${spring.datasource.username}")
+    private String primaryUsername;
+
+    @Value("${spring.datasource.password}")
+    private String primaryPassword;
+
+    @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
+    private String driverClassName;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int primaryPoolSize;
+
+    @Value("${spring.datasource.hikari.connection-timeout:5000}")
+    private long connectionTimeout;
+
+    @Value("${forest.datasource.replica-urls}")
+    private String[] replicaUrls;
+
+    @Value("${forest.datasource.replica-username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${forest.datasource.replica-password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${forest.datasource.replica-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int replicaPoolSize;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Value("${forest.datasource.max-lag-ms:5000}") long maxLagMs,
+            @Value("${forest.datasource.read-your-writes-ms:10000}") long readYourWritesMs) {
+        DataSource primary = buildPool("forest-primary", primaryUrl, primaryUsername, primaryPassword,
+                primaryPoolSize, false);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!url.isBlank()) {
+                replicas.add(buildPool("forest-replica-" + replicas.size(), url.trim(),
+                        replicaUsername, replicaPassword, replicaPoolSize, true));
+            }
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, maxLagMs, readYourWritesMs);
+        routing.afterPropertiesSet();
+        log.info("读写分离已启用, 从库数: {}, 最大延迟: {}ms, 写后读主库窗口: {}ms",
+                replicas.size(), maxLagMs, readYourWritesMs);
+        return routing;
+    }
+
+    /**
+     * 事务、MyBatis 使用的数据源：延迟到首条语句才取连接，此时只读标记已就绪
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private DataSource buildPool(String poolName, String url, String username, String password,
+                                 int poolSize, boolean readOnly) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName(poolName);
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+        ds.setDriverClassName(driverClassName);
+        ds.setMaximumPoolSize(poolSize);
+        ds.setConnectionTimeout(connectionTimeout);
+        ds.setReadOnly(readOnly);
+        // 启动时不因从库暂不可用而失败，由延迟检查决定是否接收读流量
+        ds.setInitializationFailTimeout(-1);
+        return ds;
+    }
+}
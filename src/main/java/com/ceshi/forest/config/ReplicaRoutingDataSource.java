@@ -0,0 +1,242 @@
+package com.ceshi.forest.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 主从路由数据源
+ * 只读事务（@Transactional(readOnly = true)）轮询发往健康且延迟在阈值内的从库，其余一律走主库；
+ * 用户在读写事务中访问过数据库后，一段时间内该用户的只读事务也走主库，保证读到自己的写入。
+ * 写入版本化缓存或 Redis 的加载函数通过 {@link #readFromPrimary} 强制读主库，避免把从库上的旧数据按新版本缓存。
+ * 需配合 LazyConnectionDataSourceProxy 使用，否则事务开始取连接时只读标记尚未设置
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    // 未处于恢复模式（普通实例充当从库）时视为无延迟
+    private static final String REPLICA_LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   pg_last_wal_replay_lsn()::text,
+                   EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000
+            """;
+
+    // 当前线程强制读主库（readFromPrimary 内）
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas = new ArrayList<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final long maxLagMs;
+    // 最近写入过的用户 -> 写入时间；过期即结束主库读窗口
+    private final Cache<String, Long> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+                                    long maxLagMs, long readYourWritesMs) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, readYourWritesMs)))
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            ReplicaNode node = new ReplicaNode("replica-" + i, replicaDataSources.get(i));
+            replicas.add(node);
+            targets.put(node.key, node.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                recentWriters.put(user, System.currentTimeMillis());
+            }
+            return PRIMARY;
+        }
+
+        if (PRIMARY_READ.get() != null || (user != null && recentWriters.getIfPresent(user) != null)) {
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(roundRobin.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaNode node = replicas.get((start + i) % size);
+            if (node.available(maxLagMs)) {
+                return node.key;
+            }
+        }
+        // 从库全部不可用或延迟过大，回落主库
+        return PRIMARY;
+    }
+
+    /**
+     * 在主库上执行读取：action 内开始的只读事务也走主库，且不计入用户的写入窗口。
+     * 已在只读事务中取得连接后再调用无效，应在事务外调用
+     */
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        if (PRIMARY_READ.get() != null) {
+            return action.get();
+        }
+        PRIMARY_READ.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_READ.remove();
+        }
+    }
+
+    /**
+     * 定期检查从库可用性与复制延迟
+     * 延迟按 WAL 位置判断：已回放到主库当前位置视为 0，否则取最后一次回放事务距今的时间
+     */
+    @Scheduled(fixedDelayString = "${forest.datasource.replica-check-interval-ms:5000}")
+    public void checkReplicas() {
+        Long primaryLsn = queryPrimaryLsn();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaNode node = replicas.get(i);
+            try (Connection conn = node.dataSource.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(REPLICA_LAG_SQL)) {
+                rs.next();
+                boolean inRecovery = rs.getBoolean(1);
+                long lagMs;
+                if (!inRecovery) {
+                    lagMs = 0;
+                } else {
+                    Long replayLsn = parseLsn(rs.getString(2));
+                    double replayAgeMs = rs.getDouble(3);
+                    boolean caughtUp = primaryLsn != null && replayLsn != null && replayLsn >= primaryLsn;
+                    lagMs = caughtUp ? 0 : (rs.wasNull() ? Long.MAX_VALUE : (long) replayAgeMs);
+                }
+                updateReplicaState(i, true, lagMs);
+            } catch (SQLException e) {
+                if (node.healthy) {
+                    log.warn("从库 {} 不可用: {}", node.key, e.getMessage());
+                }
+                updateReplicaState(i, false, Long.MAX_VALUE);
+            }
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * 关闭各连接池（容器销毁 Bean 时按 close 方法推断调用）
+     */
+    public void close() {
+        closeQuietly(primary);
+        replicas.forEach(node -> closeQuietly(node.dataSource));
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("关闭数据源失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    void updateReplicaState(int index, boolean healthy, long lagMs) {
+        ReplicaNode node = replicas.get(index);
+        boolean wasAvailable = node.available(maxLagMs);
+        node.healthy = healthy;
+        node.lagMs = lagMs;
+        boolean available = node.available(maxLagMs);
+        if (wasAvailable != available) {
+            log.info("从库 {} {}，延迟: {}ms", node.key, available ? "恢复读流量" : "暂停读流量",
+                    lagMs == Long.MAX_VALUE ? "未知" : lagMs);
+        }
+    }
+
+    private Long queryPrimaryLsn() {
+        try (Connection conn = primary.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(PRIMARY_LSN_SQL)) {
+            return rs.next() ? parseLsn(rs.getString(1)) : null;
+        } catch (SQLException e) {
+            log.warn("查询主库 WAL 位置失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * "16/B374D848" -> 64 位位置
+     */
+    static Long parseLsn(String lsn) {
+        if (lsn == null) {
+            return null;
+        }
+        int slash = lsn.indexOf('/');
+        if (slash < 0) {
+            return null;
+        }
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+
+    private static class ReplicaNode {
+        private final String key;
+        private final DataSource dataSource;
+        // 首次检查通过前不接收读流量
+        private volatile boolean healthy;
+        private volatile long lagMs = Long.MAX_VALUE;
+
+        ReplicaNode(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        boolean available(long maxLagMs) {
+            return healthy && lagMs <= maxLagMs;
+        }
+    }
+}
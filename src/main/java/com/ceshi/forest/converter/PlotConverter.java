@@ -0,0 +1,23 @@
+package com.ceshi.forest.converter;
+
+import com.ceshi.forest.dto.PlotDTO;
+import com.ceshi.forest.entity.SamplePlot;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 样地实体与 DTO 转换
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PlotConverter {
+
+    // 林分名称由调用方按需填充
+    @Mapping(target = "standName", constant = "")
+    @Mapping(target = "surveyDate", dateFormat = "yyyy-MM-dd")
+    PlotDTO toDTO(SamplePlot plot);
+
+    List<PlotDTO> toDTOList(List<SamplePlot> plots);
+}
@@ -0,0 +1,52 @@
+package com.ceshi.forest.converter;
+
+import com.ceshi.forest.dto.StandDTO;
+import com.ceshi.forest.entity.ForestStand;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 林分实体与 DTO 转换（MapStruct 编译期生成，无反射）
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface StandConverter {
+
+    StandDTO toDTO(ForestStand stand);
+
+    List<StandDTO> toDTOList(List<ForestStand> stands);
+
+    /**
+     * 新建林分：审计字段、编码拆分字段由服务层填写
+     */
+    @Mapping(target = "linBan", ignore = true)
+    @Mapping(target = "xiaoBan", ignore = true)
+    @Mapping(target = "createTime", ignore = true)
+    @Mapping(target = "updateTime", ignore = true)
+    @Mapping(target = "createBy", ignore = true)
+    @Mapping(target = "updateBy", ignore = true)
+    @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "boundary", ignore = true)
+    ForestStand toEntity(StandDTO dto);
+
+    /**
+     * 用 DTO 覆盖已有实体（DTO 中为 null 的字段同样写入 null），审计字段和边界保持不变
+     */
+    @Mapping(target = "linBan", ignore = true)
+    @Mapping(target = "xiaoBan", ignore = true)
+    @Mapping(target = "createTime", ignore = true)
+    @Mapping(target = "updateTime", ignore = true)
+    @Mapping(target = "createBy", ignore = true)
+    @Mapping(target = "updateBy", ignore = true)
+    @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "boundary", ignore = true)
+    void updateEntity(StandDTO dto, @MappingTarget ForestStand stand);
+
+    /**
+     * 浅拷贝，用于数据变更事件的变更前快照
+     */
+    ForestStand copy(ForestStand stand);
+}
@@ -0,0 +1,21 @@
+package com.ceshi.forest.converter;
+
+import com.ceshi.forest.dto.TreeDTO;
+import com.ceshi.forest.entity.TreeMeasurement;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 单木测量实体与 DTO 转换
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface TreeConverter {
+
+    @Mapping(target = "surveyDate", dateFormat = "yyyy-MM-dd")
+    TreeDTO toDTO(TreeMeasurement tree);
+
+    List<TreeDTO> toDTOList(List<TreeMeasurement> trees);
+}
@@ -0,0 +1,15 @@
+package com.ceshi.forest.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 边界更新请求
+ */
+@Data
+public class BoundaryDTO {
+
+    // WKT 格式的 POLYGON / MULTIPOLYGON（EPSG:4326）
+    @NotBlank(message = "边界 WKT 不能为空")
+    private String wkt;
+}
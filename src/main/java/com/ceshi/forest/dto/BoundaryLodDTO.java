@@ -0,0 +1,18 @@
+package com.ceshi.forest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 边界简化层级概要
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoundaryLodDTO {
+    private Integer lodLevel;
+    // 简化容差（度）
+    private Double tolerance;
+    private Integer vertexCount;
+}
@@ -0,0 +1,28 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 数据变更推送事件
+ * 客户端按 table + entityId 把 data 合并到本地列表；op 为 BULK 或收到 resync 时整体重新加载
+ */
+@Data
+public class ChangeEventDTO {
+    // 事件 ID（节点:序号），断线重连时作为 Last-Event-ID 续传
+    private String id;
+    private String table;
+    // INSERT / UPDATE / DELETE / BULK
+    private String op;
+    private Integer entityId;
+    // UPDATE 时变化的字段名
+    private List<String> changedFields;
+    // 变更后的数据（INSERT / UPDATE），DELETE、BULK 为空
+    private Object data;
+    // 变更后的表数据版本，与列表接口 ETag 中的版本一致
+    private Long version;
+    private Long timestamp;
+    // 产生变更的节点，用于跨节点转发时去重
+    private String origin;
+}
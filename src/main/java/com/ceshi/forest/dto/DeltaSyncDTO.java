@@ -0,0 +1,28 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 增量同步结果
+ * 客户端按页应用 upserts / deletes，保存 next 作为下次的 since；hasMore 为 true 时立即继续拉取
+ */
+@Data
+public class DeltaSyncDTO<T> {
+
+    // 新增或修改的记录（同一页内每个 ID 只出现一次）
+    private List<T> upserts = new ArrayList<>();
+
+    // 已删除记录的 ID
+    private List<Integer> deletes = new ArrayList<>();
+
+    // 下一页 / 下次同步的游标
+    private String next;
+
+    private boolean hasMore;
+
+    // 游标早于墓碑清理水位，客户端需清空本地数据后以空 since 全量同步
+    private boolean resetRequired;
+}
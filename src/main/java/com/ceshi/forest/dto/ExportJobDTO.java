@@ -0,0 +1,44 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 异步导出任务状态
+ */
+@Data
+public class ExportJobDTO {
+
+    private String jobId;
+
+    // 导出范围：stand / zone
+    private String scope;
+
+    private Integer scopeId;
+
+    // 导出格式：csv / excel / json
+    private String format;
+
+    // 任务状态：PENDING / RUNNING / DONE / FAILED
+    private String status;
+
+    private Integer totalRows;
+
+    private Integer writtenRows;
+
+    // 进度百分比 0-100
+    private Integer progress;
+
+    private String fileName;
+
+    private Long fileSize;
+
+    private String errorMessage;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime finishTime;
+
+    private String downloadUrl;
+}
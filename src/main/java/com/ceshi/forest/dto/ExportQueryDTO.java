@@ -0,0 +1,24 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+/**
+ * 林分 / 样地导出筛选条件，均可为空
+ */
+@Data
+public class ExportQueryDTO {
+
+    private Integer zoneId;
+
+    // 林分优势树种；导出样地时按所属林分过滤
+    private String species;
+
+    // 仅样地导出使用
+    private Integer standId;
+
+    // 经纬度范围，四个值齐全时才生效
+    private Double minLon;
+    private Double minLat;
+    private Double maxLon;
+    private Double maxLat;
+}
@@ -0,0 +1,27 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * 要素流式输出参数
+ */
+@Data
+public class FeatureQueryDTO {
+
+    // [minLon, minLat, maxLon, maxLat]，为空时不限制范围
+    private double[] bbox;
+
+    // 输出属性，为空时输出全部
+    private Set<String> properties;
+
+    // 坐标保留小数位数
+    private int precision = 6;
+
+    // true 输出 GeoJSON Text Sequence（RFC 8142），false 输出 FeatureCollection
+    private boolean sequence;
+
+    // 边界简化层级，为空时林分输出中心点
+    private Integer lodLevel;
+}
@@ -0,0 +1,17 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+/**
+ * 网格聚合单元
+ */
+@Data
+public class GridCellDTO {
+    private String geohash;
+    private Integer count;
+    private Double totalVolume;
+    private String dominantSpecies;
+    // 单元内点位的平均坐标
+    private Double centroidLon;
+    private Double centroidLat;
+}
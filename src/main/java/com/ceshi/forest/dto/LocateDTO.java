@@ -0,0 +1,25 @@
+package com.ceshi.forest.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 点位定位林分（请求与结果共用）
+ */
+@Data
+public class LocateDTO {
+
+    // 调用方自定义标识，原样返回
+    private String key;
+
+    @NotNull(message = "经度不能为空")
+    private Double lon;
+
+    @NotNull(message = "纬度不能为空")
+    private Double lat;
+
+    // 以下为定位结果，未落入任何小班时为空
+    private Integer standId;
+    private String xiaoBanCode;
+    private String standName;
+}
@@ -0,0 +1,38 @@
+package com.ceshi.forest.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * JFR 录制状态
+ */
+@Data
+public class RecordingDTO {
+
+    private String id;
+
+    // 录制类型：ON_DEMAND（按需开始/停止）/ DUMP（从常驻环形缓冲导出）
+    private String type;
+
+    // JFR 配置：default / profile
+    private String settings;
+
+    // 录制状态：RUNNING / DONE / FAILED
+    private String status;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime stopTime;
+
+    // 计划录制时长（秒），到时自动停止
+    private Long durationSeconds;
+
+    private String fileName;
+
+    private Long fileSize;
+
+    private String errorMessage;
+
+    private String downloadUrl;
+}
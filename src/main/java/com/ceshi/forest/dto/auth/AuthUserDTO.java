@@ -0,0 +1,23 @@
+package com.ceshi.forest.dto.auth;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 认证用到的用户快照（用户信息 + 角色编码），只缓存在本地
+ * UserDetails 会在认证后被擦除密码，因此缓存本对象，每次认证重新构造 UserDetails
+ */
+@Data
+public class AuthUserDTO {
+    private Integer userId;
+    private String username;
+    // BCrypt 哈希
+    private String password;
+    private String realName;
+    private String email;
+    private String phone;
+    private String avatar;
+    private Integer status;
+    private List<String> roles;
+}
@@ -0,0 +1,19 @@
+package com.ceshi.forest.entity;
+
+import lombok.Data;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * 边界简化结果（某一细节层级）
+ */
+@Data
+public class BoundaryLod {
+    // stand / zone
+    private String ownerType;
+    private Integer ownerId;
+    private Integer lodLevel;
+    // 简化容差（度）
+    private Double tolerance;
+    private Integer vertexCount;
+    private Geometry geom;
+}
@@ -0,0 +1,13 @@
+package com.ceshi.forest.entity;
+
+import lombok.Data;
+
+/**
+ * 增量同步的变更键：最后写入事务号 + 主键，deleted 为 true 时表示墓碑
+ */
+@Data
+public class ChangeKey {
+    private Long xid;
+    private Integer id;
+    private Boolean deleted;
+}
@@ -0,0 +1,14 @@
+package com.ceshi.forest.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 墓碑清理水位，早于该水位的同步游标已无法补齐删除记录
+ */
+@Data
+public class ChangeLogFloor {
+    private Long floorXid;
+    private LocalDateTime floorTime;
+}
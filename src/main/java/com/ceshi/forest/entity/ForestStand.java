@@ -1,6 +1,7 @@
 package com.ceshi.forest.entity;
 
 import lombok.Data;
+import org.locationtech.jts.geom.Geometry;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -37,4 +38,6 @@ public class ForestStand {
     private String origin;
     private String remark;
     private Integer siteClass;
+    // 边界（仅边界查询时填充）
+    private Geometry boundary;
 }
\ No newline at end of file
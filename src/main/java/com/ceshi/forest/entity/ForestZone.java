@@ -1,6 +1,7 @@
 package com.ceshi.forest.entity;
 
 import lombok.Data;
+import org.locationtech.jts.geom.Geometry;
 import java.time.LocalDate;
 
 @Data
@@ -14,5 +15,7 @@ public class ForestZone {
     private LocalDate establishedDate;
     private String managerName;
     private String contactPhone;
+    // 边界（仅边界查询时填充）
+    private Geometry boundary;
     // geom 字段在查询时单独处理
 }
\ No newline at end of file
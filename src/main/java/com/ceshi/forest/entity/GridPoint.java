@@ -0,0 +1,15 @@
+package com.ceshi.forest.entity;
+
+import lombok.Data;
+
+/**
+ * 网格聚合的输入点（林分中心点 / 样地 / 单木所在样地坐标）
+ */
+@Data
+public class GridPoint {
+    private Integer id;
+    private Double lon;
+    private Double lat;
+    private Double volume;
+    private String species;
+}
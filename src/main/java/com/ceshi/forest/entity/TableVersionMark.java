@@ -0,0 +1,14 @@
+package com.ceshi.forest.entity;
+
+import lombok.Data;
+
+/**
+ * 表数据版本依据：已提交的最大变更事务号 + 当前快照 xmin
+ */
+@Data
+public class TableVersionMark {
+    // 行、墓碑、清理水位中最大的事务号
+    private Long maxXid;
+    // 小于它的事务均已结束
+    private Long xmin;
+}
@@ -0,0 +1,19 @@
+package com.ceshi.forest.entity;
+
+import lombok.Data;
+
+/**
+ * 3D Tiles 构建的输入：单木属性 + 所在样地坐标（单木本身没有坐标）
+ */
+@Data
+public class TreeInstance {
+    private Integer treeId;
+    private String species;
+    private Double treeHeight;
+    private Double crownWidth;
+    private Double dbhAvg;
+    private Double lon;
+    private Double lat;
+    private Double plotAreaM2;
+    private Integer elevation;
+}
@@ -0,0 +1,214 @@
+package com.ceshi.forest.event;
+
+import com.ceshi.forest.dto.ChangeEventDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 变更事件广播器（无锁）
+ * 事件按序号写入共享环形缓冲区，每个订阅者只持有自己的读取位置，由执行器逐个推送，发布方不等待任何客户端。
+ * 订阅者落后超过 maxLag（或要续传的事件已被覆盖）时丢弃积压并发送 resync，由客户端整体重新加载，
+ * 慢客户端因此只占用固定内存，也不会拖慢其他订阅者
+ */
+@Slf4j
+public class ChangeBroadcaster {
+
+    /**
+     * 订阅者的输出端，同一订阅者的调用不会并发
+     */
+    public interface Sink {
+
+        void send(ChangeEventDTO event) throws IOException;
+
+        /**
+         * 积压溢出或无法续传，客户端应整体重新加载
+         */
+        void resync(String reason) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private record Slot(long seq, ChangeEventDTO event) {
+    }
+
+    private final String nodeId;
+    private final AtomicReferenceArray<Slot> ring;
+    private final int ringSize;
+    private final int maxLag;
+    private final Executor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public ChangeBroadcaster(String nodeId, int ringSize, int maxLag, Executor executor) {
+        this.nodeId = nodeId;
+        this.ringSize = ringSize;
+        this.ring = new AtomicReferenceArray<>(ringSize);
+        this.maxLag = Math.min(maxLag, ringSize);
+        this.executor = executor;
+    }
+
+    /**
+     * 发布事件：分配序号（写入 event.id）后通知所有订阅者
+     */
+    public void publish(ChangeEventDTO event) {
+        long seq = sequence.incrementAndGet();
+        event.setId(nodeId + ":" + seq);
+        ring.set((int) (seq % ringSize), new Slot(seq, event));
+        for (Subscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * 订阅
+     * @param tables      关注的表，为空表示全部
+     * @param lastEventId 断线前收到的最后一个事件 ID，可续传时补发其后的事件，否则先发送 resync
+     */
+    public Subscription subscribe(Set<String> tables, Sink sink, String lastEventId) {
+        long current = sequence.get();
+        long cursor = current;
+        boolean resync = false;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            long resumeFrom = parseSeq(lastEventId);
+            if (resumeFrom >= 0 && resumeFrom <= current && current - resumeFrom <= maxLag) {
+                cursor = resumeFrom;
+            } else {
+                resync = true;
+            }
+        }
+        Subscription subscription = new Subscription(tables, sink, cursor, resync);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscription.closed = true;
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * 向所有订阅者发送心跳，及时发现已断开的连接
+     */
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatPending = true;
+            subscription.signal();
+        }
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private long parseSeq(String eventId) {
+        int sep = eventId.lastIndexOf(':');
+        if (sep < 0 || !nodeId.equals(eventId.substring(0, sep))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(sep + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public final class Subscription {
+
+        private final Set<String> tables;
+        private final Sink sink;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // 已推送（或跳过）的最后一个序号，只在推送线程中修改
+        private long cursor;
+        private volatile boolean resyncPending;
+        private volatile boolean heartbeatPending;
+        private volatile boolean closed;
+
+        private Subscription(Set<String> tables, Sink sink, long cursor, boolean resyncPending) {
+            this.tables = tables;
+            this.sink = sink;
+            this.cursor = cursor;
+            this.resyncPending = resyncPending;
+        }
+
+        private boolean hasWork() {
+            return !closed && (resyncPending || heartbeatPending || cursor < sequence.get());
+        }
+
+        private void signal() {
+            if (hasWork() && draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // 推送线程繁忙，下一次发布或心跳时重试
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    drainOnce();
+                } catch (IOException | RuntimeException e) {
+                    log.debug("变更推送失败，移除订阅: {}", e.getMessage());
+                    unsubscribe(this);
+                    sink.close();
+                }
+                draining.set(false);
+            } while (hasWork() && draining.compareAndSet(false, true));
+        }
+
+        private void drainOnce() throws IOException {
+            long published = sequence.get();
+            if (published - cursor > maxLag) {
+                resyncPending = true;
+            }
+            if (resyncPending) {
+                resyncPending = false;
+                cursor = published;
+                sink.resync("lagging");
+            }
+
+            while (!closed && cursor < published) {
+                long next = cursor + 1;
+                Slot slot = ring.get((int) (next % ringSize));
+                if (slot == null || slot.seq() < next) {
+                    // 序号已分配但尚未写入，写入方发布后会再次通知
+                    break;
+                }
+                if (slot.seq() > next) {
+                    // 已被覆盖
+                    cursor = published;
+                    sink.resync("lagging");
+                    break;
+                }
+                cursor = next;
+                ChangeEventDTO event = slot.event();
+                if (tables.isEmpty() || tables.contains(event.getTable())) {
+                    sink.send(event);
+                }
+            }
+
+            if (heartbeatPending) {
+                heartbeatPending = false;
+                sink.heartbeat();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ceshi.forest.event;
+
+import lombok.Getter;
+
+/**
+ * 数据变更事件
+ * 服务层写操作在递增数据版本后发布，监听方通过 @TransactionalEventListener 在事务提交后处理
+ */
+@Getter
+public class DataChangeEvent {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE,
+        // 批量变更，无法逐条描述，监听方应整体重建
+        BULK
+    }
+
+    private final String table;
+    private final Operation operation;
+    private final Integer id;
+    // 变更前后的实体快照，INSERT 时 before 为空，DELETE 时 after 为空
+    private final Object before;
+    private final Object after;
+
+    private DataChangeEvent(String table, Operation operation, Integer id, Object before, Object after) {
+        this.table = table;
+        this.operation = operation;
+        this.id = id;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static DataChangeEvent inserted(String table, Integer id, Object after) {
+        return new DataChangeEvent(table, Operation.INSERT, id, null, after);
+    }
+
+    public static DataChangeEvent updated(String table, Integer id, Object before, Object after) {
+        return new DataChangeEvent(table, Operation.UPDATE, id, before, after);
+    }
+
+    public static DataChangeEvent deleted(String table, Integer id, Object before) {
+        return new DataChangeEvent(table, Operation.DELETE, id, before, null);
+    }
+
+    public static DataChangeEvent bulk(String table) {
+        return new DataChangeEvent(table, Operation.BULK, null, null, null);
+    }
+
+    @Override
+    public String toString() {
+        return "DataChangeEvent{" + table + " " + operation + (id != null ? " id=" + id : "") + "}";
+    }
+}
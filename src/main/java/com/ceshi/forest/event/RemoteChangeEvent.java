@@ -0,0 +1,18 @@
+package com.ceshi.forest.event;
+
+import com.ceshi.forest.dto.ChangeEventDTO;
+import lombok.Getter;
+
+/**
+ * 其他节点经 Redis 转发过来的数据变更
+ * 与 {@link DataChangeEvent} 分开发布，避免本节点监听方把它当作本地写入再次转发；需要同步本地内存状态的监听方用 @EventListener 处理
+ */
+@Getter
+public class RemoteChangeEvent {
+
+    private final ChangeEventDTO change;
+
+    public RemoteChangeEvent(ChangeEventDTO change) {
+        this.change = change;
+    }
+}
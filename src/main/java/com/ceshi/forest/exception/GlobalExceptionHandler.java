@@ -2,7 +2,9 @@ package com.ceshi.forest.exception;
 
 import com.ceshi.forest.dto.ResultDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.BindException;
@@ -31,6 +33,16 @@ public class GlobalExceptionHandler {
         return ResultDTO.fail(400, message);
     }
 
+    /**
+     * 限流拒绝：返回真实 429 状态码，前端按 Retry-After 重试
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ResultDTO<Void>> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ResultDTO.fail(429, e.getMessage()));
+    }
+
     /**
      * 静默处理静态资源找不到的错误（favicon.ico、Chrome DevTools 等）
      */
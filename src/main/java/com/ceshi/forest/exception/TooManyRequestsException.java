@@ -0,0 +1,17 @@
+package com.ceshi.forest.exception;
+
+import lombok.Getter;
+
+/**
+ * 请求过多，由 {@link GlobalExceptionHandler} 转换为 429 + Retry-After
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+}
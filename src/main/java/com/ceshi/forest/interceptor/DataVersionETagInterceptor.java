@@ -0,0 +1,87 @@
+package com.ceshi.forest.interceptor;
+
+import com.ceshi.forest.aspect.DataVersioned;
+import com.ceshi.forest.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 基于数据版本的 ETag 拦截器
+ * 在进入 Controller 之前比较 If-None-Match，版本未变化时直接返回 304，不执行查询和序列化
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataVersionETagInterceptor implements HandlerInterceptor {
+
+    // 压缩表示的 ETag 后缀，比较时忽略
+    public static final String GZIP_SUFFIX = "-gzip";
+
+    private final DataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        DataVersioned versioned = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), DataVersioned.class);
+        if (versioned == null) {
+            versioned = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), DataVersioned.class);
+        }
+        if (versioned == null) {
+            return true;
+        }
+
+        String etag = dataVersionService.getETag(versioned.value());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            log.debug("数据未变化, 返回304: {}", request.getRequestURI());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * If-None-Match 使用弱比较：忽略 W/ 前缀和压缩后缀
+     */
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String current = normalize(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || normalize(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String normalize(String tag) {
+        String value = tag.startsWith("W/") ? tag.substring(2) : tag;
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        if (value.endsWith(GZIP_SUFFIX)) {
+            value = value.substring(0, value.length() - GZIP_SUFFIX.length());
+        }
+        return value;
+    }
+}
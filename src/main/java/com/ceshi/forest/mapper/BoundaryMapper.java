@@ -0,0 +1,54 @@
+package com.ceshi.forest.mapper;
+
+import com.ceshi.forest.entity.BoundaryLod;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.entity.ForestZone;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 林分/林场边界及其多级简化结果
+ * ownerType 取值：stand / zone
+ */
+@Mapper
+public interface BoundaryMapper {
+
+    // ==================== 原始边界 ====================
+
+    int updateBoundary(@Param("ownerType") String ownerType, @Param("ownerId") Integer ownerId,
+                       @Param("geom") Geometry geom);
+
+    Geometry findBoundary(@Param("ownerType") String ownerType, @Param("ownerId") Integer ownerId);
+
+    // 所有已设置边界的对象（lodLevel = 0, geom 为原始边界）
+    List<BoundaryLod> findAllBoundaries(@Param("ownerType") String ownerType);
+
+    // 指定对象中已设置边界的部分
+    List<BoundaryLod> findBoundariesByIds(@Param("ownerType") String ownerType, @Param("ids") Collection<Integer> ids);
+
+    // 定位索引数据：stand_id / xiao_ban_code / stand_name + 原始边界
+    List<ForestStand> findStandBoundaryIndex();
+
+    // ==================== 简化层级 ====================
+
+    int deleteLods(@Param("ownerType") String ownerType, @Param("ownerId") Integer ownerId);
+
+    int insertLod(BoundaryLod lod);
+
+    List<BoundaryLod> findLodSummary(@Param("ownerType") String ownerType, @Param("ownerId") Integer ownerId);
+
+    // ==================== 流式读取（需在事务内遍历） ====================
+
+    Cursor<ForestStand> cursorStandBoundaries(@Param("level") int level,
+                                              @Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                              @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
+
+    Cursor<ForestZone> cursorZoneBoundaries(@Param("level") int level,
+                                            @Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                            @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
+}
@@ -0,0 +1,30 @@
+package com.ceshi.forest.mapper;
+
+import com.ceshi.forest.entity.ChangeKey;
+import com.ceshi.forest.entity.ChangeLogFloor;
+import com.ceshi.forest.entity.TableVersionMark;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface ChangeLogMapper {
+
+    // 当前快照的 xmin：小于它的事务均已结束，可作为本次同步的上界
+    Long selectHorizon();
+
+    ChangeLogFloor selectFloor();
+
+    // 墓碑键，按 (change_xid, entity_id) 升序；sinceTime 为空时不按时间过滤
+    List<ChangeKey> findTombstoneKeys(@Param("table") String table, @Param("horizon") Long horizon,
+                                      @Param("afterXid") Long afterXid, @Param("afterId") Integer afterId,
+                                      @Param("sinceTime") LocalDateTime sinceTime, @Param("limit") int limit);
+
+    // 数据版本依据，table 取 forest_stand / sample_plot / tree_measurement
+    TableVersionMark selectVersionMark(@Param("table") String table);
+
+    // 删除 before 之前的墓碑并推进清理水位，返回删除行数
+    int purgeTombstones(@Param("before") LocalDateTime before);
+}
@@ -2,9 +2,12 @@ package com.ceshi.forest.mapper;
 
 import com.ceshi.forest.dto.StatisticsDTO;
 import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.entity.ChangeKey;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -14,29 +17,61 @@ public interface ForestStandMapper {
 
     List<ForestStand> findAll();
 
+    // 流式读取全部有效林分（需在事务内遍历）
+    Cursor<ForestStand> cursorAll();
+
     ForestStand findById(Integer id);
 
     ForestStand findByXiaoBanCode(String code);
 
+    int countByXiaoBanCode(@Param("code") String code);
+
+    // 布隆过滤器构建用：仅返回 stand_id / xiao_ban_code
+    List<ForestStand> findAllKeys();
+
     List<ForestStand> findByDominantSpecies(String species);
 
     List<ForestStand> findByVolumePerHaGreaterThan(Double minVolume);
 
     List<ForestStand> findByStandAgeGreaterThanEqual(Integer minAge);
 
-    List<ForestStand> findNearbyStands(@Param("lon") Double lon, @Param("lat") Double lat, @Param("radius") Integer radius);
+    // 按距离升序；radius（米）为空时不限半径，limit 为空时不限数量
+    List<ForestStand> findNearbyStands(@Param("lon") Double lon, @Param("lat") Double lat,
+                                       @Param("radius") Integer radius, @Param("limit") Integer limit);
 
     List<StatisticsDTO> getStatisticsBySpecies();
 
     List<ForestStand> findInExtent(@Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
                                    @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
 
+    // 流式读取（需在事务内遍历），范围参数为空时返回全部
+    Cursor<ForestStand> cursorInExtent(@Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                       @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
+
+    // 导出（游标），各条件为空时不过滤
+    Cursor<ForestStand> cursorForExport(@Param("zoneId") Integer zoneId, @Param("species") String species,
+                                        @Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                        @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
+
+    // 增量同步：horizon 之前、(afterXid, afterId) 之后的变更键，按 (change_xid, 主键) 升序；liveOnly 时排除已删除林分（首次全量）
+    List<ChangeKey> findChangeKeys(@Param("horizon") Long horizon, @Param("afterXid") Long afterXid,
+                                   @Param("afterId") Integer afterId, @Param("sinceTime") LocalDateTime sinceTime,
+                                   @Param("liveOnly") boolean liveOnly, @Param("limit") int limit);
+
+    // 按 ID 批量查询，包含已删除林分
+    List<ForestStand> findByIds(@Param("ids") List<Integer> ids);
+
     // ==================== CRUD方法 ====================
 
     int insert(ForestStand stand);
 
     int update(ForestStand stand);
 
+    // 按小班编码批量插入或更新，返回影响行数；写入后的 stand_id 回填到各实体
+    int upsertBatch(@Param("stands") List<ForestStand> stands, @Param("operator") String operator);
+
+    List<Integer> findZoneIds();
+
     int deleteById(Integer id);
 
     int logicDeleteById(@Param("id") Integer id, @Param("updateBy") String updateBy);
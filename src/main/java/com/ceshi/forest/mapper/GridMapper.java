@@ -0,0 +1,20 @@
+package com.ceshi.forest.mapper;
+
+import com.ceshi.forest.entity.GridPoint;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.cursor.Cursor;
+
+/**
+ * 网格聚合数据源（游标读取，须在事务内调用）
+ */
+@Mapper
+public interface GridMapper {
+
+    Cursor<GridPoint> cursorStandPoints();
+
+    // 样地树种取所属林分的优势树种
+    Cursor<GridPoint> cursorPlotPoints();
+
+    // 单木没有独立坐标，使用所在样地坐标
+    Cursor<GridPoint> cursorTreePoints();
+}
@@ -1,8 +1,12 @@
 package com.ceshi.forest.mapper;
 
 import com.ceshi.forest.entity.SamplePlot;
+import com.ceshi.forest.entity.ChangeKey;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -10,6 +14,9 @@ public interface SamplePlotMapper {
 
     List<SamplePlot> findAll();
 
+    // 流式读取全部样地（需在事务内遍历）
+    Cursor<SamplePlot> cursorAll();
+
     SamplePlot findById(Integer id);
 
     List<SamplePlot> findByStandId(Integer standId);
@@ -17,4 +24,28 @@ public interface SamplePlotMapper {
     List<SamplePlot> findByVolumePerHaGreaterThan(Double minVolume);
 
     Object[] getPlotStatisticsByStandId(Integer standId);
+
+    // 按距离升序；radius（米）为空时不限半径，limit 为空时不限数量
+    List<SamplePlot> findNearbyPlots(@Param("lon") Double lon, @Param("lat") Double lat,
+                                     @Param("radius") Integer radius, @Param("limit") Integer limit);
+
+    // 增量同步：horizon 之前、(afterXid, afterId) 之后的变更键，按 (change_xid, 主键) 升序
+    List<ChangeKey> findChangeKeys(@Param("horizon") Long horizon, @Param("afterXid") Long afterXid,
+                                   @Param("afterId") Integer afterId, @Param("sinceTime") LocalDateTime sinceTime,
+                                   @Param("limit") int limit);
+
+    List<SamplePlot> findByIds(@Param("ids") List<Integer> ids);
+
+    // 批量更新样地所属林分（使用 plotId / standId）
+    int batchUpdateStandId(@Param("plots") List<SamplePlot> plots);
+
+    // 流式读取（需在事务内遍历），范围参数为空时返回全部
+    Cursor<SamplePlot> cursorInExtent(@Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                      @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
+
+    // 导出（游标），林场与树种按所属林分过滤，各条件为空时不过滤
+    Cursor<SamplePlot> cursorForExport(@Param("standId") Integer standId, @Param("zoneId") Integer zoneId,
+                                       @Param("species") String species,
+                                       @Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                       @Param("minLat") Double minLat, @Param("maxLat") Double maxLat);
 }
\ No newline at end of file
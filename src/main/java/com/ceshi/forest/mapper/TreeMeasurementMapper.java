@@ -1,8 +1,13 @@
 package com.ceshi.forest.mapper;
 
+import com.ceshi.forest.entity.TreeInstance;
 import com.ceshi.forest.entity.TreeMeasurement;
+import com.ceshi.forest.entity.ChangeKey;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -17,11 +22,58 @@ public interface TreeMeasurementMapper {
 
     List<TreeMeasurement> findByStandId(Integer standId);
 
+    List<TreeMeasurement> findByZoneId(Integer zoneId);
+
     List<TreeMeasurement> findByDbhAvgGreaterThanEqual(Double minDbh);
 
     List<TreeMeasurement> findBySpecies(String species);
 
+    // 按胸径降序取前 N 株
+    List<TreeMeasurement> findTopByDbhAvg(@Param("limit") Integer limit);
+
+    // 按所在样地距离升序；radius（米）为空时不限半径，limit 为空时不限数量
+    List<TreeMeasurement> findNearbyTrees(@Param("lon") Double lon, @Param("lat") Double lat,
+                                          @Param("radius") Integer radius, @Param("limit") Integer limit);
+
+    // ==================== 流式读取（需在事务内遍历） ====================
+
+    Cursor<TreeMeasurement> cursorAll();
+
+    Cursor<TreeMeasurement> cursorByStandId(@Param("standId") Integer standId);
+
+    Cursor<TreeMeasurement> cursorByZoneId(@Param("zoneId") Integer zoneId);
+
+    Cursor<TreeMeasurement> cursorByDbhAvgGreaterThanEqual(@Param("minDbh") Double minDbh);
+
+    Cursor<TreeMeasurement> cursorBySpecies(@Param("species") String species);
+
+    int countByStandId(@Param("standId") Integer standId);
+
+    int countByZoneId(@Param("zoneId") Integer zoneId);
+
     List<Map<String, Object>> getStatisticsBySpecies();
 
     Double calculatePlotVolume(Integer plotId);
-}
\ No newline at end of file
+
+    // 单木所属林分随样地同步（样地归属调整后调用）
+    int syncStandIdByPlotIds(@Param("plotIds") List<Integer> plotIds);
+
+    // ==================== 数据版本（导出去重） ====================
+
+    String selectStandDataVersion(Integer standId);
+
+    String selectZoneDataVersion(Integer zoneId);
+
+    // 增量同步：horizon 之前、(afterXid, afterId) 之后的变更键，按 (change_xid, 主键) 升序
+    List<ChangeKey> findChangeKeys(@Param("horizon") Long horizon, @Param("afterXid") Long afterXid,
+                                   @Param("afterId") Integer afterId, @Param("sinceTime") LocalDateTime sinceTime,
+                                   @Param("limit") int limit);
+
+    List<TreeMeasurement> findByIds(@Param("ids") List<Integer> ids);
+
+    // 3D Tiles：单木 + 所在样地坐标（游标），standId / zoneId 二选一
+    Cursor<TreeInstance> cursorTileInstances(@Param("standId") Integer standId, @Param("zoneId") Integer zoneId);
+
+    // 3D Tiles 缓存指纹：记录数 + 单木与样地变更事务号合计，任一行写入或删除即变化
+    String selectTilesVersion(@Param("standId") Integer standId, @Param("zoneId") Integer zoneId);
+}
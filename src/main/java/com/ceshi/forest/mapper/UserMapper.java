@@ -3,7 +3,21 @@ package com.ceshi.forest.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.ceshi.forest.entity.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
-}
\ No newline at end of file
+
+    // 批量更新登录时间（userId / lastLoginTime），一条语句完成
+    @Update("<script>" +
+            "UPDATE sys_user s SET last_login_time = v.login_time " +
+            "FROM (VALUES " +
+            "<foreach collection='users' item='u' separator=','>(#{u.userId}, #{u.lastLoginTime})</foreach>" +
+            ") AS v(user_id, login_time) " +
+            "WHERE s.user_id = v.user_id" +
+            "</script>")
+    int updateLastLoginTimes(@Param("users") List<User> users);
+}
@@ -0,0 +1,27 @@
+package com.ceshi.forest.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 缓存加载事件：本地缓存未命中后的一次加载，耗时包含等待同一 key 加载锁的时间
+ */
+@Name("forest.CacheLoad")
+@Label("缓存加载")
+@Category({"Forest", "Cache"})
+@Description("本地缓存未命中后从 Redis 或加载函数取值")
+public class CacheLoadEvent extends Event {
+
+    @Label("缓存键")
+    public String key;
+
+    // local（等锁期间已被其他线程加载）/ redis / loader
+    @Label("来源")
+    public String source;
+
+    @Label("是否有值")
+    public boolean found;
+}
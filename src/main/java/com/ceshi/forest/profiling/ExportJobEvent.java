@@ -0,0 +1,42 @@
+package com.ceshi.forest.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 导出任务事件：一次异步导出任务从开始执行到写完文件
+ */
+@Name("forest.ExportJob")
+@Label("导出任务")
+@Category({"Forest", "Export"})
+@Description("异步导出任务执行耗时")
+@StackTrace(false)
+public class ExportJobEvent extends Event {
+
+    @Label("任务 ID")
+    public String jobId;
+
+    @Label("范围")
+    public String scope;
+
+    @Label("范围 ID")
+    public int scopeId;
+
+    @Label("格式")
+    public String format;
+
+    @Label("记录数")
+    public int rows;
+
+    @Label("文件大小")
+    @DataAmount
+    public long bytes;
+
+    @Label("是否成功")
+    public boolean success;
+}
@@ -0,0 +1,30 @@
+package com.ceshi.forest.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Mapper 调用事件：一次 Mapper 接口方法调用（含等待连接、执行 SQL 和结果映射）
+ */
+@Name("forest.MapperCall")
+@Label("Mapper 调用")
+@Category({"Forest", "Database"})
+@Description("Mapper 接口方法调用耗时")
+public class MapperCallEvent extends Event {
+
+    @Label("Mapper")
+    public String mapper;
+
+    @Label("方法")
+    public String method;
+
+    // 返回 List 时为行数，其他返回类型为 -1
+    @Label("返回行数")
+    public int rows;
+
+    @Label("是否在事务中")
+    public boolean inTransaction;
+}
@@ -0,0 +1,30 @@
+package com.ceshi.forest.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 代理调用事件：一次转发到 Geoserver 的请求，计时到收到响应头为止
+ */
+@Name("forest.ProxyCall")
+@Label("代理调用")
+@Category({"Forest", "Proxy"})
+@Description("转发到 Geoserver 的请求耗时（不含读取响应体）")
+@StackTrace(false)
+public class ProxyCallEvent extends Event {
+
+    @Label("请求方法")
+    public String method;
+
+    // 只记录路径，查询参数可能很长
+    @Label("路径")
+    public String path;
+
+    // 连接失败等异常时为 -1
+    @Label("状态码")
+    public int status;
+}
@@ -0,0 +1,35 @@
+package com.ceshi.forest.profiling;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * 为代理请求记录 JFR 事件，未开启录制时直接放行
+ */
+public class ProxyCallInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        ProxyCallEvent event = new ProxyCallEvent();
+        if (!event.isEnabled()) {
+            return execution.execute(request, body);
+        }
+
+        event.begin();
+        event.method = request.getMethod().name();
+        event.path = request.getURI().getPath();
+        event.status = -1;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            event.status = response.getStatusCode().value();
+            return response;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ceshi.forest.ratelimit;
+
+/**
+ * 接口分类，每类各自一套令牌桶、并发隔离与降载策略
+ * 默认值可通过 forest.rate-limit.{key}.capacity / refill-per-second / max-concurrent 覆盖
+ */
+public enum EndpointClass {
+
+    // 数据导出（单木 / 林分 / 样地导出、异步导出提交与下载）
+    EXPORT("export", 5, 0.1, 4, true),
+    // Geoserver 代理（WMS 瓦片、WFS）
+    PROXY("proxy", 500, 200, 32, false),
+    // 大结果集查询：单木全量、要素流、网格聚合、批量导入、单木 3D Tiles 生成
+    BULK("bulk", 20, 2, 8, true),
+    // 变更推送长连接：限制建连频率与连接数，不计入读接口延迟
+    STREAM("stream", 10, 0.5, 500, false),
+    // 其余接口
+    READ("read", 200, 50, 0, false);
+
+    private final String key;
+    private final double defaultCapacity;
+    private final double defaultRefillPerSecond;
+    private final int defaultMaxConcurrent;
+    private final boolean sheddable;
+
+    EndpointClass(String key, double defaultCapacity, double defaultRefillPerSecond,
+                  int defaultMaxConcurrent, boolean sheddable) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.sheddable = sheddable;
+    }
+
+    /**
+     * 按请求方法和路径（不含 context path）归类，不受限流的路径返回 null
+     */
+    public static EndpointClass classify(String method, String path) {
+        if (path.startsWith("/geoserver/")) {
+            return PROXY;
+        }
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        if ("/api/changes/stream".equals(path)) {
+            return STREAM;
+        }
+        if (path.endsWith("/export")
+                || (path.startsWith("/api/exports") && ("POST".equals(method) || path.endsWith("/download")))) {
+            return EXPORT;
+        }
+        if (("GET".equals(method) && "/api/trees".equals(path))
+                || path.startsWith("/api/features/")
+                || path.startsWith("/api/grid/")
+                || (path.startsWith("/api/tiles/") && path.endsWith("/tileset.json"))
+                || path.endsWith("/import")) {
+            return BULK;
+        }
+        return READ;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public double getDefaultRefillPerSecond() {
+        return defaultRefillPerSecond;
+    }
+
+    public int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    /**
+     * 系统过载时是否优先拒绝
+     */
+    public boolean isSheddable() {
+        return sheddable;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ceshi.forest.ratelimit;
+
+import com.ceshi.forest.config.ConcurrencyLimitedDataSource;
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应降载
+ * 统计普通读接口的近期 p99 延迟，并采样等待数据库连接的线程数（并发限流的许可队列加主库连接池的等待线程）；
+ * 任一超过阈值即进入降载状态，此时导出、大结果集等可降载分类直接返回 503，把连接池和 CPU 留给普通读请求。
+ * 回落到阈值的 70% 以下且无人等待连接后解除
+ */
+@Slf4j
+@Component
+public class LoadShedder {
+
+    private static final int SAMPLE_SIZE = 2048;
+    // 样本数不足时 p99 不可靠，只看连接池
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private final AtomicLong cursor = new AtomicLong();
+    private long lastCursor;
+
+    private final DataSource dataSource;
+
+    @Value("${forest.rate-limit.shedding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${forest.rate-limit.shedding.p99-threshold-ms:800}")
+    private long p99ThresholdMs;
+
+    @Value("${forest.rate-limit.shedding.pool-wait-threshold:3}")
+    private int poolWaitThreshold;
+
+    private volatile boolean shedding;
+    private volatile long lastP99Ms;
+
+    public LoadShedder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 记录一次普通读请求的耗时
+     */
+    public void record(long elapsedMs) {
+        samples[(int) (cursor.getAndIncrement() % SAMPLE_SIZE)] = elapsedMs;
+    }
+
+    public boolean isShedding() {
+        return shedding;
+    }
+
+    public long getLastP99Ms() {
+        return lastP99Ms;
+    }
+
+    @Scheduled(fixedDelayString = "${forest.rate-limit.shedding.check-interval-ms:1000}")
+    public void evaluate() {
+        if (!enabled) {
+            shedding = false;
+            return;
+        }
+
+        long p99 = recentP99();
+        int waiting = threadsAwaitingConnection();
+        if (p99 >= 0) {
+            lastP99Ms = p99;
+        }
+
+        boolean overloaded = p99 > p99ThresholdMs || waiting >= poolWaitThreshold;
+        boolean recovered = (p99 < 0 || p99 < p99ThresholdMs * 0.7) && waiting == 0;
+
+        if (!shedding && overloaded) {
+            shedding = true;
+            log.warn("进入降载: p99 {}ms, 连接池等待 {}", p99, waiting);
+        } else if (shedding && recovered) {
+            shedding = false;
+            log.info("解除降载: p99 {}ms, 连接池等待 {}", p99, waiting);
+        }
+    }
+
+    /**
+     * 上次评估以来新样本的 p99，样本不足返回 -1
+     */
+    private long recentP99() {
+        long end = cursor.get();
+        long count = Math.min(end - lastCursor, SAMPLE_SIZE);
+        lastCursor = end;
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] recent = new long[(int) count];
+        for (int i = 0; i < count; i++) {
+            recent[i] = samples[(int) ((end - 1 - i) % SAMPLE_SIZE)];
+        }
+        Arrays.sort(recent);
+        return recent[(int) Math.min(count - 1, (long) Math.ceil(count * 0.99) - 1)];
+    }
+
+    private int threadsAwaitingConnection() {
+        DataSource target = dataSource;
+        int waiting = 0;
+        // 启用并发限流时线程在信号量上排队，到达连接池的请求不会超过许可数
+        if (target instanceof ConcurrencyLimitedDataSource limited) {
+            waiting += limited.queueLength();
+            target = limited.getTargetDataSource();
+        }
+        if (target instanceof LazyConnectionDataSourceProxy lazy) {
+            target = lazy.getTargetDataSource();
+        }
+        if (target instanceof ReplicaRoutingDataSource routing) {
+            target = routing.getPrimary();
+        }
+        if (target instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                waiting += pool.getThreadsAwaitingConnection();
+            }
+        }
+        return waiting;
+    }
+}
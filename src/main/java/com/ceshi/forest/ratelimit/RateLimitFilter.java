@@ -0,0 +1,156 @@
+package com.ceshi.forest.ratelimit;
+
+import com.ceshi.forest.dto.ResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 限流过滤器（位于 JWT 过滤器之后，可按登录用户计数）
+ * 依次检查：降载状态 -> 令牌桶（429）-> 并发隔离（503）。
+ * 流式导出在异步线程中写出，并发名额在异步请求结束时才释放
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+
+    @Value("${forest.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass cls = enabled && !"OPTIONS".equals(request.getMethod())
+                ? EndpointClass.classify(request.getMethod(),
+                        request.getRequestURI().substring(request.getContextPath().length()))
+                : null;
+        if (cls == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (cls.isSheddable() && loadShedder.isShedding()) {
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "系统繁忙，请稍后重试", 5);
+            return;
+        }
+
+        String clientKey = clientKey(request);
+        long retryAfter = rateLimiter.tryAcquire(cls, clientKey);
+        if (retryAfter > 0) {
+            log.debug("限流拒绝: {} {} {}", cls.getKey(), clientKey, request.getRequestURI());
+            reject(response, 429, "请求过于频繁，请稍后重试", retryAfter);
+            return;
+        }
+
+        if (!rateLimiter.enterBulkhead(cls)) {
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "同类请求过多，请稍后重试", 2);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(cls, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                complete(cls, start);
+            }
+        }
+    }
+
+    private void complete(EndpointClass cls, long start) {
+        rateLimiter.leaveBulkhead(cls);
+        if (cls == EndpointClass.READ) {
+            loadShedder.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message,
+                               long retryAfterSeconds) throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        MAPPER.writeValue(response.getOutputStream(), ResultDTO.fail(status, message));
+    }
+
+    /**
+     * 异步请求结束（完成、超时或出错）时释放并发名额，只释放一次
+     */
+    private class CompletionListener implements AsyncListener {
+
+        private final EndpointClass cls;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        CompletionListener(EndpointClass cls, long start) {
+            this.cls = cls;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                complete(cls, start);
+            }
+        }
+    }
+}
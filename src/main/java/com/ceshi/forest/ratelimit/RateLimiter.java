@@ -0,0 +1,175 @@
+package com.ceshi.forest.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流与并发隔离
+ * 令牌桶按 接口分类 + 客户端（登录用户或 IP）存放在本地；开启 redis-sync 后定期把本地消耗量累加到 Redis，
+ * 并从各桶扣除其他实例的消耗，使多实例下的限额近似为集群总限额。
+ * 导出、代理等分类另有并发上限（bulkhead），慢请求占满时只影响本类接口
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String REDIS_KEY_PREFIX = "forest:rate-limit:";
+
+    private final Map<EndpointClass, Policy> policies = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Semaphore> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Integer> bulkheadLimits = new EnumMap<>(EndpointClass.class);
+    private final Cache<String, TokenBucket> buckets;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${forest.rate-limit.bulkhead-wait-ms:100}")
+    private long bulkheadWaitMs;
+
+    @Value("${forest.rate-limit.redis-sync.enabled:false}")
+    private boolean redisSync;
+
+    public RateLimiter(Environment environment, RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        for (EndpointClass cls : EndpointClass.values()) {
+            String prefix = "forest.rate-limit." + cls.getKey() + ".";
+            double capacity = environment.getProperty(prefix + "capacity", Double.class, cls.getDefaultCapacity());
+            double refill = environment.getProperty(prefix + "refill-per-second", Double.class,
+                    cls.getDefaultRefillPerSecond());
+            int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class,
+                    cls.getDefaultMaxConcurrent());
+            policies.put(cls, new Policy(capacity, refill));
+            if (maxConcurrent > 0) {
+                bulkheads.put(cls, new Semaphore(maxConcurrent));
+                bulkheadLimits.put(cls, maxConcurrent);
+            }
+            log.info("限流策略 {}: 容量 {}, 每秒补充 {}, 并发上限 {}", cls.getKey(), capacity, refill,
+                    maxConcurrent > 0 ? maxConcurrent : "不限");
+        }
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * 取一个令牌，成功返回 0，否则返回建议的重试秒数
+     */
+    public long tryAcquire(EndpointClass cls, String clientKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(cls.getKey() + ":" + clientKey, k -> {
+            Policy policy = policies.get(cls);
+            return new TokenBucket(policy.capacity(), policy.refillPerSecond(), now);
+        });
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(Math.min(waitNanos, TimeUnit.HOURS.toNanos(1))) + 1);
+    }
+
+    /**
+     * 进入分类的并发隔离区，未配置并发上限的分类直接返回 true
+     */
+    public boolean enterBulkhead(EndpointClass cls) {
+        Semaphore semaphore = bulkheads.get(cls);
+        if (semaphore == null) {
+            return true;
+        }
+        try {
+            return semaphore.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void leaveBulkhead(EndpointClass cls) {
+        Semaphore semaphore = bulkheads.get(cls);
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * 各分类当前并发数
+     */
+    public Map<String, Integer> inFlight() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        bulkheads.forEach((cls, semaphore) ->
+                result.put(cls.getKey(), bulkheadLimits.get(cls) - semaphore.availablePermits()));
+        return result;
+    }
+
+    /**
+     * 与其他实例同步令牌消耗：INCRBY 本地增量，得到集群累计值后扣除他人消耗。
+     * Redis 不可用时仅按本地限额工作
+     */
+    @Scheduled(fixedDelayString = "${forest.rate-limit.redis-sync.interval-ms:1000}")
+    public void syncWithRedis() {
+        if (!redisSync) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        List<TokenBucket> active = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        buckets.asMap().forEach((key, bucket) -> {
+            keys.add(REDIS_KEY_PREFIX + key);
+            active.add(bucket);
+            deltas.add(bucket.takeUnsynced());
+        });
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    incrementAndTouch(connection, keys.get(i), deltas.get(i));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("限流计数同步失败，仅按本地限额: {}", e.getMessage());
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < active.size(); i++) {
+            // 每个键两条命令：INCRBY、EXPIRE
+            Object total = results.get(i * 2);
+            if (total instanceof Number number) {
+                long remote = active.get(i).applySync(number.longValue(), deltas.get(i));
+                if (remote > 0) {
+                    active.get(i).drain(remote, now);
+                }
+            }
+        }
+    }
+
+    private static void incrementAndTouch(RedisConnection connection, String key, long delta) {
+        byte[] raw = key.getBytes(StandardCharsets.UTF_8);
+        connection.stringCommands().incrBy(raw, delta);
+        connection.keyCommands().expire(raw, Duration.ofMinutes(10).toSeconds());
+    }
+
+    private record Policy(double capacity, double refillPerSecond) {
+    }
+}
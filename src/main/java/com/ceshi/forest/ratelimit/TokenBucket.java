@@ -0,0 +1,108 @@
+package com.ceshi.forest.ratelimit;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 令牌桶：容量 capacity，每秒补充 refillPerSecond 个令牌
+ * 同时记录本地消耗量，供多实例同步时上报
+ * 使用 ReentrantLock 而非 synchronized，请求运行在虚拟线程上时竞争不会固定载体线程
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    // 上次同步后本地消耗的令牌数
+    private long unsyncedConsumed;
+    // 上次同步时看到的集群累计消耗，-1 表示尚未同步
+    private long lastSeenTotal = -1;
+
+    TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * 取一个令牌，成功返回 0，否则返回距离下一个令牌可用的纳秒数
+     */
+    long tryConsume(long nowNanos) {
+        lock.lock();
+        try {
+            refill(nowNanos);
+            if (tokens >= 1) {
+                tokens -= 1;
+                unsyncedConsumed++;
+                return 0;
+            }
+            if (refillPerNano <= 0) {
+                return Long.MAX_VALUE;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 扣除其他实例消耗的令牌（可扣到负数，之后按补充速度恢复）
+     */
+    void drain(double amount, long nowNanos) {
+        lock.lock();
+        try {
+            refill(nowNanos);
+            tokens = Math.max(-capacity, tokens - amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long takeUnsynced() {
+        lock.lock();
+        try {
+            long consumed = unsyncedConsumed;
+            unsyncedConsumed = 0;
+            return consumed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录同步结果，返回期间其他实例的消耗量
+     */
+    long applySync(long clusterTotal, long localDelta) {
+        lock.lock();
+        try {
+            long remote = lastSeenTotal < 0 ? 0 : Math.max(0, clusterTotal - lastSeenTotal - localDelta);
+            lastSeenTotal = clusterTotal;
+            return remote;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double available(long nowNanos) {
+        lock.lock();
+        try {
+            refill(nowNanos);
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 调用方需持有 lock
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -1,54 +1,68 @@
 package com.ceshi.forest.security;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.ceshi.forest.dto.auth.AuthUserDTO;
 import com.ceshi.forest.entity.User;
 import com.ceshi.forest.mapper.UserMapper;
-import com.ceshi.forest.mapper.RoleMapper;
+import com.ceshi.forest.service.UserCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j  // 添加这个注解
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
+    private final UserCacheService userCacheService;
     private final UserMapper userMapper;
-    private final RoleMapper roleMapper;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("=== 开始加载用户: {} ===", username);
-
-        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                .eq(User::getUsername, username));
+        AuthUserDTO user = userCacheService.getUser(username);
 
         if (user == null) {
-            log.error("用户不存在: {}", username);
+            log.warn("用户不存在: {}", username);
             throw new UsernameNotFoundException("用户不存在: " + username);
         }
 
-        log.info("找到用户: {}", user.getUsername());
-        log.info("密码长度: {}", user.getPassword().length());
-
-        List<String> roles = roleMapper.selectRolesByUserId(user.getUserId());
-        log.info("用户角色: {}", roles);
+        log.debug("加载用户: {}, 角色: {}", user.getUsername(), user.getRoles());
 
-        List<SimpleGrantedAuthority> authorities = roles.stream()
+        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toList());
 
+        // 每次新建 UserDetails：认证完成后密码会被擦除，不能复用缓存中的实例
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
                 authorities
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * 登录成功且哈希 cost 与配置不一致时由 DaoAuthenticationProvider 调用，写回新哈希
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userMapper.update(null, new LambdaUpdateWrapper<User>()
+                .set(User::getPassword, newPassword)
+                .set(User::getUpdateTime, LocalDateTime.now())
+                .eq(User::getUsername, user.getUsername()));
+        userCacheService.evict(user.getUsername());
+        log.info("用户 {} 密码已按新的哈希强度重新加密", user.getUsername());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+}
@@ -25,6 +25,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/changes/stream";
+
     private final JwtUtil jwtUtil;
 
     @Override
@@ -32,15 +34,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
+        final String jwt = resolveToken(request);
 
-        if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwt = authHeader.substring(7);
-
         if (!jwtUtil.validateToken(jwt)) {
             log.warn("无效的JWT令牌");
             filterChain.doFilter(request, response);
@@ -54,7 +54,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 关键修复：避免重复添加 ROLE_ 前缀
             final String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
 
-            log.info("Token解析 - 用户: {}, 角色: {}, 权限: {}", username, role, authority);
+            log.debug("Token解析 - 用户: {}, 角色: {}, 权限: {}", username, role, authority);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 List<SimpleGrantedAuthority> authorities = Collections.singletonList(
@@ -73,7 +73,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                log.info("用户 {} 认证成功，权限: {}", username, authorities);
+                log.debug("用户 {} 认证成功，权限: {}", username, authorities);
             }
 
         } catch (Exception e) {
@@ -82,4 +82,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * 优先取 Authorization 头；浏览器 EventSource 无法设置请求头，变更流允许用 access_token 参数传递
+     */
+    private static String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (STREAM_PATH.equals(path)) {
+            String token = request.getParameter("access_token");
+            return StringUtils.hasText(token) ? token : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ceshi.forest.security;
+
+import com.ceshi.forest.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 登录失败限流
+ * 按账号和客户端 IP 分别统计窗口内的失败次数，超过上限后在窗口结束前直接拒绝（429），
+ * 不再进入 BCrypt 校验。只统计失败次数：同一出口 IP 下大量外业人员正常登录不受影响
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+
+    private final Cache<String, AtomicInteger> accountFailures;
+    private final Cache<String, AtomicInteger> ipFailures;
+    private final int maxAccountFailures;
+    private final int maxIpFailures;
+    private final long windowSeconds;
+
+    public LoginAttemptLimiter(@Value("${forest.auth.throttle.account-max-failures:5}") int maxAccountFailures,
+                               @Value("${forest.auth.throttle.ip-max-failures:100}") int maxIpFailures,
+                               @Value("${forest.auth.throttle.window-seconds:900}") long windowSeconds) {
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.windowSeconds = windowSeconds;
+        // 窗口从第一次失败开始计算，窗口内再失败不延长
+        this.accountFailures = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .maximumSize(100_000)
+                .build();
+        this.ipFailures = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * 校验前调用，账号或 IP 已被限制时抛出 {@link TooManyRequestsException}
+     */
+    public void check(String username, String clientIp) {
+        if (exceeded(accountFailures, username, maxAccountFailures)) {
+            log.warn("账号登录失败次数过多: {}", username);
+            throw new TooManyRequestsException("登录失败次数过多，请稍后再试", windowSeconds);
+        }
+        if (exceeded(ipFailures, clientIp, maxIpFailures)) {
+            log.warn("IP 登录失败次数过多: {}", clientIp);
+            throw new TooManyRequestsException("登录失败次数过多，请稍后再试", windowSeconds);
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        increment(accountFailures, username);
+        increment(ipFailures, clientIp);
+    }
+
+    /**
+     * 登录成功后清除账号的失败计数（IP 计数保留到窗口结束）
+     */
+    public void recordSuccess(String username) {
+        if (username != null) {
+            accountFailures.invalidate(username);
+        }
+    }
+
+    private static boolean exceeded(Cache<String, AtomicInteger> cache, String key, int max) {
+        if (key == null) {
+            return false;
+        }
+        AtomicInteger count = cache.getIfPresent(key);
+        return count != null && count.get() >= max;
+    }
+
+    private static void increment(Cache<String, AtomicInteger> cache, String key) {
+        if (key != null) {
+            cache.get(key, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
@@ -6,7 +6,7 @@ import com.ceshi.forest.dto.auth.RegisterRequest;
 
 public interface AuthService {
 
-    LoginResponse login(LoginRequest request);
+    LoginResponse login(LoginRequest request, String clientIp);
 
     void register(RegisterRequest request);
 
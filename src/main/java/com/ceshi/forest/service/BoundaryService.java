@@ -0,0 +1,50 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.BoundaryLodDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 林分/林场边界服务接口
+ * 保存边界时预先计算多级简化结果，查询时按缩放级别或容差选择层级
+ */
+public interface BoundaryService {
+
+    String OWNER_STAND = "stand";
+    String OWNER_ZONE = "zone";
+
+    /**
+     * 更新边界并重新计算简化层级
+     * @param ownerType stand / zone
+     * @param ownerId 林分ID或林场ID
+     * @param wkt POLYGON / MULTIPOLYGON
+     * @return 各层级概要
+     */
+    List<BoundaryLodDTO> updateBoundary(String ownerType, Integer ownerId, String wkt);
+
+    /**
+     * 查询各层级概要
+     */
+    List<BoundaryLodDTO> getLodSummary(String ownerType, Integer ownerId);
+
+    /**
+     * 按当前容差配置重新计算全部简化层级
+     * @return 处理的边界数量
+     */
+    int rebuildLods(String ownerType);
+
+    /**
+     * 只重新计算指定对象的简化层级，未设置边界的对象跳过
+     * @return 处理的边界数量
+     */
+    int rebuildLods(String ownerType, Collection<Integer> ownerIds);
+
+    /**
+     * 根据缩放级别或容差选择层级：取容差不超过目标值的最粗层级
+     * @param zoom Web 地图缩放级别（256 像素瓦片）
+     * @param tolerance 容差（度），优先于 zoom
+     * @return 层级，两者都为空时返回 0（原始边界）
+     */
+    int resolveLevel(Integer zoom, Double tolerance);
+}
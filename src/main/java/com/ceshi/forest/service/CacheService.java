@@ -23,6 +23,18 @@ public interface CacheService {
      */
     <T> T getOrLoad(String key, Class<T> clazz, CacheLoader<T> loader);
 
+    /**
+     * 获取缓存，不存在则加载，并指定过期时间
+     * 本地缓存达到过期时间的一定比例后在后台提前刷新，读取方不会因过期而阻塞
+     * @param key 缓存键
+     * @param clazz 值类型
+     * @param localExpireSeconds 本地缓存过期时间（秒）
+     * @param redisExpireSeconds Redis过期时间（秒）
+     * @param loader 加载函数（同时用于后台刷新）
+     * @return 缓存值
+     */
+    <T> T getOrLoad(String key, Class<T> clazz, long localExpireSeconds, long redisExpireSeconds, CacheLoader<T> loader);
+
     /**
      * 设置缓存
      * @param key 缓存键
@@ -0,0 +1,24 @@
+package com.ceshi.forest.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+/**
+ * 数据变更推送服务接口
+ * 写操作提交后把林分 / 样地 / 单木变更以 SSE 推送给前端，多节点部署时经 Redis 发布订阅互相转发
+ */
+public interface ChangeFeedService {
+
+    /**
+     * 订阅变更流
+     * @param tables      关注的表，为空表示全部
+     * @param lastEventId 断线重连时浏览器带上的 Last-Event-ID
+     */
+    SseEmitter subscribe(Set<String> tables, String lastEventId);
+
+    /**
+     * 当前节点的订阅数
+     */
+    int subscriberCount();
+}
@@ -0,0 +1,27 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.ExportQueryDTO;
+import com.ceshi.forest.util.export.ExportFormat;
+
+import java.io.OutputStream;
+
+/**
+ * 林分 / 样地数据导出服务接口
+ * 游标逐行读取并直接写入输出流，列定义见 ExportSchemas
+ */
+public interface DataExportService {
+
+    /**
+     * 按林场、优势树种、经纬度范围导出林分
+     * @param out 输出流（不会被关闭）
+     * @return 写出的行数
+     */
+    int exportStands(ExportQueryDTO query, ExportFormat format, OutputStream out);
+
+    /**
+     * 按林分、林场、优势树种、经纬度范围导出样地
+     * @param out 输出流（不会被关闭）
+     * @return 写出的行数
+     */
+    int exportPlots(ExportQueryDTO query, ExportFormat format, OutputStream out);
+}
@@ -0,0 +1,33 @@
+package com.ceshi.forest.service;
+
+/**
+ * 数据版本服务接口
+ * 每张业务表对应一个集群内共享的版本号，数据变化后版本随之变化，用于生成 ETag 和判断缓存是否过期
+ */
+public interface DataVersionService {
+
+    String TABLE_ZONE = "forest_zone";
+    String TABLE_STAND = "forest_stand";
+    String TABLE_PLOT = "sample_plot";
+    String TABLE_TREE = "tree_measurement";
+
+    /**
+     * 获取表的当前版本（本地短暂缓存）
+     */
+    long getVersion(String table);
+
+    /**
+     * 通知表已写入，事务内调用时在提交后生效
+     */
+    void bump(String table);
+
+    /**
+     * 丢弃本地缓存的版本并重新读取（收到其他节点的变更通知时调用）
+     */
+    long refreshVersion(String table);
+
+    /**
+     * 根据多张表的版本生成强 ETag（含引号）
+     */
+    String getETag(String... tables);
+}
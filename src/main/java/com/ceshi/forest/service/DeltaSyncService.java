@@ -0,0 +1,19 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.DeltaSyncDTO;
+import com.ceshi.forest.dto.PlotDTO;
+import com.ceshi.forest.dto.StandDTO;
+import com.ceshi.forest.dto.TreeDTO;
+
+/**
+ * 增量同步服务接口
+ * since 为空时全量同步；可传毫秒时间戳 / ISO 时间（近似，按事务开始时间过滤），或上次返回的 next 游标（精确）
+ */
+public interface DeltaSyncService {
+
+    DeltaSyncDTO<StandDTO> getStandChanges(String since, Integer limit);
+
+    DeltaSyncDTO<PlotDTO> getPlotChanges(String since, Integer limit);
+
+    DeltaSyncDTO<TreeDTO> getTreeChanges(String since, Integer limit);
+}
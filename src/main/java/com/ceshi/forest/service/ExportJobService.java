@@ -0,0 +1,30 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.ExportJobDTO;
+
+import java.nio.file.Path;
+
+/**
+ * 异步导出任务服务接口
+ */
+public interface ExportJobService {
+
+    /**
+     * 提交导出任务，相同（范围、格式、数据版本）的任务会复用已有结果
+     * @param scope 范围类型：stand / zone
+     * @param scopeId 林分ID或林场ID
+     * @param format 导出格式：csv / excel / json
+     * @return 任务状态
+     */
+    ExportJobDTO submit(String scope, Integer scopeId, String format);
+
+    /**
+     * 查询任务状态
+     */
+    ExportJobDTO getJob(String jobId);
+
+    /**
+     * 获取已完成任务的导出文件
+     */
+    Path getJobFile(String jobId);
+}
@@ -0,0 +1,27 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.FeatureQueryDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 要素流式输出服务接口（GeoJSON）
+ */
+public interface FeatureService {
+
+    /**
+     * 图层是否支持
+     * @param layer 图层名：stands / plots / zones
+     */
+    boolean supportsLayer(String layer);
+
+    /**
+     * 流式写出要素
+     * @param layer 图层名：stands / plots / zones
+     * @param query 范围、属性、精度、边界层级等参数
+     * @param out 输出流（不会被关闭）
+     * @return 写出的要素数量
+     */
+    int writeFeatures(String layer, FeatureQueryDTO query, OutputStream out) throws IOException;
+}
@@ -11,7 +11,17 @@ public interface ForestStandService {
 
     StandDTO getStandById(Integer id);
 
-    List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters);
+    /**
+     * 按ID查询林分，不存在时返回 null
+     */
+    StandDTO findStandById(Integer id);
+
+    /**
+     * 附近林分，按球面距离升序
+     * @param radiusMeters 半径（米），为空时不限半径
+     * @param k 最多返回数量，为空时不限数量
+     */
+    List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters, Integer k);
 
     List<StandDTO> getHighValueStands(Double minVolumePerHa);
 
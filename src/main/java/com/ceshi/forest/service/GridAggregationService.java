@@ -0,0 +1,26 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.GridCellDTO;
+
+import java.util.List;
+
+/**
+ * 网格聚合服务接口
+ * 按 Geohash 将林分、样地或单木聚合为网格单元，各精度预先计算并随写操作增量维护
+ */
+public interface GridAggregationService {
+
+    /**
+     * 查询网格单元
+     * @param layer stands / plots / trees
+     * @param zoom 地图缩放级别，用于选择精度
+     * @param precision Geohash 精度，优先于 zoom
+     * @param bbox [minLon, minLat, maxLon, maxLat]，按单元中心过滤，为空时返回全部
+     */
+    List<GridCellDTO> getCells(String layer, Integer zoom, Integer precision, double[] bbox);
+
+    /**
+     * 根据缩放级别选择 Geohash 精度
+     */
+    int resolvePrecision(Integer zoom);
+}
@@ -0,0 +1,47 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.RecordingDTO;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * JFR 性能录制服务接口
+ * 按需录制用于排查一段时间内的分配 / 锁热点；常驻录制只保留最近一段时间的环形缓冲，出现延迟尖刺后再导出
+ */
+public interface ProfilingService {
+
+    /**
+     * 开始按需录制，同一时间只允许一个
+     * @param settings default（低开销）/ profile（含更密的分配采样和方法采样）
+     * @param durationSeconds 录制时长，到时自动停止并写出文件
+     * @param lockThresholdMs 锁等待事件的记录阈值，为空时使用配置默认值
+     */
+    RecordingDTO start(String settings, Integer durationSeconds, Integer lockThresholdMs);
+
+    /**
+     * 提前停止按需录制并写出文件
+     */
+    RecordingDTO stop(String id);
+
+    RecordingDTO getRecording(String id);
+
+    List<RecordingDTO> listRecordings();
+
+    /**
+     * 获取已完成录制的文件，未完成时抛出异常
+     */
+    Path getRecordingFile(String id);
+
+    /**
+     * 把常驻录制的环形缓冲导出为一个新的录制文件
+     */
+    RecordingDTO dumpContinuous();
+
+    /**
+     * 运行时开启 / 关闭常驻录制，关闭时丢弃缓冲区
+     */
+    void setContinuousEnabled(boolean enabled);
+
+    boolean isContinuousEnabled();
+}
@@ -30,6 +30,13 @@ public interface SamplePlotService {
      */
     List<PlotDTO> getHighVolumePlots(Double minVolumePerHa);
 
+    /**
+     * 附近样地，按球面距离升序
+     * @param radiusMeters 半径（米），为空时不限半径
+     * @param k 最多返回数量，为空时不限数量
+     */
+    List<PlotDTO> getNearbyPlots(Double lon, Double lat, Integer radiusMeters, Integer k);
+
     /**
      * 获取样地统计信息
      */
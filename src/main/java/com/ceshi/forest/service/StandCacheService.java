@@ -4,17 +4,45 @@ import com.ceshi.forest.dto.StandDTO;
 import com.ceshi.forest.dto.StatisticsDTO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface StandCacheService {
 
     String KEY_PREFIX = "forest:stand:";
 
     StandDTO getStandById(Integer id);
+
+    /**
+     * 林分是否存在：先经布隆过滤器和负缓存判断，必要时才查询数据库
+     */
+    boolean existsStand(Integer id);
+
+    /**
+     * 小班编码是否已被有效林分使用
+     */
+    boolean existsXiaoBanCode(String xiaoBanCode);
     List<StandDTO> getAllStands();
     List<StatisticsDTO> getSpeciesStatistics();
-    List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters);
+    List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters, Integer k);
     List<StandDTO> getHighValueStands(Double minVolumePerHa);
     void clearStandCache(Integer id);
     void clearAllStandCache();
     void refreshStand(Integer id);
-}
\ No newline at end of file
+
+    /**
+     * 按 forest.cache.warmup.keys 预热热点缓存
+     * @return 预热的键数量
+     */
+    int warmUp();
+
+    /**
+     * 从数据库全量重建布隆过滤器
+     * @return 写入的林分数量
+     */
+    int rebuildBloomFilter();
+
+    /**
+     * 存在性查询统计：布隆过滤器拦截数、负缓存命中数、数据库未命中数等
+     */
+    Map<String, Object> getLookupStats();
+}
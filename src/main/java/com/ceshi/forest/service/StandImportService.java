@@ -0,0 +1,20 @@
+package com.ceshi.forest.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+/**
+ * 林分批量导入服务接口
+ */
+public interface StandImportService {
+
+    /**
+     * 流式读取 CSV / xlsx / GeoJSON 林分文件，逐批校验并按小班编码插入或更新
+     * 表头（GeoJSON 为 properties）可用字段名（xiaoBanCode）或列名（xiao_ban_code）；
+     * 校验失败的行跳过并记录原因，其余行在同一事务内写入
+     * @param operator 操作人
+     * @return total / imported / merged / failed / boundaries / errors / elapsedMs
+     */
+    Map<String, Object> importStands(MultipartFile file, String operator);
+}
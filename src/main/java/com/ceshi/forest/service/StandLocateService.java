@@ -0,0 +1,30 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.LocateDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 小班定位服务接口
+ * 在内存中按林分边界判断点位所属小班
+ */
+public interface StandLocateService {
+
+    /**
+     * 单点定位
+     * @return 定位结果，standId 为空表示不在任何小班内
+     */
+    LocateDTO locate(double lon, double lat);
+
+    /**
+     * 批量定位，结果与输入顺序一致
+     */
+    List<LocateDTO> locateBatch(List<LocateDTO> points);
+
+    /**
+     * 按坐标重新归属样地（单木随样地归属）
+     * @param apply false 只返回差异，true 写入数据库
+     */
+    Map<String, Object> assignPlots(boolean apply);
+}
@@ -1,9 +1,12 @@
 package com.ceshi.forest.service;
 
 import com.ceshi.forest.dto.TreeDTO;
+import com.ceshi.forest.entity.TreeInstance;
+import com.ceshi.forest.entity.TreeMeasurement;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 单木测量服务接口
@@ -30,6 +33,43 @@ public interface TreeMeasurementService {
      */
     List<TreeDTO> getTreesByStandId(Integer standId);
 
+    /**
+     * 根据林场ID获取单木列表
+     */
+    List<TreeDTO> getTreesByZoneId(Integer zoneId);
+
+    /**
+     * 获取导出范围内单木数据的版本指纹
+     * @param scope 范围类型：stand / zone
+     * @param scopeId 林分ID或林场ID
+     */
+    String getDataVersion(String scope, Integer scopeId);
+
+    /**
+     * 统计导出范围内的单木数量
+     * @param scope 范围类型：stand / zone
+     */
+    int countTrees(String scope, Integer scopeId);
+
+    /**
+     * 在只读事务内以游标逐行读取导出范围内的单木实体（不转换为 DTO），reader 返回后游标关闭
+     * @param scope 范围类型：stand / zone
+     * @param reader 只能遍历一次
+     */
+    void readTrees(String scope, Integer scopeId, Consumer<Iterable<TreeMeasurement>> reader);
+
+    /**
+     * 3D Tiles 缓存指纹，范围内任一单木或所在样地写入、删除后变化
+     * @param scope 范围类型：stand / zone
+     */
+    String getTilesVersion(String scope, Integer scopeId);
+
+    /**
+     * 在只读事务内逐行读取范围内的单木及所在样地坐标（3D Tiles 构建用）
+     * @param scope 范围类型：stand / zone
+     */
+    void readTileInstances(String scope, Integer scopeId, Consumer<TreeInstance> consumer);
+
     /**
      * 根据林分ID（字符串）获取单木列表
      * 用于支持非数字格式的林分ID（如 "02-05"）
@@ -56,6 +96,13 @@ public interface TreeMeasurementService {
      */
     List<Map<String, Object>> getStandSpeciesStatistics(Integer standId);
 
+    /**
+     * 附近单木（按所在样地的球面距离升序）
+     * @param radiusMeters 半径（米），为空时不限半径
+     * @param k 最多返回数量，为空时不限数量
+     */
+    List<TreeDTO> getNearbyTrees(Double lon, Double lat, Integer radiusMeters, Integer k);
+
     /**
      * 获取Top N大树
      */
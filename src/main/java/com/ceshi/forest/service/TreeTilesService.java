@@ -0,0 +1,30 @@
+package com.ceshi.forest.service;
+
+import java.nio.file.Path;
+
+/**
+ * 单木 3D Tiles 服务接口
+ * 按范围（林分 / 林场）生成 i3dm 瓦片集并缓存到磁盘，单木或样地变化后按新的数据指纹重新生成
+ */
+public interface TreeTilesService {
+
+    /**
+     * 获取 tileset.json，缓存不存在时同步生成；范围内没有带坐标的单木时返回 null
+     * @param scope 范围类型：stand / zone
+     * @param scopeId 林分ID或林场ID
+     */
+    Tileset getTileset(String scope, Integer scopeId);
+
+    /**
+     * 获取已生成的瓦片文件，不存在（版本已清理或参数非法）时返回 null
+     * @param version tileset.json 中引用的版本目录
+     */
+    Path getTile(String scope, Integer scopeId, String version, String tileId);
+
+    /**
+     * @param file tileset.json 文件
+     * @param version 数据指纹，瓦片路径的一部分，可作为 ETag
+     */
+    record Tileset(Path file, String version) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.ceshi.forest.service;
+
+import com.ceshi.forest.dto.auth.AuthUserDTO;
+
+/**
+ * 认证用户缓存服务接口
+ * 登录、刷新令牌、获取当前用户共用一份用户 + 角色快照，避免每次调用都查询用户表和角色关联
+ */
+public interface UserCacheService {
+
+    /**
+     * 获取用户快照，不存在时返回 null（不缓存）
+     */
+    AuthUserDTO getUser(String username);
+
+    /**
+     * 用户信息、密码或角色变更后调用
+     */
+    void evict(String username);
+
+    /**
+     * 记录登录时间，异步合并后批量写库
+     */
+    void recordLogin(Integer userId);
+}
@@ -1,19 +1,23 @@
 package com.ceshi.forest.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ceshi.forest.dto.auth.AuthUserDTO;
 import com.ceshi.forest.dto.auth.LoginRequest;
 import com.ceshi.forest.dto.auth.LoginResponse;
 import com.ceshi.forest.dto.auth.RegisterRequest;
 import com.ceshi.forest.entity.User;
 import com.ceshi.forest.mapper.RoleMapper;
 import com.ceshi.forest.mapper.UserMapper;
+import com.ceshi.forest.security.LoginAttemptLimiter;
 import com.ceshi.forest.service.AuthService;
+import com.ceshi.forest.service.UserCacheService;
 import com.ceshi.forest.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -32,26 +36,36 @@ public class AuthServiceImpl implements AuthService {
     private final RoleMapper roleMapper;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final UserCacheService userCacheService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     @Override
-    public LoginResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        // 失败次数超限直接拒绝，不进入 BCrypt 校验
+        loginAttemptLimiter.check(request.getUsername(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getUsername(),
+                            request.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            loginAttemptLimiter.recordFailure(request.getUsername(), clientIp);
+            throw e;
+        }
+        loginAttemptLimiter.recordSuccess(request.getUsername());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
-        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                .eq(User::getUsername, userDetails.getUsername()));
+        // 认证时已加载到缓存，这里不再查库；登录时间异步批量写入
+        AuthUserDTO user = requireUser(userDetails.getUsername());
+        userCacheService.recordLogin(user.getUserId());
 
-        user.setLastLoginTime(LocalDateTime.now());
-        userMapper.updateById(user);
-
-        List<String> roles = roleMapper.selectRolesByUserId(user.getUserId());
+        List<String> roles = user.getRoles();
 
         String token = jwtUtil.generateToken(
                 user.getUsername(),
@@ -94,6 +108,8 @@ public class AuthServiceImpl implements AuthService {
 
         userMapper.insert(user);
         roleMapper.insertUserRole(user.getUserId(), 2);
+        // 清掉注册前可能残留的快照
+        userCacheService.evict(user.getUsername());
     }
 
     @Override
@@ -103,14 +119,13 @@ public class AuthServiceImpl implements AuthService {
         }
 
         String username = jwtUtil.getUsernameFromToken(token);
-        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                .eq(User::getUsername, username));
+        AuthUserDTO user = userCacheService.getUser(username);
 
         if (user == null || user.getStatus() == 0) {
             throw new RuntimeException("用户不存在或已被禁用");
         }
 
-        List<String> roles = roleMapper.selectRolesByUserId(user.getUserId());
+        List<String> roles = user.getRoles();
         String newToken = jwtUtil.refreshToken(token);
 
         return LoginResponse.builder()
@@ -131,14 +146,8 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("用户未登录");
         }
 
-        String username = authentication.getName();
-        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                .eq(User::getUsername, username));
-
-        List<String> userRoles = roleMapper.selectRolesByUserId(user.getUserId());
-
-        // 修复：使用单独的变量名，避免自引用
-        return new UserInfoVO(user, userRoles);
+        AuthUserDTO user = requireUser(authentication.getName());
+        return new UserInfoVO(user);
     }
 
     @Override
@@ -146,16 +155,27 @@ public class AuthServiceImpl implements AuthService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
 
-        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                .eq(User::getUsername, username));
+        AuthUserDTO cached = requireUser(username);
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordEncoder.matches(oldPassword, cached.getPassword())) {
             throw new BadCredentialsException("旧密码错误");
         }
 
+        // 只更新密码字段，避免覆盖尚未落库的登录时间
+        User user = new User();
+        user.setUserId(cached.getUserId());
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdateTime(LocalDateTime.now());
         userMapper.updateById(user);
+        userCacheService.evict(username);
+    }
+
+    private AuthUserDTO requireUser(String username) {
+        AuthUserDTO user = userCacheService.getUser(username);
+        if (user == null) {
+            throw new RuntimeException("用户不存在");
+        }
+        return user;
     }
 
     // 内部类或单独创建 VO 类
@@ -177,5 +197,15 @@ public class AuthServiceImpl implements AuthService {
             this.avatar = user.getAvatar();
             this.roles = roleList;
         }
+
+        public UserInfoVO(AuthUserDTO user) {
+            this.userId = user.getUserId();
+            this.username = user.getUsername();
+            this.realName = user.getRealName();
+            this.email = user.getEmail();
+            this.phone = user.getPhone();
+            this.avatar = user.getAvatar();
+            this.roles = user.getRoles();
+        }
     }
 }
\ No newline at end of file
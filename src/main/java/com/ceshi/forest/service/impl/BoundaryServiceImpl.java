@@ -0,0 +1,202 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.dto.BoundaryLodDTO;
+import com.ceshi.forest.entity.BoundaryLod;
+import com.ceshi.forest.mapper.BoundaryMapper;
+import com.ceshi.forest.service.BoundaryService;
+import com.ceshi.forest.service.DataVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 林分/林场边界服务实现
+ * 使用 TopologyPreservingSimplifier 预计算各层级，避免低缩放级别时传输全部顶点
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoundaryServiceImpl implements BoundaryService {
+
+    // 256 像素瓦片在 0 级时每像素对应的经度
+    private static final double DEGREES_PER_PIXEL_Z0 = 360.0 / 256;
+
+    // 按 ID 查询边界时每批的 ID 数量
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private final BoundaryMapper boundaryMapper;
+    private final DataVersionService dataVersionService;
+
+    // 各层级简化容差（度），第一个必须为 0 表示原始边界；约 0 / 1m / 10m / 100m / 1km
+    @Value("${forest.boundary.tolerances:0,0.00001,0.0001,0.001,0.01}")
+    private double[] tolerances;
+
+    @Override
+    @Transactional
+    public List<BoundaryLodDTO> updateBoundary(String ownerType, Integer ownerId, String wkt) {
+        checkOwnerType(ownerType);
+        MultiPolygon boundary = parseBoundary(wkt);
+
+        if (boundaryMapper.updateBoundary(ownerType, ownerId, boundary) == 0) {
+            throw new RuntimeException((OWNER_ZONE.equals(ownerType) ? "林场" : "林分") + "不存在: " + ownerId);
+        }
+
+        List<BoundaryLodDTO> summary = saveLods(ownerType, ownerId, boundary);
+        dataVersionService.bump(OWNER_ZONE.equals(ownerType) ? DataVersionService.TABLE_ZONE : DataVersionService.TABLE_STAND);
+
+        log.info("更新边界: {}={}, 原始顶点数: {}", ownerType, ownerId, boundary.getNumPoints());
+        return summary;
+    }
+
+    @Override
+    public List<BoundaryLodDTO> getLodSummary(String ownerType, Integer ownerId) {
+        checkOwnerType(ownerType);
+        return boundaryMapper.findLodSummary(ownerType, ownerId).stream()
+                .map(lod -> new BoundaryLodDTO(lod.getLodLevel(), lod.getTolerance(), lod.getVertexCount()))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildLods(String ownerType) {
+        checkOwnerType(ownerType);
+        List<BoundaryLod> boundaries = boundaryMapper.findAllBoundaries(ownerType);
+        for (BoundaryLod boundary : boundaries) {
+            saveLods(ownerType, boundary.getOwnerId(), toMultiPolygon(boundary.getGeom()));
+        }
+        dataVersionService.bump(OWNER_ZONE.equals(ownerType) ? DataVersionService.TABLE_ZONE : DataVersionService.TABLE_STAND);
+
+        log.info("重建边界简化层级: {}, 数量: {}", ownerType, boundaries.size());
+        return boundaries.size();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildLods(String ownerType, Collection<Integer> ownerIds) {
+        checkOwnerType(ownerType);
+        if (ownerIds.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = new ArrayList<>(ownerIds);
+        int count = 0;
+        // 分批查询，避免 IN 列表超过绑定参数上限
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            for (BoundaryLod boundary : boundaryMapper.findBoundariesByIds(ownerType, chunk)) {
+                saveLods(ownerType, boundary.getOwnerId(), toMultiPolygon(boundary.getGeom()));
+                count++;
+            }
+        }
+        dataVersionService.bump(OWNER_ZONE.equals(ownerType) ? DataVersionService.TABLE_ZONE : DataVersionService.TABLE_STAND);
+
+        log.info("重建边界简化层级: {}, 指定数量: {}, 处理: {}", ownerType, ids.size(), count);
+        return count;
+    }
+
+    @Override
+    public int resolveLevel(Integer zoom, Double tolerance) {
+        double target;
+        if (tolerance != null) {
+            target = tolerance;
+        } else if (zoom != null) {
+            target = DEGREES_PER_PIXEL_Z0 / Math.pow(2, Math.max(0, zoom));
+        } else {
+            return 0;
+        }
+
+        int level = 0;
+        for (int i = 1; i < tolerances.length; i++) {
+            if (tolerances[i] <= target) {
+                level = i;
+            }
+        }
+        return level;
+    }
+
+    private List<BoundaryLodDTO> saveLods(String ownerType, Integer ownerId, MultiPolygon boundary) {
+        boundaryMapper.deleteLods(ownerType, ownerId);
+
+        List<BoundaryLodDTO> summary = new ArrayList<>(tolerances.length);
+        MultiPolygon previous = boundary;
+        for (int level = 0; level < tolerances.length; level++) {
+            double tolerance = tolerances[level];
+            MultiPolygon simplified = level == 0 ? boundary
+                    : toMultiPolygon(TopologyPreservingSimplifier.simplify(boundary, tolerance));
+            // 容差过大导致面被消除时沿用上一层级
+            if (simplified.isEmpty()) {
+                simplified = previous;
+            }
+
+            BoundaryLod lod = new BoundaryLod();
+            lod.setOwnerType(ownerType);
+            lod.setOwnerId(ownerId);
+            lod.setLodLevel(level);
+            lod.setTolerance(tolerance);
+            lod.setVertexCount(simplified.getNumPoints());
+            lod.setGeom(simplified);
+            boundaryMapper.insertLod(lod);
+
+            summary.add(new BoundaryLodDTO(level, tolerance, lod.getVertexCount()));
+            previous = simplified;
+        }
+        return summary;
+    }
+
+    private MultiPolygon parseBoundary(String wkt) {
+        Geometry geometry;
+        try {
+            geometry = new WKTReader(GEOMETRY_FACTORY).read(wkt);
+        } catch (ParseException e) {
+            throw new RuntimeException("边界 WKT 格式错误: " + e.getMessage());
+        }
+
+        if (!(geometry instanceof Polygon) && !(geometry instanceof MultiPolygon)) {
+            throw new RuntimeException("边界必须是 POLYGON 或 MULTIPOLYGON: " + geometry.getGeometryType());
+        }
+        if (!geometry.isValid()) {
+            geometry = GeometryFixer.fix(geometry);
+            log.warn("边界几何无效，已自动修复");
+        }
+
+        MultiPolygon boundary = toMultiPolygon(geometry);
+        if (boundary.isEmpty()) {
+            throw new RuntimeException("边界为空");
+        }
+        return boundary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MultiPolygon toMultiPolygon(Geometry geometry) {
+        MultiPolygon result;
+        if (geometry instanceof MultiPolygon multiPolygon) {
+            result = multiPolygon;
+        } else if (geometry instanceof Polygon polygon) {
+            result = GEOMETRY_FACTORY.createMultiPolygon(new Polygon[]{polygon});
+        } else {
+            List<Polygon> polygons = PolygonExtracter.getPolygons(geometry);
+            result = GEOMETRY_FACTORY.createMultiPolygon(polygons.toArray(new Polygon[0]));
+        }
+        result.setSRID(4326);
+        return result;
+    }
+
+    private void checkOwnerType(String ownerType) {
+        if (!OWNER_STAND.equals(ownerType) && !OWNER_ZONE.equals(ownerType)) {
+            throw new RuntimeException("不支持的边界类型: " + ownerType);
+        }
+    }
+}
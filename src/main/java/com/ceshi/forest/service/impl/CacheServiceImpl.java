@@ -1,48 +1,83 @@
 package com.ceshi.forest.service.impl;
 
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.ceshi.forest.profiling.CacheLoadEvent;
 import com.ceshi.forest.service.CacheService;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 二级缓存实现（Caffeine + Redis）
+ * 本地缓存按条目过期；带加载函数的条目在达到过期时间的 refresh-ratio 后后台刷新，
+ * 过期后在宽限期内仍返回旧值并继续刷新
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CacheServiceImpl implements CacheService {
 
+    // 加载锁分段数：用 ReentrantLock 代替 synchronized(key.intern())，避免虚拟线程被钉住
+    private static final int LOCK_STRIPES = 64;
+
     private final RedisTemplate<String, Object> redisTemplate;
-    private Cache<String, Object> localCache;
+    private final AsyncTaskExecutor cacheRefreshExecutor;
+    private final ReentrantLock[] loadLocks = createLoadLocks();
+    // 正在后台刷新的键，保证同一个键只有一个刷新任务
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private Cache<String, CacheEntry> localCache;
+
+    // 从 Redis 回填本地缓存时使用的过期时间（秒）
+    @Value("${forest.cache.default-local-ttl:600}")
+    private long defaultLocalTtl;
+
+    // 达到过期时间的该比例后开始后台刷新
+    @Value("${forest.cache.refresh-ratio:0.8}")
+    private double refreshRatio;
+
+    // 过期后继续返回旧值的宽限期（相对过期时间的比例），仅对带加载函数的条目生效
+    @Value("${forest.cache.stale-grace-ratio:1.0}")
+    private double staleGraceRatio;
+
+    public CacheServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                            @Qualifier("cacheRefreshExecutor") AsyncTaskExecutor cacheRefreshExecutor) {
+        this.redisTemplate = redisTemplate;
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+    }
 
     @PostConstruct
     public void init() {
         localCache = Caffeine.newBuilder()
                 .maximumSize(10000)
+                .expireAfter(new EntryExpiry())
                 .recordStats()
                 .build();
-        log.info("本地缓存初始化完成");
+        log.info("本地缓存初始化完成, 提前刷新比例: {}, 过期宽限比例: {}", refreshRatio, staleGraceRatio);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> T get(String key, Class<T> clazz) {
-        Object value = localCache.getIfPresent(key);
-        if (value != null) {
-            return (T) value;
+        CacheEntry entry = localCache.getIfPresent(key);
+        if (entry != null) {
+            return (T) entry.value;
         }
 
-        value = redisTemplate.opsForValue().get(key);
+        Object value = redisTemplate.opsForValue().get(key);
         if (value != null) {
-            localCache.put(key, value);
+            localCache.put(key, new CacheEntry(value, defaultLocalTtl, 0, null));
             return (T) value;
         }
 
@@ -51,24 +86,68 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public <T> T getOrLoad(String key, Class<T> clazz, CacheLoader<T> loader) {
-        T value = get(key, clazz);
-        if (value != null) {
-            return value;
+        return getOrLoad(key, clazz, 600, 1800, loader);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, Class<T> clazz, long localExpireSeconds, long redisExpireSeconds,
+                           CacheLoader<T> loader) {
+        CacheEntry entry = localCache.getIfPresent(key);
+        if (entry != null) {
+            refreshIfNeeded(key, entry);
+            return (T) entry.value;
         }
 
-        synchronized (key.intern()) {
-            value = get(key, clazz);
-            if (value != null) {
-                return value;
+        // 只对本地未命中的慢路径记录 JFR 事件，耗时包含等锁时间
+        CacheLoadEvent event = new CacheLoadEvent();
+        event.begin();
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            entry = localCache.getIfPresent(key);
+            if (entry != null) {
+                commitLoadEvent(event, key, "local", true);
+                return (T) entry.value;
+            }
+
+            Object cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                localCache.put(key, new CacheEntry(cached, localExpireSeconds, redisExpireSeconds, loader));
+                commitLoadEvent(event, key, "redis", true);
+                return (T) cached;
             }
 
-            value = loader.load();
+            T value = load(loader);
 
             if (value != null) {
-                set(key, value, 600, 1800);
+                localCache.put(key, new CacheEntry(value, localExpireSeconds, redisExpireSeconds, loader));
+                if (redisExpireSeconds > 0) {
+                    redisTemplate.opsForValue().set(key, value, redisExpireSeconds, TimeUnit.SECONDS);
+                }
             }
 
+            commitLoadEvent(event, key, "loader", value != null);
             return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 加载结果会写入 Redis 并被所有节点复用，从主库读取，避免缓存从库上的旧数据
+     */
+    private <T> T load(CacheLoader<T> loader) {
+        return ReplicaRoutingDataSource.readFromPrimary(loader::load);
+    }
+
+    private void commitLoadEvent(CacheLoadEvent event, String key, String source, boolean found) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.key = key;
+            event.source = source;
+            event.found = found;
+            event.commit();
         }
     }
 
@@ -79,7 +158,7 @@ public class CacheServiceImpl implements CacheService {
         }
 
         if (localExpireSeconds > 0) {
-            localCache.put(key, value);
+            localCache.put(key, new CacheEntry(value, localExpireSeconds, redisExpireSeconds, null));
         }
 
         if (redisExpireSeconds > 0) {
@@ -102,4 +181,100 @@ public class CacheServiceImpl implements CacheService {
             redisTemplate.delete(keys);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 条目达到刷新时间时提交后台刷新；刷新完成前读取方继续使用旧值
+     */
+    private void refreshIfNeeded(String key, CacheEntry entry) {
+        if (entry.loader == null || entry.ageNanos() < entry.refreshAfterNanos(refreshRatio)) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    Object value = load(entry.loader);
+                    if (value == null) {
+                        return;
+                    }
+                    CacheEntry refreshed = new CacheEntry(value, entry.localTtlSeconds, entry.redisTtlSeconds, entry.loader);
+                    // 刷新期间条目被删除（数据变更）时放弃写回，避免旧数据覆盖失效操作
+                    if (localCache.asMap().replace(key, entry, refreshed) && entry.redisTtlSeconds > 0) {
+                        redisTemplate.opsForValue().set(key, value, entry.redisTtlSeconds, TimeUnit.SECONDS);
+                    }
+                    log.debug("缓存后台刷新完成: {}", key);
+                } catch (Exception e) {
+                    log.warn("缓存后台刷新失败: {}, 错误: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            refreshing.remove(key);
+            log.debug("缓存刷新队列已满, 跳过: {}", key);
+        }
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return loadLocks[(key.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private static ReentrantLock[] createLoadLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * 本地缓存条目：值 + 过期配置 + 加载函数
+     */
+    private static final class CacheEntry {
+        private final Object value;
+        private final long localTtlSeconds;
+        private final long redisTtlSeconds;
+        private final CacheLoader<?> loader;
+        private final long createNanos = System.nanoTime();
+
+        CacheEntry(Object value, long localTtlSeconds, long redisTtlSeconds, CacheLoader<?> loader) {
+            this.value = value;
+            this.localTtlSeconds = localTtlSeconds;
+            this.redisTtlSeconds = redisTtlSeconds;
+            this.loader = loader;
+        }
+
+        long ageNanos() {
+            return System.nanoTime() - createNanos;
+        }
+
+        long refreshAfterNanos(double ratio) {
+            return (long) (TimeUnit.SECONDS.toNanos(localTtlSeconds) * ratio);
+        }
+    }
+
+    /**
+     * 按条目计算过期时间：带加载函数的条目额外保留宽限期
+     */
+    private class EntryExpiry implements Expiry<String, CacheEntry> {
+
+        @Override
+        public long expireAfterCreate(String key, CacheEntry entry, long currentTime) {
+            long ttl = TimeUnit.SECONDS.toNanos(entry.localTtlSeconds);
+            return entry.loader != null ? (long) (ttl * (1 + staleGraceRatio)) : ttl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CacheEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CacheEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.converter.StandConverter;
+import com.ceshi.forest.dto.ChangeEventDTO;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.event.ChangeBroadcaster;
+import com.ceshi.forest.event.DataChangeEvent;
+import com.ceshi.forest.event.RemoteChangeEvent;
+import com.ceshi.forest.exception.TooManyRequestsException;
+import com.ceshi.forest.service.ChangeFeedService;
+import com.ceshi.forest.service.DataVersionService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 数据变更推送服务实现
+ * 本节点的变更直接广播，同时发布到 Redis 频道；收到其他节点的消息后刷新本地数据版本、
+ * 发布 {@link RemoteChangeEvent} 供本地内存状态同步，再广播（按 origin 去重）
+ */
+@Slf4j
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService, MessageListener {
+
+    private static final String CHANNEL = "forest:change-feed";
+
+    // 不作为变更字段推送
+    private static final Set<String> IGNORED_FIELDS = Set.of("class", "updateTime", "updateBy");
+
+    private final StandConverter standConverter;
+    private final DataVersionService dataVersionService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final AsyncTaskExecutor changeFeedExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeBroadcaster broadcaster;
+
+    @Value("${forest.change-feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${forest.change-feed.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    public ChangeFeedServiceImpl(StandConverter standConverter,
+                                 DataVersionService dataVersionService,
+                                 RedisTemplate<String, Object> redisTemplate,
+                                 ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+                                 @Qualifier("changeFeedExecutor") AsyncTaskExecutor changeFeedExecutor,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${forest.change-feed.ring-size:4096}") int ringSize,
+                                 @Value("${forest.change-feed.max-lag:1024}") int maxLag) {
+        this.standConverter = standConverter;
+        this.dataVersionService = dataVersionService;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.changeFeedExecutor = changeFeedExecutor;
+        this.eventPublisher = eventPublisher;
+        this.broadcaster = new ChangeBroadcaster(UUID.randomUUID().toString().substring(0, 8),
+                ringSize, maxLag, changeFeedExecutor);
+    }
+
+    @PostConstruct
+    public void init() {
+        RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+        if (container != null) {
+            container.addMessageListener(this, new ChannelTopic(CHANNEL));
+            log.info("变更推送已启用 Redis 转发, 节点: {}", broadcaster.getNodeId());
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Set<String> tables, String lastEventId) {
+        if (broadcaster.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("订阅数已满，请稍后重试", 30);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        ChangeBroadcaster.Subscription subscription = broadcaster.subscribe(tables, new EmitterSink(emitter), lastEventId);
+        emitter.onCompletion(() -> broadcaster.unsubscribe(subscription));
+        emitter.onTimeout(() -> broadcaster.unsubscribe(subscription));
+        emitter.onError(e -> broadcaster.unsubscribe(subscription));
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount() {
+        return broadcaster.size();
+    }
+
+    /**
+     * 事务提交后推送；Redis 发布放到推送线程，不占用提交线程
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        ChangeEventDTO change = toChange(event);
+        broadcaster.publish(change);
+
+        if (listenerContainer.getIfAvailable() != null) {
+            changeFeedExecutor.execute(() -> {
+                try {
+                    redisTemplate.convertAndSend(CHANNEL, change);
+                } catch (Exception e) {
+                    log.warn("变更事件转发失败: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * 其他节点转发的变更
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object value;
+        try {
+            value = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        } catch (Exception e) {
+            log.warn("无法解析转发的变更事件: {}", e.getMessage());
+            return;
+        }
+        if (value instanceof ChangeEventDTO change && !broadcaster.getNodeId().equals(change.getOrigin())) {
+            // 先让本节点缓存的版本失效，客户端收到通知后重新请求时不会再得到 304
+            if (change.getTable() != null) {
+                change.setVersion(refreshVersion(change.getTable(), change.getVersion()));
+            }
+            try {
+                eventPublisher.publishEvent(new RemoteChangeEvent(change));
+            } catch (Exception e) {
+                log.warn("转发变更事件处理失败: {}", e.getMessage());
+            }
+            broadcaster.publish(change);
+        }
+    }
+
+    private Long refreshVersion(String table, Long fallback) {
+        try {
+            return dataVersionService.refreshVersion(table);
+        } catch (Exception e) {
+            log.warn("刷新数据版本失败: {}, 错误: {}", table, e.getMessage());
+            return fallback;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${forest.change-feed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    private ChangeEventDTO toChange(DataChangeEvent event) {
+        ChangeEventDTO change = new ChangeEventDTO();
+        change.setTable(event.getTable());
+        change.setOp(event.getOperation().name());
+        change.setEntityId(event.getId());
+        change.setVersion(dataVersionService.refreshVersion(event.getTable()));
+        change.setTimestamp(System.currentTimeMillis());
+        change.setOrigin(broadcaster.getNodeId());
+        if (event.getOperation() == DataChangeEvent.Operation.UPDATE) {
+            change.setChangedFields(changedFields(event.getBefore(), event.getAfter()));
+        }
+        change.setData(toData(event.getAfter()));
+        return change;
+    }
+
+    private Object toData(Object entity) {
+        if (entity instanceof ForestStand stand) {
+            return standConverter.toDTO(stand);
+        }
+        return null;
+    }
+
+    /**
+     * 比较前后快照的属性，得到变化的字段名
+     */
+    static List<String> changedFields(Object before, Object after) {
+        List<String> fields = new ArrayList<>();
+        if (before == null || after == null || before.getClass() != after.getClass()) {
+            return fields;
+        }
+        BeanWrapper b = new BeanWrapperImpl(before);
+        BeanWrapper a = new BeanWrapperImpl(after);
+        for (PropertyDescriptor pd : b.getPropertyDescriptors()) {
+            String name = pd.getName();
+            if (pd.getReadMethod() == null || IGNORED_FIELDS.contains(name)) {
+                continue;
+            }
+            if (!Objects.equals(b.getPropertyValue(name), a.getPropertyValue(name))) {
+                fields.add(name);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * SSE 输出端
+     */
+    private class EmitterSink implements ChangeBroadcaster.Sink {
+
+        private final SseEmitter emitter;
+
+        EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(ChangeEventDTO event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(event.getId())
+                    .name("change")
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void resync(String reason) throws IOException {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("reason", reason);
+            data.put("versions", currentVersions());
+            emitter.send(SseEmitter.event().name("resync").data(data, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("ping"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+
+    private Map<String, Long> currentVersions() {
+        Map<String, Long> versions = new LinkedHashMap<>();
+        for (String table : List.of(DataVersionService.TABLE_ZONE, DataVersionService.TABLE_STAND,
+                DataVersionService.TABLE_PLOT, DataVersionService.TABLE_TREE)) {
+            versions.put(table, dataVersionService.getVersion(table));
+        }
+        return versions;
+    }
+}
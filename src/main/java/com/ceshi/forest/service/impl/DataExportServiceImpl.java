@@ -0,0 +1,81 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.dto.ExportQueryDTO;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.entity.SamplePlot;
+import com.ceshi.forest.mapper.ForestStandMapper;
+import com.ceshi.forest.mapper.SamplePlotMapper;
+import com.ceshi.forest.service.DataExportService;
+import com.ceshi.forest.util.export.ExportFormat;
+import com.ceshi.forest.util.export.ExportSchemas;
+import com.ceshi.forest.util.export.RowExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 林分 / 样地数据导出实现
+ * Cursor 需要在同一个连接上遍历，整个写出过程放在只读事务内；总数未知，JSON 的 totalCount 写在末尾
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataExportServiceImpl implements DataExportService {
+
+    private final ForestStandMapper standMapper;
+    private final SamplePlotMapper plotMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public int exportStands(ExportQueryDTO query, ExportFormat format, OutputStream out) {
+        try (Cursor<ForestStand> cursor = standMapper.cursorForExport(query.getZoneId(), query.getSpecies(),
+                query.getMinLon(), query.getMaxLon(), query.getMinLat(), query.getMaxLat())) {
+            return RowExporter.export(ExportSchemas.STANDS, format, cursor, -1, filters(query), out, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭游标失败", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int exportPlots(ExportQueryDTO query, ExportFormat format, OutputStream out) {
+        try (Cursor<SamplePlot> cursor = plotMapper.cursorForExport(query.getStandId(), query.getZoneId(),
+                query.getSpecies(), query.getMinLon(), query.getMaxLon(), query.getMinLat(), query.getMaxLat())) {
+            return RowExporter.export(ExportSchemas.PLOTS, format, cursor, -1, filters(query), out, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭游标失败", e);
+        }
+    }
+
+    /**
+     * 非空筛选条件写入 JSON 头部，便于核对导出范围
+     */
+    private Map<String, Object> filters(ExportQueryDTO query) {
+        Map<String, Object> meta = new LinkedHashMap<>();
+        putIfNotNull(meta, "standId", query.getStandId());
+        putIfNotNull(meta, "zoneId", query.getZoneId());
+        putIfNotNull(meta, "species", query.getSpecies());
+        if (query.getMinLon() != null && query.getMaxLon() != null
+                && query.getMinLat() != null && query.getMaxLat() != null) {
+            meta.put("minLon", query.getMinLon());
+            meta.put("minLat", query.getMinLat());
+            meta.put("maxLon", query.getMaxLon());
+            meta.put("maxLat", query.getMaxLat());
+        }
+        return meta;
+    }
+
+    private void putIfNotNull(Map<String, Object> meta, String key, Object value) {
+        if (value != null) {
+            meta.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.ceshi.forest.entity.TableVersionMark;
+import com.ceshi.forest.mapper.ChangeLogMapper;
+import com.ceshi.forest.service.DataVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据版本服务实现
+ * 林分、样地、单木由数据库的变更事务号（change_xid，见 V6）推导版本，直接执行 SQL 或其他节点的写入同样生效；
+ * 其他表（林场）在 Redis 中计数（INCR forest:version:表名），Redis 不可用时退回本节点计数。
+ * 版本在本地缓存 cache-ms 毫秒，本节点写入提交后及收到其他节点的变更通知时立即失效
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private static final String REDIS_KEY_PREFIX = "forest:version:";
+
+    // 带 change_xid 的表
+    private static final Set<String> TRACKED_TABLES = Set.of(TABLE_STAND, TABLE_PLOT, TABLE_TREE);
+
+    private final ChangeLogMapper changeLogMapper;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final long initialVersion = System.currentTimeMillis();
+    private final Map<String, CachedVersion> cached = new ConcurrentHashMap<>();
+    // Redis 不可用时的本节点计数
+    private final Map<String, AtomicLong> fallbackCounters = new ConcurrentHashMap<>();
+
+    @Value("${forest.data-version.cache-ms:1000}")
+    private long cacheMs;
+
+    @Override
+    public long getVersion(String table) {
+        CachedVersion current = cached.get(table);
+        if (current != null && System.nanoTime() - current.loadedAt < cacheMs * 1_000_000) {
+            return current.version;
+        }
+        return refreshVersion(table);
+    }
+
+    @Override
+    public void bump(String table) {
+        // 提交前失效会让并发读取把旧数据按新版本缓存，因此延迟到提交之后
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onCommitted(table);
+                }
+            });
+        } else {
+            onCommitted(table);
+        }
+    }
+
+    @Override
+    public long refreshVersion(String table) {
+        long version = TRACKED_TABLES.contains(table) ? loadTrackedVersion(table) : loadCounterVersion(table);
+        cached.put(table, new CachedVersion(version, System.nanoTime()));
+        return version;
+    }
+
+    @Override
+    public String getETag(String... tables) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < tables.length; i++) {
+            if (i > 0) {
+                sb.append('-');
+            }
+            sb.append(Long.toHexString(getVersion(tables[i])));
+        }
+        return sb.append('"').toString();
+    }
+
+    private void onCommitted(String table) {
+        if (!TRACKED_TABLES.contains(table)) {
+            incrementCounter(table);
+        }
+        cached.remove(table);
+        log.debug("数据版本失效: {}", table);
+    }
+
+    /**
+     * 最大变更事务号之前若还有未结束的事务（xmin 不大于它），这些事务提交后最大值不变，
+     * 因此把 xmin 计入版本，等它们结束后版本随 xmin 推进而变化
+     */
+    private long loadTrackedVersion(String table) {
+        TableVersionMark mark = ReplicaRoutingDataSource.readFromPrimary(() -> changeLogMapper.selectVersionMark(table));
+        long maxXid = mark.getMaxXid();
+        long xmin = mark.getXmin();
+        return xmin > maxXid ? maxXid : maxXid ^ (xmin << 32);
+    }
+
+    private long loadCounterVersion(String table) {
+        byte[] key = redisKey(table);
+        try {
+            Long version = redisTemplate.execute((RedisCallback<Long>) connection -> {
+                byte[] value = connection.stringCommands().get(key);
+                if (value == null) {
+                    // 首次使用以当前时间为初值，Redis 数据丢失后不会回到旧版本
+                    connection.stringCommands().setNX(key, Long.toString(initialVersion).getBytes(StandardCharsets.UTF_8));
+                    value = connection.stringCommands().get(key);
+                }
+                return value != null ? Long.parseLong(new String(value, StandardCharsets.UTF_8)) : null;
+            });
+            if (version != null) {
+                return version;
+            }
+        } catch (Exception e) {
+            log.warn("读取数据版本失败, 使用本节点版本: {}, 错误: {}", table, e.getMessage());
+        }
+        return fallbackCounter(table).get();
+    }
+
+    private void incrementCounter(String table) {
+        // 本节点计数同步递增，Redis 不可用期间本节点的写入也会改变版本
+        fallbackCounter(table).incrementAndGet();
+        byte[] key = redisKey(table);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> {
+                connection.stringCommands().setNX(key, Long.toString(initialVersion).getBytes(StandardCharsets.UTF_8));
+                return connection.stringCommands().incr(key);
+            });
+        } catch (Exception e) {
+            log.warn("递增数据版本失败: {}, 错误: {}", table, e.getMessage());
+        }
+    }
+
+    private AtomicLong fallbackCounter(String table) {
+        return fallbackCounters.computeIfAbsent(table, k -> new AtomicLong(initialVersion));
+    }
+
+    private static byte[] redisKey(String table) {
+        return (REDIS_KEY_PREFIX + table).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record CachedVersion(long version, long loadedAt) {
+    }
+}
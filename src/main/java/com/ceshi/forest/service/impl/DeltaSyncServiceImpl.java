@@ -0,0 +1,186 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.converter.PlotConverter;
+import com.ceshi.forest.converter.StandConverter;
+import com.ceshi.forest.converter.TreeConverter;
+import com.ceshi.forest.dto.DeltaSyncDTO;
+import com.ceshi.forest.dto.PlotDTO;
+import com.ceshi.forest.dto.StandDTO;
+import com.ceshi.forest.dto.TreeDTO;
+import com.ceshi.forest.entity.ChangeKey;
+import com.ceshi.forest.entity.ChangeLogFloor;
+import com.ceshi.forest.mapper.ChangeLogMapper;
+import com.ceshi.forest.mapper.ForestStandMapper;
+import com.ceshi.forest.mapper.SamplePlotMapper;
+import com.ceshi.forest.mapper.TreeMeasurementMapper;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.DeltaSyncService;
+import com.ceshi.forest.util.SyncToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 增量同步实现
+ * 变更键取自各表的 (change_xid, 主键) 索引和墓碑表，按键集分页；上界为当前快照的 xmin，
+ * 小于它的事务都已结束，提交较晚的事务不会落在已返回的游标之前。
+ * 不开启事务：非事务查询固定走主库，翻页之间不会因从库延迟不同而漏数据
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeltaSyncServiceImpl implements DeltaSyncService {
+
+    // 同一键既有墓碑又有活动行（单木跨分区移动）时，活动行排在后面覆盖墓碑
+    private static final Comparator<ChangeKey> KEY_ORDER = Comparator.comparing(ChangeKey::getXid)
+            .thenComparing(ChangeKey::getId)
+            .thenComparing(key -> !Boolean.TRUE.equals(key.getDeleted()));
+
+    private final ChangeLogMapper changeLogMapper;
+    private final ForestStandMapper standMapper;
+    private final SamplePlotMapper plotMapper;
+    private final TreeMeasurementMapper treeMapper;
+    private final StandConverter standConverter;
+    private final PlotConverter plotConverter;
+    private final TreeConverter treeConverter;
+
+    @Value("${forest.sync.default-limit:500}")
+    private int defaultLimit;
+
+    @Value("${forest.sync.max-limit:5000}")
+    private int maxLimit;
+
+    @Value("${forest.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Override
+    public DeltaSyncDTO<StandDTO> getStandChanges(String since, Integer limit) {
+        return sync(DataVersionService.TABLE_STAND, since, limit, standMapper::findChangeKeys,
+                ids -> standConverter.toDTOList(standMapper.findByIds(ids)));
+    }
+
+    @Override
+    public DeltaSyncDTO<PlotDTO> getPlotChanges(String since, Integer limit) {
+        return sync(DataVersionService.TABLE_PLOT, since, limit,
+                (horizon, afterXid, afterId, sinceTime, liveOnly, size) ->
+                        plotMapper.findChangeKeys(horizon, afterXid, afterId, sinceTime, size),
+                ids -> plotConverter.toDTOList(plotMapper.findByIds(ids)));
+    }
+
+    @Override
+    public DeltaSyncDTO<TreeDTO> getTreeChanges(String since, Integer limit) {
+        return sync(DataVersionService.TABLE_TREE, since, limit,
+                (horizon, afterXid, afterId, sinceTime, liveOnly, size) ->
+                        treeMapper.findChangeKeys(horizon, afterXid, afterId, sinceTime, size),
+                ids -> treeConverter.toDTOList(treeMapper.findByIds(ids)));
+    }
+
+    /**
+     * 清理过期墓碑，游标早于清理水位的客户端下次同步时收到 resetRequired
+     */
+    @Scheduled(cron = "${forest.sync.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+            if (changeLogMapper.purgeTombstones(before) > 0) {
+                log.info("已清理 {} 之前的删除记录", before);
+            }
+        } catch (Exception e) {
+            log.warn("清理删除记录失败: {}", e.getMessage());
+        }
+    }
+
+    private <D> DeltaSyncDTO<D> sync(String table, String since, Integer limit, KeyQuery keyQuery,
+                                     Function<List<Integer>, List<D>> loader) {
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        SyncToken token = SyncToken.parse(since);
+        DeltaSyncDTO<D> result = new DeltaSyncDTO<>();
+
+        if (!token.full() && isExpired(token)) {
+            result.setResetRequired(true);
+            result.setNext(SyncToken.initial().encode());
+            return result;
+        }
+
+        long horizon = changeLogMapper.selectHorizon();
+        long startXid = token.full() && token.startXid() == 0 ? horizon : token.startXid();
+
+        // 各取 pageSize + 1 条，合并后仍超过 pageSize 即还有下一页
+        List<ChangeKey> keys = new ArrayList<>(keyQuery.find(horizon, token.afterXid(), token.afterId(),
+                token.sinceTime(), token.full(), pageSize + 1));
+        if (!token.full()) {
+            keys.addAll(changeLogMapper.findTombstoneKeys(table, horizon, token.afterXid(), token.afterId(),
+                    token.sinceTime(), pageSize + 1));
+        }
+        keys.sort(KEY_ORDER);
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            // 墓碑与活动行同键时不能从中间截断，否则下一页按 > 游标会漏掉活动行
+            int end = pageSize;
+            while (end < keys.size() && sameKey(keys.get(end - 1), keys.get(end))) {
+                end++;
+            }
+            keys = keys.subList(0, end);
+        }
+
+        // 同一页内每个 ID 只保留最后一次变更
+        Map<Integer, ChangeKey> latest = new LinkedHashMap<>();
+        keys.forEach(key -> latest.put(key.getId(), key));
+        List<Integer> upsertIds = new ArrayList<>();
+        latest.values().forEach(key -> {
+            if (Boolean.TRUE.equals(key.getDeleted())) {
+                result.getDeletes().add(key.getId());
+            } else {
+                upsertIds.add(key.getId());
+            }
+        });
+        if (!upsertIds.isEmpty()) {
+            result.getUpserts().addAll(loader.apply(upsertIds));
+        }
+
+        SyncToken next;
+        if (hasMore) {
+            ChangeKey last = keys.get(keys.size() - 1);
+            next = new SyncToken(token.full(), startXid, last.getXid(), last.getId(), token.sinceTime());
+        } else if (token.full()) {
+            // 全量结束：从开始时的水位重新增量拉取，补上翻页期间的删除
+            next = new SyncToken(false, 0, startXid - 1, Integer.MAX_VALUE, null);
+        } else {
+            next = new SyncToken(false, 0, horizon - 1, Integer.MAX_VALUE, null);
+        }
+        result.setNext(next.encode());
+        result.setHasMore(hasMore);
+        return result;
+    }
+
+    private static boolean sameKey(ChangeKey a, ChangeKey b) {
+        return a.getXid().equals(b.getXid()) && a.getId().equals(b.getId());
+    }
+
+    private boolean isExpired(SyncToken token) {
+        ChangeLogFloor floor = changeLogMapper.selectFloor();
+        if (floor == null) {
+            return false;
+        }
+        if (token.sinceTime() != null) {
+            return token.sinceTime().isBefore(floor.getFloorTime());
+        }
+        return token.afterXid() < floor.getFloorXid();
+    }
+
+    @FunctionalInterface
+    private interface KeyQuery {
+        List<ChangeKey> find(Long horizon, Long afterXid, Integer afterId, LocalDateTime sinceTime,
+                             boolean liveOnly, int limit);
+    }
+}
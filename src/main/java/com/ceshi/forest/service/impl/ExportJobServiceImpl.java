@@ -0,0 +1,342 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.dto.ExportJobDTO;
+import com.ceshi.forest.exception.TooManyRequestsException;
+import com.ceshi.forest.profiling.ExportJobEvent;
+import com.ceshi.forest.service.ExportJobService;
+import com.ceshi.forest.service.TreeMeasurementService;
+import com.ceshi.forest.util.ExportUtil;
+import com.ceshi.forest.util.export.ExportFormat;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步导出任务实现
+ * 导出在独立线程池中写入本地文件，按（范围、格式、数据版本）去重
+ */
+@Slf4j
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_DONE = "DONE";
+    private static final String STATUS_FAILED = "FAILED";
+
+    // 队列已满时建议客户端等待的秒数
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final TreeMeasurementService treeService;
+    private final ExportUtil exportUtil;
+    private final AsyncTaskExecutor exportExecutor;
+
+    @Value("${forest.export.dir:${java.io.tmpdir}/forest-export}")
+    private String exportDir;
+
+    @Value("${forest.export.max-pending:20}")
+    private int maxPending;
+
+    @Value("${forest.export.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, String> jobIdByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public ExportJobServiceImpl(TreeMeasurementService treeService,
+                                ExportUtil exportUtil,
+                                @Qualifier("exportExecutor") AsyncTaskExecutor exportExecutor) {
+        this.treeService = treeService;
+        this.exportUtil = exportUtil;
+        this.exportExecutor = exportExecutor;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Paths.get(exportDir));
+        log.info("导出目录: {}", exportDir);
+    }
+
+    @Override
+    public ExportJobDTO submit(String scope, Integer scopeId, String format) {
+        String normalizedFormat = normalizeFormat(format);
+        if (!"stand".equals(scope) && !"zone".equals(scope)) {
+            throw new RuntimeException("不支持的导出范围: " + scope);
+        }
+
+        String dataVersion = treeService.getDataVersion(scope, scopeId);
+        String key = scope + ":" + scopeId + ":" + normalizedFormat + ":" + dataVersion;
+
+        ExportJob[] created = new ExportJob[1];
+        String jobId = jobIdByKey.compute(key, (k, existingId) -> {
+            ExportJob existing = existingId != null ? jobs.get(existingId) : null;
+            if (existing != null && existing.isReusable()) {
+                return existingId;
+            }
+            ExportJob job = new ExportJob(UUID.randomUUID().toString().replace("-", ""),
+                    k, scope, scopeId, normalizedFormat);
+            jobs.put(job.jobId, job);
+            created[0] = job;
+            return job.jobId;
+        });
+
+        if (created[0] != null) {
+            enqueue(created[0]);
+            log.info("提交导出任务: jobId={}, key={}", jobId, key);
+        } else {
+            log.info("复用导出任务: jobId={}, key={}", jobId, key);
+        }
+
+        return toDTO(jobs.get(jobId));
+    }
+
+    @Override
+    public ExportJobDTO getJob(String jobId) {
+        return toDTO(requireJob(jobId));
+    }
+
+    @Override
+    public Path getJobFile(String jobId) {
+        ExportJob job = requireJob(jobId);
+        if (!STATUS_DONE.equals(job.status)) {
+            throw new RuntimeException("导出任务尚未完成: " + job.status);
+        }
+        if (!Files.exists(job.file)) {
+            throw new RuntimeException("导出文件已过期，请重新提交");
+        }
+        return job.file;
+    }
+
+    /**
+     * 定期清理过期任务和文件
+     */
+    @Scheduled(fixedDelayString = "${forest.export.cleanup-interval-ms:600000}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.finishTime == null || job.finishTime.isAfter(expireBefore)) {
+                return false;
+            }
+            jobIdByKey.remove(job.key, job.jobId);
+            deleteQuietly(job.file);
+            log.info("清理过期导出任务: jobId={}", job.jobId);
+            return true;
+        });
+    }
+
+    private void enqueue(ExportJob job) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejectJob(job);
+        }
+
+        try {
+            exportExecutor.execute(() -> {
+                try {
+                    runJob(job);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.decrementAndGet();
+            rejectJob(job);
+        }
+    }
+
+    private void rejectJob(ExportJob job) {
+        job.fail("导出队列已满");
+        jobIdByKey.remove(job.key, job.jobId);
+        throw new TooManyRequestsException("导出队列已满，请稍后重试", RETRY_AFTER_SECONDS);
+    }
+
+    private void runJob(ExportJob job) {
+        job.status = STATUS_RUNNING;
+        Path partFile = job.file.resolveSibling(job.file.getFileName() + ".part");
+        ExportJobEvent event = new ExportJobEvent();
+        event.begin();
+
+        try {
+            int total = treeService.countTrees(job.scope, job.scopeId);
+            if (total == 0) {
+                job.fail("该范围暂无单木数据");
+                return;
+            }
+            job.totalRows = total;
+
+            Integer standId = "stand".equals(job.scope) ? job.scopeId : null;
+            ExportUtil.ProgressListener listener = (written, t) -> job.writtenRows = written;
+
+            // 游标逐行读取并写出，不在内存中保留整个结果集
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile), 64 * 1024)) {
+                treeService.readTrees(job.scope, job.scopeId, trees -> {
+                    switch (job.format) {
+                        case "excel" -> exportUtil.writeExcel(trees, total, standId, out, listener);
+                        case "json" -> exportUtil.writeJson(trees, total, standId, out, listener);
+                        // 导出文件会被缓存复用，用压缩率更高的 ZSTD
+                        case "parquet" -> exportUtil.write(ExportFormat.PARQUET_ZSTD, trees, total, standId, out, listener);
+                        default -> exportUtil.writeCsv(trees, total, standId, out, listener);
+                    }
+                });
+            }
+
+            Files.move(partFile, job.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.fileSize = Files.size(job.file);
+            job.finishTime = LocalDateTime.now();
+            job.status = STATUS_DONE;
+            log.info("导出任务完成: jobId={}, 记录数: {}, 大小: {} bytes", job.jobId, job.totalRows, job.fileSize);
+
+        } catch (Exception e) {
+            log.error("导出任务失败: jobId={}, 错误: {}", job.jobId, e.getMessage(), e);
+            deleteQuietly(partFile);
+            job.fail(e.getMessage());
+        } finally {
+            commitJobEvent(event, job);
+        }
+    }
+
+    private void commitJobEvent(ExportJobEvent event, ExportJob job) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.jobId = job.jobId;
+            event.scope = job.scope;
+            event.scopeId = job.scopeId;
+            event.format = job.format;
+            event.rows = job.writtenRows;
+            event.bytes = job.fileSize == null ? 0 : job.fileSize;
+            event.success = STATUS_DONE.equals(job.status);
+            event.commit();
+        }
+    }
+
+    private ExportJob requireJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("导出任务不存在: " + jobId);
+        }
+        return job;
+    }
+
+    private String normalizeFormat(String format) {
+        String lower = format == null ? "csv" : format.toLowerCase();
+        return switch (lower) {
+            case "excel", "xlsx" -> "excel";
+            case "json" -> "json";
+            case "parquet" -> "parquet";
+            case "csv" -> "csv";
+            default -> throw new RuntimeException("不支持的导出格式: " + format);
+        };
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        ExportJobDTO dto = new ExportJobDTO();
+        dto.setJobId(job.jobId);
+        dto.setScope(job.scope);
+        dto.setScopeId(job.scopeId);
+        dto.setFormat(job.format);
+        dto.setStatus(job.status);
+        dto.setTotalRows(job.totalRows);
+        dto.setWrittenRows(job.writtenRows);
+        dto.setProgress(job.progress());
+        dto.setFileName(job.displayName());
+        dto.setFileSize(job.fileSize);
+        dto.setErrorMessage(job.errorMessage);
+        dto.setCreateTime(job.createTime);
+        dto.setFinishTime(job.finishTime);
+        if (STATUS_DONE.equals(job.status)) {
+            dto.setDownloadUrl("/api/exports/" + job.jobId + "/download");
+        }
+        return dto;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导出文件失败: {}", path, e);
+        }
+    }
+
+    /**
+     * 任务运行期状态（由工作线程更新，查询线程读取）
+     */
+    private class ExportJob {
+        private final String jobId;
+        private final String key;
+        private final String scope;
+        private final Integer scopeId;
+        private final String format;
+        private final Path file;
+        private final LocalDateTime createTime = LocalDateTime.now();
+
+        private volatile String status = STATUS_PENDING;
+        private volatile Integer totalRows;
+        private volatile int writtenRows;
+        private volatile Long fileSize;
+        private volatile String errorMessage;
+        private volatile LocalDateTime finishTime;
+
+        ExportJob(String jobId, String key, String scope, Integer scopeId, String format) {
+            this.jobId = jobId;
+            this.key = key;
+            this.scope = scope;
+            this.scopeId = scopeId;
+            this.format = format;
+            this.file = Paths.get(exportDir, jobId + "." + extension());
+        }
+
+        void fail(String message) {
+            this.errorMessage = message;
+            this.finishTime = LocalDateTime.now();
+            this.status = STATUS_FAILED;
+        }
+
+        boolean isReusable() {
+            if (STATUS_FAILED.equals(status)) {
+                return false;
+            }
+            return !STATUS_DONE.equals(status) || Files.exists(file);
+        }
+
+        int progress() {
+            if (STATUS_DONE.equals(status)) {
+                return 100;
+            }
+            Integer total = totalRows;
+            return total == null || total == 0 ? 0 : (int) (writtenRows * 100L / total);
+        }
+
+        String extension() {
+            return switch (format) {
+                case "excel" -> "xlsx";
+                case "json" -> "json";
+                case "parquet" -> "parquet";
+                default -> "csv";
+            };
+        }
+
+        String displayName() {
+            String prefix = "stand".equals(scope) ? "小班" : "林场";
+            return String.format("%s_%s_单木数据.%s", prefix, scopeId, extension());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.dto.FeatureQueryDTO;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.entity.ForestZone;
+import com.ceshi.forest.entity.SamplePlot;
+import com.ceshi.forest.mapper.BoundaryMapper;
+import com.ceshi.forest.mapper.ForestStandMapper;
+import com.ceshi.forest.mapper.SamplePlotMapper;
+import com.ceshi.forest.service.FeatureService;
+import com.ceshi.forest.util.GeoJsonWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 要素流式输出实现
+ * 通过 MyBatis Cursor 逐行读取，JsonGenerator 逐个写出，内存占用与数据量无关
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeatureServiceImpl implements FeatureService {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    // 记录分隔符（RFC 8142）
+    private static final char RECORD_SEPARATOR = '\u001E';
+
+    private static final Map<String, Function<ForestStand, Object>> STAND_PROPERTIES = new LinkedHashMap<>();
+    private static final Map<String, Function<SamplePlot, Object>> PLOT_PROPERTIES = new LinkedHashMap<>();
+    private static final Map<String, Function<ForestZone, Object>> ZONE_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        STAND_PROPERTIES.put("standId", ForestStand::getStandId);
+        STAND_PROPERTIES.put("xiaoBanCode", ForestStand::getXiaoBanCode);
+        STAND_PROPERTIES.put("standName", ForestStand::getStandName);
+        STAND_PROPERTIES.put("zoneId", ForestStand::getZoneId);
+        STAND_PROPERTIES.put("dominantSpecies", ForestStand::getDominantSpecies);
+        STAND_PROPERTIES.put("areaHa", ForestStand::getAreaHa);
+        STAND_PROPERTIES.put("volumePerHa", ForestStand::getVolumePerHa);
+        STAND_PROPERTIES.put("totalVolume", ForestStand::getTotalVolume);
+        STAND_PROPERTIES.put("standAge", ForestStand::getStandAge);
+        STAND_PROPERTIES.put("canopyDensity", ForestStand::getCanopyDensity);
+        STAND_PROPERTIES.put("avgDbh", ForestStand::getAvgDbh);
+        STAND_PROPERTIES.put("avgHeight", ForestStand::getAvgHeight);
+        STAND_PROPERTIES.put("origin", ForestStand::getOrigin);
+        STAND_PROPERTIES.put("siteClass", ForestStand::getSiteClass);
+        STAND_PROPERTIES.put("elevation", ForestStand::getElevation);
+        STAND_PROPERTIES.put("slope", ForestStand::getSlope);
+        STAND_PROPERTIES.put("aspect", ForestStand::getAspect);
+        STAND_PROPERTIES.put("surveyDate", ForestStand::getSurveyDate);
+
+        PLOT_PROPERTIES.put("plotId", SamplePlot::getPlotId);
+        PLOT_PROPERTIES.put("standId", SamplePlot::getStandId);
+        PLOT_PROPERTIES.put("plotNo", SamplePlot::getPlotNo);
+        PLOT_PROPERTIES.put("plotAreaHa", SamplePlot::getPlotAreaHa);
+        PLOT_PROPERTIES.put("totalTrees", SamplePlot::getTotalTrees);
+        PLOT_PROPERTIES.put("avgDbh", SamplePlot::getAvgDbh);
+        PLOT_PROPERTIES.put("avgHeight", SamplePlot::getAvgHeight);
+        PLOT_PROPERTIES.put("canopyDensity", SamplePlot::getCanopyDensity);
+        PLOT_PROPERTIES.put("totalVolume", SamplePlot::getTotalVolume);
+        PLOT_PROPERTIES.put("volumePerHa", SamplePlot::getVolumePerHa);
+        PLOT_PROPERTIES.put("elevation", SamplePlot::getElevation);
+        PLOT_PROPERTIES.put("surveyDate", SamplePlot::getSurveyDate);
+
+        ZONE_PROPERTIES.put("zoneId", ForestZone::getZoneId);
+        ZONE_PROPERTIES.put("zoneName", ForestZone::getZoneName);
+        ZONE_PROPERTIES.put("totalAreaHa", ForestZone::getTotalAreaHa);
+        ZONE_PROPERTIES.put("forestAreaHa", ForestZone::getForestAreaHa);
+    }
+
+    private final ForestStandMapper standMapper;
+    private final SamplePlotMapper plotMapper;
+    private final BoundaryMapper boundaryMapper;
+
+    // 每写出多少个要素刷新一次输出流，让客户端尽早渲染
+    @Value("${forest.features.flush-every:200}")
+    private int flushEvery;
+
+    @Override
+    public boolean supportsLayer(String layer) {
+        return "stands".equals(layer) || "plots".equals(layer) || "zones".equals(layer);
+    }
+
+    /**
+     * Cursor 需要在同一个连接上遍历，整个写出过程放在只读事务内
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int writeFeatures(String layer, FeatureQueryDTO query, OutputStream out) throws IOException {
+        double[] bbox = query.getBbox();
+        Double minLon = bbox != null ? bbox[0] : null;
+        Double minLat = bbox != null ? bbox[1] : null;
+        Double maxLon = bbox != null ? bbox[2] : null;
+        Double maxLat = bbox != null ? bbox[3] : null;
+        Integer level = query.getLodLevel();
+
+        return switch (layer) {
+            case "stands" -> {
+                if (level == null) {
+                    try (Cursor<ForestStand> cursor = standMapper.cursorInExtent(minLon, maxLon, minLat, maxLat)) {
+                        yield write(cursor, selectProperties(STAND_PROPERTIES, query.getProperties()),
+                                ForestStand::getStandId, pointGeometry(ForestStand::getCenterLon, ForestStand::getCenterLat),
+                                query, out);
+                    }
+                }
+                try (Cursor<ForestStand> cursor = boundaryMapper.cursorStandBoundaries(level, minLon, maxLon, minLat, maxLat)) {
+                    yield write(cursor, selectProperties(STAND_PROPERTIES, query.getProperties()),
+                            ForestStand::getStandId, (gen, row, scale) -> GeoJsonWriter.writeGeometry(gen, row.getBoundary(), scale),
+                            query, out);
+                }
+            }
+            case "plots" -> {
+                try (Cursor<SamplePlot> cursor = plotMapper.cursorInExtent(minLon, maxLon, minLat, maxLat)) {
+                    yield write(cursor, selectProperties(PLOT_PROPERTIES, query.getProperties()),
+                            SamplePlot::getPlotId, pointGeometry(SamplePlot::getLongitudeDd, SamplePlot::getLatitudeDd),
+                            query, out);
+                }
+            }
+            case "zones" -> {
+                // 林场只有边界，未指定层级时输出原始边界
+                try (Cursor<ForestZone> cursor = boundaryMapper.cursorZoneBoundaries(level != null ? level : 0,
+                        minLon, maxLon, minLat, maxLat)) {
+                    yield write(cursor, selectProperties(ZONE_PROPERTIES, query.getProperties()),
+                            ForestZone::getZoneId, (gen, row, scale) -> GeoJsonWriter.writeGeometry(gen, row.getBoundary(), scale),
+                            query, out);
+                }
+            }
+            default -> throw new RuntimeException("不支持的图层: " + layer);
+        };
+    }
+
+    private <T> int write(Iterable<T> rows,
+                          Map<String, Function<T, Object>> props,
+                          Function<T, Integer> idGetter,
+                          GeometryWriter<T> geometryWriter,
+                          FeatureQueryDTO query,
+                          OutputStream out) throws IOException {
+        boolean sequence = query.isSequence();
+        double scale = Math.pow(10, query.getPrecision());
+        int count = 0;
+
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            if (sequence) {
+                gen.setRootValueSeparator(null);
+            } else {
+                gen.writeStartObject();
+                gen.writeStringField("type", "FeatureCollection");
+                gen.writeArrayFieldStart("features");
+            }
+
+            for (T row : rows) {
+                if (sequence) {
+                    gen.writeRaw(RECORD_SEPARATOR);
+                }
+
+                gen.writeStartObject();
+                gen.writeStringField("type", "Feature");
+                Integer id = idGetter.apply(row);
+                if (id != null) {
+                    gen.writeNumberField("id", id);
+                }
+
+                gen.writeFieldName("geometry");
+                geometryWriter.write(gen, row, scale);
+
+                gen.writeObjectFieldStart("properties");
+                for (Map.Entry<String, Function<T, Object>> prop : props.entrySet()) {
+                    writeValue(gen, prop.getKey(), prop.getValue().apply(row));
+                }
+                gen.writeEndObject();
+
+                gen.writeEndObject();
+                if (sequence) {
+                    gen.writeRaw('\n');
+                }
+
+                if (++count % flushEvery == 0) {
+                    gen.flush();
+                }
+            }
+
+            if (!sequence) {
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        }
+
+        log.info("要素流式输出完成, 数量: {}", count);
+        return count;
+    }
+
+    private <T> GeometryWriter<T> pointGeometry(Function<T, Double> lonGetter, Function<T, Double> latGetter) {
+        return (gen, row, scale) -> {
+            Double lon = lonGetter.apply(row);
+            Double lat = latGetter.apply(row);
+            if (lon == null || lat == null) {
+                gen.writeNull();
+            } else {
+                GeoJsonWriter.writePoint(gen, lon, lat, scale);
+            }
+        };
+    }
+
+    private <T> Map<String, Function<T, Object>> selectProperties(Map<String, Function<T, Object>> all,
+                                                                  Set<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return all;
+        }
+        Map<String, Function<T, Object>> selected = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<T, Object>> entry : all.entrySet()) {
+            if (requested.contains(entry.getKey())) {
+                selected.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return selected.isEmpty() ? Collections.emptyMap() : selected;
+    }
+
+    private void writeValue(JsonGenerator gen, String name, Object value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else if (value instanceof Integer i) {
+            gen.writeNumberField(name, i);
+        } else if (value instanceof Double d) {
+            gen.writeNumberField(name, d);
+        } else {
+            gen.writeStringField(name, value.toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeometryWriter<T> {
+        void write(JsonGenerator gen, T row, double scale) throws IOException;
+    }
+}
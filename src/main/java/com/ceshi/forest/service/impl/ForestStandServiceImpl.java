@@ -1,13 +1,17 @@
 package com.ceshi.forest.service.impl;
 
+import com.ceshi.forest.converter.StandConverter;
 import com.ceshi.forest.dto.StandDTO;
 import com.ceshi.forest.dto.StatisticsDTO;
 import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.event.DataChangeEvent;
 import com.ceshi.forest.mapper.ForestStandMapper;
+import com.ceshi.forest.service.DataVersionService;
 import com.ceshi.forest.service.ForestStandService;
+import com.ceshi.forest.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,38 +26,45 @@ import java.util.stream.Collectors;
 public class ForestStandServiceImpl implements ForestStandService {
 
     private final ForestStandMapper standMapper;
+    private final StandConverter standConverter;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<StandDTO> getAllStands() {
-        return standMapper.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorUtil.mapToList(standMapper.cursorAll(), standConverter::toDTO);
     }
 
     @Override
     public StandDTO getStandById(Integer id) {
-        ForestStand stand = standMapper.findById(id);
+        StandDTO stand = findStandById(id);
         if (stand == null) {
             throw new RuntimeException("林分不存在: " + id);
         }
-        return convertToDTO(stand);
+        return stand;
     }
 
     @Override
-    public List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters) {
-        return standMapper.findNearbyStands(lon, lat, radiusMeters).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public StandDTO findStandById(Integer id) {
+        ForestStand stand = standMapper.findById(id);
+        return stand != null ? standConverter.toDTO(stand) : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters, Integer k) {
+        return standConverter.toDTOList(standMapper.findNearbyStands(lon, lat, radiusMeters, k));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<StandDTO> getHighValueStands(Double minVolumePerHa) {
-        return standMapper.findByVolumePerHaGreaterThan(minVolumePerHa).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return standConverter.toDTOList(standMapper.findByVolumePerHaGreaterThan(minVolumePerHa));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<StatisticsDTO> getSpeciesStatistics() {
         return standMapper.getStatisticsBySpecies();
     }
@@ -61,8 +72,7 @@ public class ForestStandServiceImpl implements ForestStandService {
     @Override
     @Transactional
     public StandDTO createStand(StandDTO dto, String operator) {
-        ForestStand entity = new ForestStand();
-        BeanUtils.copyProperties(dto, entity);
+        ForestStand entity = standConverter.toEntity(dto);
 
         entity.setStandId(null);
         entity.setSurveyDate(LocalDate.now());
@@ -77,10 +87,12 @@ public class ForestStandServiceImpl implements ForestStandService {
         }
 
         standMapper.insert(entity);
+        dataVersionService.bump(DataVersionService.TABLE_STAND);
+        eventPublisher.publishEvent(DataChangeEvent.inserted(DataVersionService.TABLE_STAND, entity.getStandId(), entity));
 
         log.info("创建林分成功: id={}", entity.getStandId());
 
-        return convertToDTO(entity);
+        return standConverter.toDTO(entity);
     }
 
     @Override
@@ -91,10 +103,11 @@ public class ForestStandServiceImpl implements ForestStandService {
             throw new RuntimeException("林分不存在: " + dto.getStandId());
         }
 
+        ForestStand before = snapshot(exist);
         LocalDateTime createTime = exist.getCreateTime();
         String createBy = exist.getCreateBy();
 
-        BeanUtils.copyProperties(dto, exist);
+        standConverter.updateEntity(dto, exist);
 
         exist.setCreateTime(createTime);
         exist.setCreateBy(createBy);
@@ -106,10 +119,12 @@ public class ForestStandServiceImpl implements ForestStandService {
         }
 
         standMapper.update(exist);
+        dataVersionService.bump(DataVersionService.TABLE_STAND);
+        eventPublisher.publishEvent(DataChangeEvent.updated(DataVersionService.TABLE_STAND, exist.getStandId(), before, exist));
 
         log.info("更新林分成功: id={}", exist.getStandId());
 
-        return convertToDTO(exist);
+        return standConverter.toDTO(exist);
     }
 
     @Override
@@ -120,11 +135,14 @@ public class ForestStandServiceImpl implements ForestStandService {
             throw new RuntimeException("林分不存在: " + id);
         }
 
+        ForestStand before = snapshot(exist);
         exist.setDeleted(true);
         exist.setUpdateTime(LocalDateTime.now());
         exist.setUpdateBy(operator);
 
         standMapper.update(exist);
+        dataVersionService.bump(DataVersionService.TABLE_STAND);
+        eventPublisher.publishEvent(DataChangeEvent.deleted(DataVersionService.TABLE_STAND, id, before));
 
         log.info("删除林分成功: id={}", id);
     }
@@ -143,54 +161,7 @@ public class ForestStandServiceImpl implements ForestStandService {
         ids.forEach(id -> deleteStand(id, operator));
     }
 
-    private StandDTO convertToDTO(ForestStand stand) {
-        StandDTO dto = new StandDTO();
-
-        // 基本信息
-        dto.setStandId(stand.getStandId());
-        dto.setStandName(stand.getStandName());
-        dto.setXiaoBanCode(stand.getXiaoBanCode());
-        dto.setAreaHa(stand.getAreaHa());
-        dto.setZoneId(stand.getZoneId());
-
-        // 树种信息
-        dto.setDominantSpecies(stand.getDominantSpecies());
-        dto.setSpeciesComposition(stand.getSpeciesComposition());
-
-        // 蓄积信息
-        dto.setVolumePerHa(stand.getVolumePerHa());
-        dto.setTotalVolume(stand.getTotalVolume());
-
-        // 林分特征
-        dto.setStandAge(stand.getStandAge());
-        dto.setCanopyDensity(stand.getCanopyDensity());
-        dto.setAvgDbh(stand.getAvgDbh());
-        dto.setAvgHeight(stand.getAvgHeight());
-
-        // 地形因子
-        dto.setElevation(stand.getElevation());
-        dto.setSlope(stand.getSlope());
-        dto.setAspect(stand.getAspect());
-        dto.setSiteType(stand.getSiteType());
-
-        // 位置信息
-        dto.setCenterLon(stand.getCenterLon());
-        dto.setCenterLat(stand.getCenterLat());
-
-        // 调查信息
-        dto.setSurveyDate(stand.getSurveyDate());
-        dto.setSurveyor(stand.getSurveyor());
-
-        // 其他
-        dto.setOrigin(stand.getOrigin());
-        dto.setSiteClass(stand.getSiteClass());
-        dto.setRemark(stand.getRemark());
-
-        // 调试日志
-        if (dto.getXiaoBanCode() == null) {
-            log.warn("转换 DTO 时 xiaoBanCode 为 null, standId={}", stand.getStandId());
-        }
-
-        return dto;
+    private ForestStand snapshot(ForestStand stand) {
+        return standConverter.copy(stand);
     }
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.ceshi.forest.dto.GridCellDTO;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.entity.GridPoint;
+import com.ceshi.forest.event.DataChangeEvent;
+import com.ceshi.forest.mapper.GridMapper;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.GridAggregationService;
+import com.ceshi.forest.util.GeometryUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 网格聚合服务实现
+ * 每个图层在首次查询时从主库游标读取并全量构建各精度的单元；林分图层之后按数据变更事件增量维护，
+ * 其余图层及批量变更时标记为过期，下次查询重建。
+ * 重建在锁外写入新的网格，完成后整体替换；重建期间查询继续使用旧网格，林分事件同时记入待重放列表，
+ * 替换前在新网格上按到达顺序重放。
+ * 林分图层按 ID 记录已计入的点，事件总是先移除该 ID 当前的点再加入新点：
+ * 重建结果已包含的提交，其事件再次应用也不会重复计入
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GridAggregationServiceImpl implements GridAggregationService {
+
+    private static final String LAYER_STANDS = "stands";
+    private static final String LAYER_PLOTS = "plots";
+    private static final String LAYER_TREES = "trees";
+
+    private static final int MIN_PRECISION = 1;
+
+    // 256 像素瓦片在 0 级时每像素对应的经度
+    private static final double DEGREES_PER_PIXEL_Z0 = 360.0 / 256;
+
+    private final GridMapper gridMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    // 游标需要事务；只读事务配合 readFromPrimary 走主库
+    private TransactionTemplate readTemplate;
+
+    // 预计算的最大 Geohash 精度（7 约 150 米）
+    @Value("${forest.grid.max-precision:7}")
+    private int maxPrecision;
+
+    // 单元在屏幕上的目标宽度（像素）
+    @Value("${forest.grid.cell-pixels:64}")
+    private int cellPixels;
+
+    private final Map<String, Layer> layers = Map.of(
+            LAYER_STANDS, new Layer(LAYER_STANDS, true),
+            LAYER_PLOTS, new Layer(LAYER_PLOTS, false),
+            LAYER_TREES, new Layer(LAYER_TREES, false));
+
+    @PostConstruct
+    public void init() {
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public List<GridCellDTO> getCells(String layer, Integer zoom, Integer precision, double[] bbox) {
+        Layer target = layers.get(layer);
+        if (target == null) {
+            throw new RuntimeException("不支持的聚合图层: " + layer);
+        }
+        int level = precision != null
+                ? Math.max(MIN_PRECISION, Math.min(precision, maxPrecision))
+                : resolvePrecision(zoom);
+
+        LayerGrid grid = ensureBuilt(target);
+
+        grid.lock.readLock().lock();
+        try {
+            List<GridCellDTO> result = new ArrayList<>();
+            for (Cell cell : grid.levels.get(level - MIN_PRECISION).values()) {
+                double lon = cell.sumLon / cell.count;
+                double lat = cell.sumLat / cell.count;
+                if (bbox != null && (lon < bbox[0] || lat < bbox[1] || lon > bbox[2] || lat > bbox[3])) {
+                    continue;
+                }
+                result.add(cell.toDTO(lon, lat));
+            }
+            return result;
+        } finally {
+            grid.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int resolvePrecision(Integer zoom) {
+        if (zoom == null) {
+            return MIN_PRECISION;
+        }
+        double target = cellPixels * DEGREES_PER_PIXEL_Z0 / Math.pow(2, Math.max(0, zoom));
+        int precision = MIN_PRECISION;
+        for (int p = MIN_PRECISION; p <= maxPrecision; p++) {
+            if (GeometryUtil.geohashCellWidth(p) >= target) {
+                precision = p;
+            }
+        }
+        return precision;
+    }
+
+    /**
+     * 事务提交后增量维护；未提交事务的变更不会进入聚合
+     * 样地和单木没有逐条写入的服务，只会收到批量事件（如林分重新定位），因此这两个图层只做整体重建
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        switch (event.getTable()) {
+            case DataVersionService.TABLE_STAND -> onStandChange(event);
+            case DataVersionService.TABLE_PLOT -> layers.get(LAYER_PLOTS).dirty = true;
+            case DataVersionService.TABLE_TREE -> layers.get(LAYER_TREES).dirty = true;
+            default -> {
+            }
+        }
+    }
+
+    private void onStandChange(DataChangeEvent event) {
+        Layer layer = layers.get(LAYER_STANDS);
+        if (event.getOperation() == DataChangeEvent.Operation.BULK) {
+            layer.dirty = true;
+            layers.get(LAYER_PLOTS).dirty = true;
+            return;
+        }
+
+        ForestStand before = (ForestStand) event.getBefore();
+        ForestStand after = (ForestStand) event.getAfter();
+
+        // 样地的树种取自林分，优势树种变化时样地图层需要重建
+        String beforeSpecies = before != null ? before.getDominantSpecies() : null;
+        String afterSpecies = after != null ? after.getDominantSpecies() : null;
+        if (!Objects.equals(beforeSpecies, afterSpecies)) {
+            layers.get(LAYER_PLOTS).dirty = true;
+        }
+
+        Integer id = after != null ? after.getStandId() : before != null ? before.getStandId() : event.getId();
+        if (id == null) {
+            layer.dirty = true;
+            return;
+        }
+        layer.apply(new PendingPoint(id, after != null ? toPoint(after) : null));
+    }
+
+    /**
+     * 返回可查询的网格；过期时由一个线程在锁外重建，其余线程在已有旧网格时直接使用旧网格
+     */
+    private LayerGrid ensureBuilt(Layer layer) {
+        LayerGrid current = layer.grid;
+        if (current != null && !layer.dirty) {
+            return current;
+        }
+        if (current != null) {
+            if (!layer.buildLock.tryLock()) {
+                return current;
+            }
+        } else {
+            layer.buildLock.lock();
+        }
+        try {
+            if (layer.grid != null && !layer.dirty) {
+                return layer.grid;
+            }
+            // 先清除标记，构建期间到达的批量事件会再次置为过期
+            layer.dirty = false;
+            layer.startRebuild();
+
+            long start = System.currentTimeMillis();
+            LayerGrid fresh = new LayerGrid(maxPrecision - MIN_PRECISION + 1, layer.incremental);
+            Integer count = ReplicaRoutingDataSource.readFromPrimary(
+                    () -> readTemplate.execute(status -> load(layer.name, fresh)));
+            layer.install(fresh);
+            log.info("网格聚合已构建: {}, 点数: {}, 耗时: {}ms",
+                    layer.name, count, System.currentTimeMillis() - start);
+            return fresh;
+        } catch (RuntimeException e) {
+            layer.abortRebuild();
+            layer.dirty = true;
+            throw e;
+        } finally {
+            layer.buildLock.unlock();
+        }
+    }
+
+    /**
+     * 向尚未发布的网格加载全部点，无需加锁
+     */
+    private int load(String name, LayerGrid grid) {
+        int count = 0;
+        try (Cursor<GridPoint> points = switch (name) {
+            case LAYER_STANDS -> gridMapper.cursorStandPoints();
+            case LAYER_PLOTS -> gridMapper.cursorPlotPoints();
+            default -> gridMapper.cursorTreePoints();
+        }) {
+            for (GridPoint point : points) {
+                grid.add(point);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭游标失败", e);
+        }
+        return count;
+    }
+
+    private GridPoint toPoint(ForestStand stand) {
+        // 已删除的林分不参与聚合
+        if (Boolean.TRUE.equals(stand.getDeleted())) {
+            return null;
+        }
+        GridPoint point = new GridPoint();
+        point.setId(stand.getStandId());
+        point.setLon(stand.getCenterLon());
+        point.setLat(stand.getCenterLat());
+        point.setVolume(stand.getTotalVolume());
+        point.setSpecies(stand.getDominantSpecies());
+        return point;
+    }
+
+    /**
+     * 一个 ID 对应的新点，point 为空表示移除
+     */
+    private record PendingPoint(Integer id, GridPoint point) {
+    }
+
+    /**
+     * 图层：当前发布的网格及其重建状态
+     */
+    private static class Layer {
+        private final String name;
+        private final boolean incremental;
+        private volatile LayerGrid grid;
+        private volatile boolean dirty = true;
+        // 同一时间只允许一个线程重建
+        private final ReentrantLock buildLock = new ReentrantLock();
+        // 保护 pending 与 grid 的替换，保证重建期间的事件不会丢失
+        private final ReentrantLock changeLock = new ReentrantLock();
+        private List<PendingPoint> pending;
+
+        Layer(String name, boolean incremental) {
+            this.name = name;
+            this.incremental = incremental;
+        }
+
+        void startRebuild() {
+            if (!incremental) {
+                return;
+            }
+            changeLock.lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                changeLock.unlock();
+            }
+        }
+
+        void abortRebuild() {
+            changeLock.lock();
+            try {
+                pending = null;
+            } finally {
+                changeLock.unlock();
+            }
+        }
+
+        /**
+         * 在新网格上重放重建期间的事件后发布
+         */
+        void install(LayerGrid fresh) {
+            changeLock.lock();
+            try {
+                if (pending != null) {
+                    pending.forEach(change -> fresh.replace(change.id(), change.point()));
+                    pending = null;
+                }
+                grid = fresh;
+            } finally {
+                changeLock.unlock();
+            }
+        }
+
+        /**
+         * 应用一条增量变更：写入当前网格，重建进行中时同时记入待重放列表
+         */
+        void apply(PendingPoint change) {
+            changeLock.lock();
+            try {
+                if (pending != null) {
+                    pending.add(change);
+                }
+                LayerGrid current = grid;
+                if (current != null) {
+                    current.lock.writeLock().lock();
+                    try {
+                        current.replace(change.id(), change.point());
+                    } finally {
+                        current.lock.writeLock().unlock();
+                    }
+                }
+            } finally {
+                changeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 一次构建得到的各精度聚合结果；发布后的修改需持有写锁
+     */
+    private static class LayerGrid {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Map<String, Cell>> levels;
+        // 增量维护的图层按 ID 记录已计入的点
+        private final Map<Integer, GridPoint> points;
+
+        LayerGrid(int levelCount, boolean incremental) {
+            List<Map<String, Cell>> fresh = new ArrayList<>(levelCount);
+            for (int i = 0; i < levelCount; i++) {
+                fresh.add(new HashMap<>());
+            }
+            this.levels = fresh;
+            this.points = incremental ? new HashMap<>() : null;
+        }
+
+        /**
+         * 构建时加入一个点
+         */
+        void add(GridPoint point) {
+            if (points != null && point.getId() != null) {
+                replace(point.getId(), point);
+            } else {
+                apply(point, 1);
+            }
+        }
+
+        /**
+         * 用新点替换该 ID 当前计入的点（point 为空表示移除），重复调用结果不变
+         */
+        void replace(Integer id, GridPoint point) {
+            GridPoint current = points.remove(id);
+            if (current != null) {
+                apply(current, -1);
+            }
+            if (point != null && point.getLon() != null && point.getLat() != null) {
+                apply(point, 1);
+                points.put(id, point);
+            }
+        }
+
+        /**
+         * 加入（sign = 1）或移除（sign = -1）一个点
+         */
+        void apply(GridPoint point, int sign) {
+            if (point == null || point.getLon() == null || point.getLat() == null) {
+                return;
+            }
+            String fullHash = GeometryUtil.geohash(point.getLon(), point.getLat(), MIN_PRECISION + levels.size() - 1);
+            for (int i = 0; i < levels.size(); i++) {
+                String hash = fullHash.substring(0, MIN_PRECISION + i);
+                Map<String, Cell> cells = levels.get(i);
+                Cell cell = cells.computeIfAbsent(hash, Cell::new);
+                cell.apply(point, sign);
+                if (cell.count <= 0) {
+                    cells.remove(hash);
+                }
+            }
+        }
+    }
+
+    private static class Cell {
+        private final String geohash;
+        private int count;
+        private double totalVolume;
+        private double sumLon;
+        private double sumLat;
+        private final Map<String, Integer> speciesCounts = new HashMap<>();
+
+        Cell(String geohash) {
+            this.geohash = geohash;
+        }
+
+        void apply(GridPoint point, int sign) {
+            count += sign;
+            totalVolume += sign * (point.getVolume() != null ? point.getVolume() : 0);
+            sumLon += sign * point.getLon();
+            sumLat += sign * point.getLat();
+            if (point.getSpecies() != null) {
+                speciesCounts.merge(point.getSpecies(), sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+
+        GridCellDTO toDTO(double lon, double lat) {
+            GridCellDTO dto = new GridCellDTO();
+            dto.setGeohash(geohash);
+            dto.setCount(count);
+            dto.setTotalVolume(Math.round(totalVolume * 100) / 100.0);
+            dto.setCentroidLon(lon);
+            dto.setCentroidLat(lat);
+            dto.setDominantSpecies(speciesCounts.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null));
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.dto.RecordingDTO;
+import com.ceshi.forest.profiling.CacheLoadEvent;
+import com.ceshi.forest.profiling.ExportJobEvent;
+import com.ceshi.forest.profiling.MapperCallEvent;
+import com.ceshi.forest.profiling.ProxyCallEvent;
+import com.ceshi.forest.service.ProfilingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * JFR 性能录制实现
+ * 除 JDK 自带配置外，统一开启自定义事件（缓存加载、Mapper 调用、导出任务、代理调用）和锁等待事件。
+ * 注意 JFR 同时运行多个录制时事件设置取并集，按需录制期间常驻录制也会按较低阈值记录
+ */
+@Slf4j
+@Service
+public class ProfilingServiceImpl implements ProfilingService {
+
+    private static final String TYPE_ON_DEMAND = "ON_DEMAND";
+    private static final String TYPE_DUMP = "DUMP";
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_DONE = "DONE";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private static final String CONTINUOUS_NAME = "forest-continuous";
+
+    // 锁等待相关事件：synchronized 竞争、LockSupport.park（ReentrantLock 等）、虚拟线程被钉住（JDK 21+，低版本忽略）
+    private static final List<String> LOCK_EVENTS = List.of(
+            "jdk.JavaMonitorEnter", "jdk.ThreadPark", "jdk.VirtualThreadPinned");
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Map<String, RecordingEntry> entries = new ConcurrentHashMap<>();
+    private final Object lifecycleLock = new Object();
+    private volatile Recording continuous;
+
+    @Value("${forest.profiling.dir:${java.io.tmpdir}/forest-jfr}")
+    private String profilingDir;
+
+    @Value("${forest.profiling.default-duration-seconds:60}")
+    private long defaultDurationSeconds;
+
+    @Value("${forest.profiling.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+
+    // 按需录制的磁盘缓冲上限（MB），超出后丢弃最早的数据
+    @Value("${forest.profiling.max-size-mb:256}")
+    private long maxSizeMb;
+
+    @Value("${forest.profiling.retention-minutes:1440}")
+    private long retentionMinutes;
+
+    // 自定义事件的记录阈值（毫秒），低于阈值的调用不写入录制
+    @Value("${forest.profiling.threshold.cache-load-ms:5}")
+    private long cacheLoadThresholdMs;
+
+    @Value("${forest.profiling.threshold.mapper-ms:20}")
+    private long mapperThresholdMs;
+
+    @Value("${forest.profiling.threshold.proxy-ms:50}")
+    private long proxyThresholdMs;
+
+    @Value("${forest.profiling.threshold.lock-ms:10}")
+    private long lockThresholdMs;
+
+    @Value("${forest.profiling.continuous.enabled:true}")
+    private boolean continuousEnabledOnStartup;
+
+    @Value("${forest.profiling.continuous.max-age-minutes:30}")
+    private long continuousMaxAgeMinutes;
+
+    @Value("${forest.profiling.continuous.max-size-mb:200}")
+    private long continuousMaxSizeMb;
+
+    // 常驻录制的锁等待阈值，比按需录制高以降低开销
+    @Value("${forest.profiling.continuous.lock-threshold-ms:20}")
+    private long continuousLockThresholdMs;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Paths.get(profilingDir));
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("当前 JVM 不支持 JFR，性能录制不可用");
+            return;
+        }
+        // 提前注册自定义事件，录制开始前就能在 JMC 的事件列表中看到
+        FlightRecorder.register(CacheLoadEvent.class);
+        FlightRecorder.register(MapperCallEvent.class);
+        FlightRecorder.register(ExportJobEvent.class);
+        FlightRecorder.register(ProxyCallEvent.class);
+        if (continuousEnabledOnStartup) {
+            setContinuousEnabled(true);
+        }
+        log.info("性能录制目录: {}, 常驻录制: {}", profilingDir, continuousEnabledOnStartup);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 停止时写出仍在进行的按需录制，避免丢失
+        entries.values().forEach(entry -> {
+            stopQuietly(entry);
+            refresh(entry);
+        });
+        setContinuousEnabled(false);
+    }
+
+    @Override
+    public RecordingDTO start(String settings, Integer durationSeconds, Integer lockThresholdMs) {
+        requireAvailable();
+        String normalizedSettings = normalizeSettings(settings);
+        long duration = durationSeconds != null ? durationSeconds : defaultDurationSeconds;
+        if (duration <= 0 || duration > maxDurationSeconds) {
+            throw new RuntimeException("录制时长需在 1-" + maxDurationSeconds + " 秒之间");
+        }
+        long lockThreshold = lockThresholdMs != null ? lockThresholdMs : this.lockThresholdMs;
+        if (lockThreshold < 0) {
+            throw new RuntimeException("锁等待阈值不能为负数");
+        }
+
+        synchronized (lifecycleLock) {
+            for (RecordingEntry entry : entries.values()) {
+                refresh(entry);
+                if (TYPE_ON_DEMAND.equals(entry.type) && STATUS_RUNNING.equals(entry.status)) {
+                    throw new RuntimeException("已有正在进行的录制: " + entry.id);
+                }
+            }
+
+            RecordingEntry entry = newEntry(TYPE_ON_DEMAND, normalizedSettings);
+            entry.durationSeconds = duration;
+            Recording recording = new Recording(loadConfiguration(normalizedSettings));
+            try {
+                recording.setName("forest-" + entry.id);
+                recording.setToDisk(true);
+                recording.setMaxSize(maxSizeMb * 1024 * 1024);
+                // 设置了目标文件后，无论到时自动停止还是手动停止都会写出
+                recording.setDestination(entry.file);
+                recording.setDuration(Duration.ofSeconds(duration));
+                enableEvents(recording, lockThreshold);
+                recording.start();
+            } catch (IOException | RuntimeException e) {
+                recording.close();
+                throw new RuntimeException("开始录制失败: " + e.getMessage(), e);
+            }
+            entry.recording = recording;
+            entries.put(entry.id, entry);
+            log.info("开始性能录制: id={}, 配置: {}, 时长: {}s, 锁等待阈值: {}ms",
+                    entry.id, normalizedSettings, duration, lockThreshold);
+            return toDTO(entry);
+        }
+    }
+
+    @Override
+    public RecordingDTO stop(String id) {
+        RecordingEntry entry = requireEntry(id);
+        stopQuietly(entry);
+        refresh(entry);
+        log.info("停止性能录制: id={}, 状态: {}", id, entry.status);
+        return toDTO(entry);
+    }
+
+    @Override
+    public RecordingDTO getRecording(String id) {
+        RecordingEntry entry = requireEntry(id);
+        refresh(entry);
+        return toDTO(entry);
+    }
+
+    @Override
+    public List<RecordingDTO> listRecordings() {
+        entries.values().forEach(this::refresh);
+        return entries.values().stream()
+                .sorted(Comparator.comparing((RecordingEntry entry) -> entry.startTime).reversed())
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Override
+    public Path getRecordingFile(String id) {
+        RecordingEntry entry = requireEntry(id);
+        refresh(entry);
+        if (!STATUS_DONE.equals(entry.status)) {
+            throw new RuntimeException("录制尚未完成: " + id);
+        }
+        if (!Files.exists(entry.file)) {
+            throw new RuntimeException("录制文件已被清理: " + id);
+        }
+        return entry.file;
+    }
+
+    @Override
+    public RecordingDTO dumpContinuous() {
+        Recording recording = continuous;
+        if (recording == null) {
+            throw new RuntimeException("常驻录制未开启");
+        }
+
+        RecordingEntry entry = newEntry(TYPE_DUMP, "default");
+        Instant windowStart = Instant.now().minus(Duration.ofMinutes(continuousMaxAgeMinutes));
+        Instant startedAt = recording.getStartTime();
+        if (startedAt != null && startedAt.isAfter(windowStart)) {
+            windowStart = startedAt;
+        }
+        entry.startTime = LocalDateTime.ofInstant(windowStart, ZoneId.systemDefault());
+
+        try {
+            recording.dump(entry.file);
+            entry.fileSize = Files.size(entry.file);
+            entry.status = STATUS_DONE;
+        } catch (IOException | IllegalStateException e) {
+            log.error("导出常驻录制失败: {}", e.getMessage(), e);
+            entry.status = STATUS_FAILED;
+            entry.errorMessage = e.getMessage();
+        }
+        entry.stopTime = LocalDateTime.now();
+        entries.put(entry.id, entry);
+        log.info("导出常驻录制: id={}, 大小: {} bytes", entry.id, entry.fileSize);
+        return toDTO(entry);
+    }
+
+    @Override
+    public void setContinuousEnabled(boolean enabled) {
+        synchronized (lifecycleLock) {
+            if (enabled && continuous == null) {
+                requireAvailable();
+                Recording recording = new Recording(loadConfiguration("default"));
+                recording.setName(CONTINUOUS_NAME);
+                recording.setToDisk(true);
+                recording.setMaxAge(Duration.ofMinutes(continuousMaxAgeMinutes));
+                recording.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+                enableEvents(recording, continuousLockThresholdMs);
+                recording.start();
+                continuous = recording;
+                log.info("常驻录制已开启, 保留: {} 分钟, 上限: {} MB", continuousMaxAgeMinutes, continuousMaxSizeMb);
+            } else if (!enabled && continuous != null) {
+                continuous.close();
+                continuous = null;
+                log.info("常驻录制已关闭");
+            }
+        }
+    }
+
+    @Override
+    public boolean isContinuousEnabled() {
+        return continuous != null;
+    }
+
+    /**
+     * 定时清理过期录制文件（包括重启前遗留的文件）
+     */
+    @Scheduled(fixedDelayString = "${forest.profiling.cleanup-interval-ms:600000}")
+    public void cleanupExpiredRecordings() {
+        LocalDateTime expireBefore = LocalDateTime.now().minusMinutes(retentionMinutes);
+        entries.values().removeIf(entry -> {
+            refresh(entry);
+            if (entry.stopTime == null || entry.stopTime.isAfter(expireBefore)) {
+                return false;
+            }
+            deleteQuietly(entry.file);
+            log.info("清理过期性能录制: id={}", entry.id);
+            return true;
+        });
+
+        Instant fileExpireBefore = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        try (Stream<Path> files = Files.list(Paths.get(profilingDir))) {
+            files.filter(file -> file.getFileName().toString().endsWith(".jfr"))
+                    .filter(file -> entries.values().stream().noneMatch(entry -> entry.file.equals(file)))
+                    .filter(file -> isModifiedBefore(file, fileExpireBefore))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("清理性能录制目录失败: {}", e.getMessage());
+        }
+    }
+
+    private void enableEvents(Recording recording, long lockThreshold) {
+        recording.enable(CacheLoadEvent.class).withThreshold(Duration.ofMillis(cacheLoadThresholdMs));
+        recording.enable(MapperCallEvent.class).withThreshold(Duration.ofMillis(mapperThresholdMs));
+        recording.enable(ProxyCallEvent.class).withThreshold(Duration.ofMillis(proxyThresholdMs));
+        recording.enable(ExportJobEvent.class).withoutThreshold();
+        for (String name : LOCK_EVENTS) {
+            recording.enable(name).withThreshold(Duration.ofMillis(lockThreshold)).withStackTrace();
+        }
+    }
+
+    /**
+     * 按需录制到时会被 JFR 自动停止，查询时同步状态并释放录制占用的缓冲
+     */
+    private void refresh(RecordingEntry entry) {
+        synchronized (entry) {
+            Recording recording = entry.recording;
+            if (recording == null) {
+                return;
+            }
+            RecordingState state = recording.getState();
+            if (state != RecordingState.STOPPED && state != RecordingState.CLOSED) {
+                return;
+            }
+
+            Instant stoppedAt = recording.getStopTime();
+            entry.stopTime = stoppedAt != null
+                    ? LocalDateTime.ofInstant(stoppedAt, ZoneId.systemDefault())
+                    : LocalDateTime.now();
+            if (Files.exists(entry.file)) {
+                entry.status = STATUS_DONE;
+                entry.fileSize = sizeQuietly(entry.file);
+            } else {
+                entry.status = STATUS_FAILED;
+                entry.errorMessage = "录制文件未生成";
+            }
+            recording.close();
+            entry.recording = null;
+        }
+    }
+
+    private void stopQuietly(RecordingEntry entry) {
+        synchronized (entry) {
+            Recording recording = entry.recording;
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                return;
+            }
+            try {
+                recording.stop();
+            } catch (IllegalStateException e) {
+                // 与到时自动停止并发，已经停止
+                log.debug("录制已停止: id={}", entry.id);
+            }
+        }
+    }
+
+    private RecordingEntry newEntry(String type, String settings) {
+        String id = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        LocalDateTime now = LocalDateTime.now();
+        String fileName = "forest-" + FILE_TIME.format(now) + "-" + id + ".jfr";
+        return new RecordingEntry(id, type, settings, Paths.get(profilingDir, fileName), now);
+    }
+
+    private RecordingEntry requireEntry(String id) {
+        RecordingEntry entry = entries.get(id);
+        if (entry == null) {
+            throw new RuntimeException("录制不存在: " + id);
+        }
+        return entry;
+    }
+
+    private void requireAvailable() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new RuntimeException("当前 JVM 不支持 JFR");
+        }
+    }
+
+    private String normalizeSettings(String settings) {
+        String lower = settings == null ? "default" : settings.toLowerCase();
+        return switch (lower) {
+            case "default" -> "default";
+            case "profile" -> "profile";
+            default -> throw new RuntimeException("不支持的录制配置: " + settings);
+        };
+    }
+
+    private Configuration loadConfiguration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("加载 JFR 配置失败: " + settings, e);
+        }
+    }
+
+    private boolean isModifiedBefore(Path file, Instant before) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(before);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private long sizeQuietly(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除录制文件失败: {}", file);
+        }
+    }
+
+    private RecordingDTO toDTO(RecordingEntry entry) {
+        RecordingDTO dto = new RecordingDTO();
+        dto.setId(entry.id);
+        dto.setType(entry.type);
+        dto.setSettings(entry.settings);
+        dto.setStatus(entry.status);
+        dto.setStartTime(entry.startTime);
+        dto.setStopTime(entry.stopTime);
+        dto.setDurationSeconds(entry.durationSeconds);
+        dto.setFileName(entry.file.getFileName().toString());
+        dto.setFileSize(entry.fileSize);
+        dto.setErrorMessage(entry.errorMessage);
+        if (STATUS_DONE.equals(entry.status)) {
+            dto.setDownloadUrl("/api/admin/profiling/recordings/" + entry.id + "/download");
+        }
+        return dto;
+    }
+
+    /**
+     * 录制记录；按需录制在停止前持有 Recording
+     */
+    private static class RecordingEntry {
+        private final String id;
+        private final String type;
+        private final String settings;
+        private final Path file;
+
+        private volatile Recording recording;
+        private volatile String status = STATUS_RUNNING;
+        private volatile LocalDateTime startTime;
+        private volatile LocalDateTime stopTime;
+        private volatile Long durationSeconds;
+        private volatile Long fileSize;
+        private volatile String errorMessage;
+
+        RecordingEntry(String id, String type, String settings, Path file, LocalDateTime startTime) {
+            this.id = id;
+            this.type = type;
+            this.settings = settings;
+            this.file = file;
+            this.startTime = startTime;
+        }
+    }
+}
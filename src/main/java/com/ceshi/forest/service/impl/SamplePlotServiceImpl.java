@@ -1,17 +1,19 @@
 package com.ceshi.forest.service.impl;
 
+import com.ceshi.forest.converter.PlotConverter;
 import com.ceshi.forest.dto.PlotDTO;
 import com.ceshi.forest.entity.SamplePlot;
 import com.ceshi.forest.mapper.SamplePlotMapper;
 import com.ceshi.forest.mapper.TreeMeasurementMapper;
 import com.ceshi.forest.service.SamplePlotService;
+import com.ceshi.forest.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 样地服务实现类
@@ -22,12 +24,12 @@ public class SamplePlotServiceImpl implements SamplePlotService {
 
     private final SamplePlotMapper plotMapper;
     private final TreeMeasurementMapper treeMapper;
+    private final PlotConverter plotConverter;
 
     @Override
+    @Transactional(readOnly = true)
     public List<PlotDTO> getAllPlots() {
-        return plotMapper.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorUtil.mapToList(plotMapper.cursorAll(), plotConverter::toDTO);
     }
 
     @Override
@@ -36,24 +38,29 @@ public class SamplePlotServiceImpl implements SamplePlotService {
         if (plot == null) {
             throw new RuntimeException("样地不存在");
         }
-        return convertToDTO(plot);
+        return plotConverter.toDTO(plot);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PlotDTO> getPlotsByStandId(Integer standId) {
-        return plotMapper.findByStandId(standId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return plotConverter.toDTOList(plotMapper.findByStandId(standId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PlotDTO> getHighVolumePlots(Double minVolumePerHa) {
-        return plotMapper.findByVolumePerHaGreaterThan(minVolumePerHa).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return plotConverter.toDTOList(plotMapper.findByVolumePerHaGreaterThan(minVolumePerHa));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<PlotDTO> getNearbyPlots(Double lon, Double lat, Integer radiusMeters, Integer k) {
+        return plotConverter.toDTOList(plotMapper.findNearbyPlots(lon, lat, radiusMeters, k));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getPlotStatistics(Integer standId) {
         Object[] stats = plotMapper.getPlotStatisticsByStandId(standId);
         Map<String, Object> result = new HashMap<>();
@@ -96,28 +103,4 @@ public class SamplePlotServiceImpl implements SamplePlotService {
 
         return result;
     }
-
-    private PlotDTO convertToDTO(SamplePlot plot) {
-        PlotDTO dto = new PlotDTO();
-        dto.setPlotId(plot.getPlotId());
-        dto.setStandId(plot.getStandId());
-        dto.setStandName("");
-        dto.setPlotNo(plot.getPlotNo());
-        dto.setPlotAreaHa(plot.getPlotAreaHa());
-        dto.setPlotAreaM2(plot.getPlotAreaM2());
-        dto.setSurveyDate(plot.getSurveyDate() != null ? plot.getSurveyDate().toString() : null);
-        dto.setLongitudeDd(plot.getLongitudeDd());
-        dto.setLatitudeDd(plot.getLatitudeDd());
-        dto.setElevation(plot.getElevation());
-        dto.setSlope(plot.getSlope());
-        dto.setAspect(plot.getAspect());
-        dto.setTotalTrees(plot.getTotalTrees());
-        dto.setAvgDbh(plot.getAvgDbh());
-        dto.setAvgHeight(plot.getAvgHeight());
-        dto.setCanopyDensity(plot.getCanopyDensity());
-        dto.setTotalVolume(plot.getTotalVolume());
-        dto.setVolumePerHa(plot.getVolumePerHa());
-        dto.setSurveyor(plot.getSurveyor());
-        return dto;
-    }
 }
\ No newline at end of file
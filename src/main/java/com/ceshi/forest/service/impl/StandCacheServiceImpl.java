@@ -1,28 +1,220 @@
 package com.ceshi.forest.service.impl;
 
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.ceshi.forest.dto.ChangeEventDTO;
 import com.ceshi.forest.dto.StandDTO;
 import com.ceshi.forest.dto.StatisticsDTO;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.event.DataChangeEvent;
+import com.ceshi.forest.event.RemoteChangeEvent;
+import com.ceshi.forest.mapper.ForestStandMapper;
 import com.ceshi.forest.service.CacheService;
+import com.ceshi.forest.service.DataVersionService;
 import com.ceshi.forest.service.StandCacheService;
 import com.ceshi.forest.service.ForestStandService;
-import lombok.RequiredArgsConstructor;
+import com.ceshi.forest.util.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 林分缓存服务实现
+ * 不存在的林分ID / 小班编码先由布隆过滤器拦截，漏过的再由短期负缓存拦截，避免反复穿透到数据库。
+ * 布隆过滤器和负缓存均为本实例内存，由本实例及其他节点转发的数据变更事件维护，并定期全量重建兜底。
+ * 过滤器记录构建时的林分表版本，表版本已变化（可能有未收到的写入）时不信任其拒绝结果，回查数据库并触发重建
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class StandCacheServiceImpl implements StandCacheService {
 
+    private static final String BLOOM_ID_PREFIX = "id:";
+    private static final String BLOOM_CODE_PREFIX = "code:";
+
     private final CacheService cacheService;
     private final ForestStandService standService;
+    private final ForestStandMapper standMapper;
+    private final DataVersionService dataVersionService;
+    private final AsyncTaskExecutor cacheRefreshExecutor;
+
+    // 未构建完成前为 null，此时不做拦截
+    private volatile BloomFilter bloomFilter;
+    // 重建期间新增的键，新过滤器替换前补录，避免重建窗口内的插入被误判为不存在
+    private Set<String> pendingKeys;
+    private final Object bloomLock = new Object();
+    // 串行化全量重建（含数据库查询，不用 synchronized）
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong deletionsSinceBuild = new AtomicLong();
+    private volatile long bloomBuiltAt;
+    // 构建过滤器前读取的林分表版本
+    private volatile long bloomVersion;
+    private volatile long lastStaleRebuildAt;
+    private volatile int bloomKeyCount;
+
+    private Cache<String, Boolean> negativeCache;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong bloomRejected = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong dbMisses = new AtomicLong();
+
+    @Value("${forest.cache.bloom.enabled:true}")
+    private boolean bloomEnabled;
+
+    @Value("${forest.cache.bloom.expected-insertions:100000}")
+    private long bloomExpectedInsertions;
+
+    @Value("${forest.cache.bloom.fpp:0.001}")
+    private double bloomFpp;
+
+    // 累计删除达到该数量后后台重建（已删除的键无法从过滤器中移除）
+    @Value("${forest.cache.bloom.rebuild-after-deletions:500}")
+    private long rebuildAfterDeletions;
+
+    // 过滤器落后于表版本时触发重建的最小间隔
+    @Value("${forest.cache.bloom.stale-rebuild-interval-ms:60000}")
+    private long staleRebuildIntervalMs;
+
+    @Value("${forest.cache.negative-ttl:30}")
+    private long negativeTtlSeconds;
+
+    @Value("${forest.cache.warmup.enabled:true}")
+    private boolean warmupEnabled;
+
+    @Value("${forest.cache.warmup.keys:all,statistics:species,high-value:120}")
+    private String[] warmupKeys;
+
+    @Value("${forest.cache.warmup.concurrency:2}")
+    private int warmupConcurrency;
+
+    @Value("${forest.cache.warmup.timeout-seconds:60}")
+    private long warmupTimeoutSeconds;
+
+    public StandCacheServiceImpl(CacheService cacheService,
+                                 ForestStandService standService,
+                                 ForestStandMapper standMapper,
+                                 DataVersionService dataVersionService,
+                                 @Qualifier("cacheRefreshExecutor") AsyncTaskExecutor cacheRefreshExecutor) {
+        this.cacheService = cacheService;
+        this.standService = standService;
+        this.standMapper = standMapper;
+        this.dataVersionService = dataVersionService;
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+    }
+
+    @PostConstruct
+    public void init() {
+        negativeCache = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+    }
 
     @Override
     public StandDTO getStandById(Integer id) {
-        String key = KEY_PREFIX + "id:" + id;
-        return cacheService.getOrLoad(key, StandDTO.class, () -> standService.getStandById(id));
+        StandDTO stand = lookupStand(id);
+        if (stand == null) {
+            throw new RuntimeException("林分不存在: " + id);
+        }
+        return stand;
+    }
+
+    @Override
+    public boolean existsStand(Integer id) {
+        return lookupStand(id) != null;
+    }
+
+    @Override
+    public boolean existsXiaoBanCode(String xiaoBanCode) {
+        String negativeKey = BLOOM_CODE_PREFIX + xiaoBanCode;
+        if (isRejected(negativeKey)) {
+            return false;
+        }
+        if (standMapper.countByXiaoBanCode(xiaoBanCode) > 0) {
+            return true;
+        }
+        dbMisses.incrementAndGet();
+        negativeCache.put(negativeKey, Boolean.TRUE);
+        return false;
+    }
+
+    /**
+     * 布隆过滤器 -> 负缓存 -> 二级缓存 / 数据库；数据库也不存在时写入负缓存
+     */
+    private StandDTO lookupStand(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String negativeKey = BLOOM_ID_PREFIX + id;
+        if (isRejected(negativeKey)) {
+            return null;
+        }
+
+        StandDTO stand = cacheService.getOrLoad(KEY_PREFIX + "id:" + id, StandDTO.class,
+                () -> standService.findStandById(id));
+        if (stand == null) {
+            dbMisses.incrementAndGet();
+            negativeCache.put(negativeKey, Boolean.TRUE);
+        }
+        return stand;
+    }
+
+    private boolean isRejected(String bloomKey) {
+        lookups.incrementAndGet();
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(bloomKey) && isBloomCurrent()) {
+            bloomRejected.incrementAndGet();
+            return true;
+        }
+        if (negativeCache.getIfPresent(bloomKey) != null) {
+            negativeHits.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 过滤器构建后林分表版本未变化才可信；否则可能漏掉其他节点的插入，放行并在后台重建
+     */
+    private boolean isBloomCurrent() {
+        long version;
+        try {
+            version = dataVersionService.getVersion(DataVersionService.TABLE_STAND);
+        } catch (Exception e) {
+            return false;
+        }
+        if (version == bloomVersion) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastStaleRebuildAt >= staleRebuildIntervalMs) {
+            lastStaleRebuildAt = now;
+            rebuildBloomFilterAsync();
+        }
+        return false;
     }
 
     @Override
@@ -36,44 +228,29 @@ public class StandCacheServiceImpl implements StandCacheService {
     @SuppressWarnings("unchecked")
     public List<StatisticsDTO> getSpeciesStatistics() {
         String key = KEY_PREFIX + "statistics:species";
-        List<StatisticsDTO> result = cacheService.get(key, List.class);
-        if (result != null) {
-            return result;
-        }
-        result = standService.getSpeciesStatistics();
-        cacheService.set(key, result, 3600, 7200);
-        return result;
+        return cacheService.getOrLoad(key, List.class, 3600, 7200, () -> standService.getSpeciesStatistics());
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters) {
-        String key = String.format("%snearby:%.4f:%.4f:%d", KEY_PREFIX, lon, lat, radiusMeters);
-        List<StandDTO> result = cacheService.get(key, List.class);
-        if (result != null) {
-            return result;
-        }
-        result = standService.getNearbyStands(lon, lat, radiusMeters);
-        cacheService.set(key, result, 300, 300);
-        return result;
+    public List<StandDTO> getNearbyStands(Double lon, Double lat, Integer radiusMeters, Integer k) {
+        String key = String.format("%snearby:%.4f:%.4f:%s:%s", KEY_PREFIX, lon, lat, radiusMeters, k);
+        return cacheService.getOrLoad(key, List.class, 300, 300,
+                () -> standService.getNearbyStands(lon, lat, radiusMeters, k));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<StandDTO> getHighValueStands(Double minVolumePerHa) {
         String key = String.format("%shigh-value:%.2f", KEY_PREFIX, minVolumePerHa);
-        List<StandDTO> result = cacheService.get(key, List.class);
-        if (result != null) {
-            return result;
-        }
-        result = standService.getHighValueStands(minVolumePerHa);
-        cacheService.set(key, result, 1800, 1800);
-        return result;
+        return cacheService.getOrLoad(key, List.class, 1800, 1800,
+                () -> standService.getHighValueStands(minVolumePerHa));
     }
 
     @Override
     public void clearStandCache(Integer id) {
         cacheService.delete(KEY_PREFIX + "id:" + id);
+        negativeCache.invalidate(BLOOM_ID_PREFIX + id);
         cacheService.delete(KEY_PREFIX + "all");
         cacheService.deleteByPattern(KEY_PREFIX + "high-value:*");
         cacheService.deleteByPattern(KEY_PREFIX + "nearby:*");
@@ -83,7 +260,9 @@ public class StandCacheServiceImpl implements StandCacheService {
     @Override
     public void clearAllStandCache() {
         cacheService.deleteByPattern(KEY_PREFIX + "*");
+        negativeCache.invalidateAll();
         log.info("清除所有林分缓存");
+        warmUpAsync();
     }
 
     @Override
@@ -91,4 +270,312 @@ public class StandCacheServiceImpl implements StandCacheService {
         clearStandCache(id);
         log.info("刷新林分缓存: id={}", id);
     }
-}
\ No newline at end of file
+
+    /**
+     * 启动完成后预热热点缓存
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (bloomEnabled) {
+            try {
+                rebuildBloomFilter();
+            } catch (Exception e) {
+                log.warn("布隆过滤器构建失败，暂不拦截: {}", e.getMessage());
+            }
+        }
+        if (warmupEnabled) {
+            warmUp();
+        }
+    }
+
+    @Override
+    public int warmUp() {
+        long start = System.currentTimeMillis();
+        Semaphore permits = new Semaphore(Math.max(1, warmupConcurrency));
+        List<CompletableFuture<Void>> futures = new ArrayList<>(warmupKeys.length);
+
+        for (String rawKey : warmupKeys) {
+            String key = rawKey.trim();
+            if (key.isEmpty()) {
+                continue;
+            }
+            try {
+                if (!permits.tryAcquire(warmupTimeoutSeconds, TimeUnit.SECONDS)) {
+                    log.warn("缓存预热等待超时, 剩余键跳过");
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        warmUpKey(key);
+                    } catch (Exception e) {
+                        log.warn("缓存预热失败: {}, 错误: {}", key, e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                }, cacheRefreshExecutor));
+            } catch (RuntimeException e) {
+                permits.release();
+                log.warn("缓存预热任务提交失败: {}", key);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(warmupTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("缓存预热未在 {} 秒内完成", warmupTimeoutSeconds);
+        }
+
+        log.info("缓存预热完成, 键数: {}, 耗时: {}ms", futures.size(), System.currentTimeMillis() - start);
+        return futures.size();
+    }
+
+    /**
+     * 清空缓存后重新预热：每个键独立提交，不等待结果，并发由缓存刷新线程池限制
+     */
+    private void warmUpAsync() {
+        if (!warmupEnabled) {
+            return;
+        }
+        for (String rawKey : warmupKeys) {
+            String key = rawKey.trim();
+            if (key.isEmpty()) {
+                continue;
+            }
+            try {
+                cacheRefreshExecutor.execute(() -> {
+                    try {
+                        warmUpKey(key);
+                    } catch (Exception e) {
+                        log.warn("缓存预热失败: {}, 错误: {}", key, e.getMessage());
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("缓存预热任务提交失败: {}", key);
+            }
+        }
+    }
+
+    /**
+     * 预热键格式：all / statistics:species / high-value:{最小蓄积} / id:{林分ID}
+     */
+    private void warmUpKey(String key) {
+        if ("all".equals(key)) {
+            getAllStands();
+        } else if ("statistics:species".equals(key)) {
+            getSpeciesStatistics();
+        } else if (key.startsWith("high-value:")) {
+            getHighValueStands(Double.parseDouble(key.substring("high-value:".length())));
+        } else if (key.startsWith("id:")) {
+            getStandById(Integer.parseInt(key.substring("id:".length())));
+        } else {
+            log.warn("未知的预热键: {}", key);
+        }
+    }
+
+    @Override
+    public int rebuildBloomFilter() {
+        if (!bloomEnabled) {
+            return 0;
+        }
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            synchronized (bloomLock) {
+                pendingKeys = ConcurrentHashMap.newKeySet();
+            }
+
+            BloomFilter filter;
+            int count;
+            long version;
+            try {
+                // 先取版本再读键：读取期间的写入会让版本变化，过滤器随即被视为过期
+                version = dataVersionService.refreshVersion(DataVersionService.TABLE_STAND);
+                List<ForestStand> keys = ReplicaRoutingDataSource.readFromPrimary(standMapper::findAllKeys);
+                count = keys.size();
+                // 预留一倍余量，数据增长后误判率不至于迅速升高
+                filter = new BloomFilter(Math.max(bloomExpectedInsertions, count * 2L), bloomFpp);
+                for (ForestStand stand : keys) {
+                    putKeys(filter, stand.getStandId(), stand.getXiaoBanCode());
+                }
+            } catch (RuntimeException e) {
+                synchronized (bloomLock) {
+                    pendingKeys = null;
+                }
+                throw e;
+            }
+
+            synchronized (bloomLock) {
+                pendingKeys.forEach(filter::put);
+                pendingKeys = null;
+                bloomFilter = filter;
+                bloomVersion = version;
+            }
+            deletionsSinceBuild.set(0);
+            bloomBuiltAt = System.currentTimeMillis();
+            bloomKeyCount = count;
+
+            log.info("布隆过滤器重建完成, 林分数: {}, 位数: {}, 哈希数: {}, 耗时: {}ms",
+                    count, filter.bitSize(), filter.hashCount(), System.currentTimeMillis() - start);
+            return count;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 定期全量重建，兜底绕过服务层的数据变更
+     */
+    @Scheduled(initialDelayString = "${forest.cache.bloom.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${forest.cache.bloom.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuildBloomFilterAsync();
+    }
+
+    /**
+     * 事务提交后维护布隆过滤器与负缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (!DataVersionService.TABLE_STAND.equals(event.getTable())) {
+            return;
+        }
+        ForestStand after = (ForestStand) event.getAfter();
+        applyChange(event.getOperation(), event.getId(), after != null ? after.getXiaoBanCode() : null);
+        // 批量写入（如导入）整体失效一次，而不是逐条刷新；Redis 共享，远程事件无需重复清除
+        if (event.getOperation() == DataChangeEvent.Operation.BULK) {
+            clearAllStandCache();
+        }
+    }
+
+    /**
+     * 其他节点的林分变更同样补录到本节点的过滤器
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        ChangeEventDTO change = event.getChange();
+        if (!DataVersionService.TABLE_STAND.equals(change.getTable()) || change.getOp() == null) {
+            return;
+        }
+        DataChangeEvent.Operation operation;
+        try {
+            operation = DataChangeEvent.Operation.valueOf(change.getOp());
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        applyChange(operation, change.getEntityId(), remoteCode(change.getData()));
+    }
+
+    private static String remoteCode(Object data) {
+        if (data instanceof StandDTO stand) {
+            return stand.getXiaoBanCode();
+        }
+        if (data instanceof Map<?, ?> map && map.get("xiaoBanCode") != null) {
+            return map.get("xiaoBanCode").toString();
+        }
+        return null;
+    }
+
+    private void applyChange(DataChangeEvent.Operation operation, Integer id, String code) {
+        switch (operation) {
+            case INSERT, UPDATE -> {
+                addKeys(id, code);
+                negativeCache.invalidate(BLOOM_ID_PREFIX + id);
+                if (code != null) {
+                    negativeCache.invalidate(BLOOM_CODE_PREFIX + code);
+                }
+            }
+            case DELETE -> {
+                if (deletionsSinceBuild.incrementAndGet() >= rebuildAfterDeletions) {
+                    rebuildBloomFilterAsync();
+                }
+            }
+            case BULK -> {
+                // 批量写入的键无从补录，重建完成前不拦截
+                synchronized (bloomLock) {
+                    bloomFilter = null;
+                }
+                negativeCache.invalidateAll();
+                rebuildBloomFilterAsync();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getLookupStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long rejected = bloomRejected.get();
+        long negative = negativeHits.get();
+        stats.put("lookups", lookups.get());
+        stats.put("bloomRejected", rejected);
+        stats.put("negativeCacheHits", negative);
+        stats.put("dbSaved", rejected + negative);
+        // 负缓存未命中、数据库查询后确认不存在的次数（含布隆过滤器误判）
+        stats.put("dbMisses", dbMisses.get());
+        stats.put("negativeCacheSize", negativeCache.estimatedSize());
+
+        BloomFilter filter = bloomFilter;
+        stats.put("bloomReady", filter != null);
+        if (filter != null) {
+            stats.put("bloomKeyCount", bloomKeyCount);
+            stats.put("bloomBitSize", filter.bitSize());
+            stats.put("bloomHashCount", filter.hashCount());
+            stats.put("bloomExpectedFpp", filter.expectedFpp());
+            stats.put("bloomBuiltAt", bloomBuiltAt);
+            stats.put("bloomVersion", bloomVersion);
+            stats.put("deletionsSinceBuild", deletionsSinceBuild.get());
+        }
+        return stats;
+    }
+
+    private void addKeys(Integer id, String code) {
+        synchronized (bloomLock) {
+            BloomFilter filter = bloomFilter;
+            if (filter != null) {
+                putKeys(filter, id, code);
+            }
+            if (pendingKeys != null) {
+                if (id != null) {
+                    pendingKeys.add(BLOOM_ID_PREFIX + id);
+                }
+                if (code != null) {
+                    pendingKeys.add(BLOOM_CODE_PREFIX + code);
+                }
+            }
+        }
+    }
+
+    private static void putKeys(BloomFilter filter, Integer id, String code) {
+        if (id != null) {
+            filter.put(BLOOM_ID_PREFIX + id);
+        }
+        if (code != null) {
+            filter.put(BLOOM_CODE_PREFIX + code);
+        }
+    }
+
+    private void rebuildBloomFilterAsync() {
+        if (!bloomEnabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    rebuildBloomFilter();
+                } catch (Exception e) {
+                    log.warn("布隆过滤器重建失败: {}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuilding.set(false);
+            log.warn("布隆过滤器重建任务提交失败");
+        }
+    }
+}
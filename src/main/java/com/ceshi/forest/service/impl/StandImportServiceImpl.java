@@ -0,0 +1,264 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.converter.StandConverter;
+import com.ceshi.forest.dto.StandDTO;
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.event.DataChangeEvent;
+import com.ceshi.forest.mapper.ForestStandMapper;
+import com.ceshi.forest.service.BoundaryService;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.StandImportService;
+import com.ceshi.forest.util.ImportFileReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygonal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * 林分批量导入服务实现
+ * 文件逐行流式读取，每满一批做一次多行 INSERT ... ON CONFLICT，内存只保留当前批次；
+ * 全部写入后只为本次带边界的林分计算简化层级，再统一递增数据版本并发布一次 BULK 事件（缓存由监听方在提交后清除）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StandImportServiceImpl implements StandImportService {
+
+    // 单条语句绑定参数不能超过 32767，每行约 30 个参数
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // 返回的错误明细上限
+    private static final int MAX_ERRORS = 100;
+
+    private static final DateTimeFormatter SLASH_DATE = DateTimeFormatter.ofPattern("yyyy/M/d");
+
+    // 规范化列名（小写、去下划线）-> 赋值，字段名与数据库列名规范化后相同
+    private static final Map<String, BiConsumer<StandDTO, String>> FIELD_SETTERS = new HashMap<>();
+
+    static {
+        FIELD_SETTERS.put("zoneid", (dto, v) -> dto.setZoneId(Integer.valueOf(v)));
+        FIELD_SETTERS.put("xiaobancode", StandDTO::setXiaoBanCode);
+        FIELD_SETTERS.put("standname", StandDTO::setStandName);
+        FIELD_SETTERS.put("dominantspecies", StandDTO::setDominantSpecies);
+        FIELD_SETTERS.put("origin", StandDTO::setOrigin);
+        FIELD_SETTERS.put("areaha", (dto, v) -> dto.setAreaHa(Double.valueOf(v)));
+        FIELD_SETTERS.put("volumeperha", (dto, v) -> dto.setVolumePerHa(Double.valueOf(v)));
+        FIELD_SETTERS.put("totalvolume", (dto, v) -> dto.setTotalVolume(Double.valueOf(v)));
+        FIELD_SETTERS.put("standage", (dto, v) -> dto.setStandAge(Integer.valueOf(v)));
+        FIELD_SETTERS.put("canopydensity", (dto, v) -> dto.setCanopyDensity(Double.valueOf(v)));
+        FIELD_SETTERS.put("avgdbh", (dto, v) -> dto.setAvgDbh(Double.valueOf(v)));
+        FIELD_SETTERS.put("avgheight", (dto, v) -> dto.setAvgHeight(Double.valueOf(v)));
+        FIELD_SETTERS.put("elevation", (dto, v) -> dto.setElevation(Integer.valueOf(v)));
+        FIELD_SETTERS.put("aspect", StandDTO::setAspect);
+        FIELD_SETTERS.put("slope", (dto, v) -> dto.setSlope(Double.valueOf(v)));
+        FIELD_SETTERS.put("sitetype", StandDTO::setSiteType);
+        FIELD_SETTERS.put("siteclass", (dto, v) -> dto.setSiteClass(Integer.valueOf(v)));
+        FIELD_SETTERS.put("speciescomposition", StandDTO::setSpeciesComposition);
+        FIELD_SETTERS.put("surveydate", (dto, v) -> dto.setSurveyDate(parseDate(v)));
+        FIELD_SETTERS.put("surveyor", StandDTO::setSurveyor);
+        FIELD_SETTERS.put("remark", StandDTO::setRemark);
+        FIELD_SETTERS.put("centerlon", (dto, v) -> dto.setCenterLon(Double.valueOf(v)));
+        FIELD_SETTERS.put("centerlat", (dto, v) -> dto.setCenterLat(Double.valueOf(v)));
+        FIELD_SETTERS.put("lon", FIELD_SETTERS.get("centerlon"));
+        FIELD_SETTERS.put("longitude", FIELD_SETTERS.get("centerlon"));
+        FIELD_SETTERS.put("lat", FIELD_SETTERS.get("centerlat"));
+        FIELD_SETTERS.put("latitude", FIELD_SETTERS.get("centerlat"));
+    }
+
+    private final ForestStandMapper standMapper;
+    private final StandConverter standConverter;
+    private final DataVersionService dataVersionService;
+    private final BoundaryService boundaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    @Value("${forest.import.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public Map<String, Object> importStands(MultipartFile file, String operator) {
+        String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+        long start = System.currentTimeMillis();
+        ImportBatch batch = new ImportBatch(operator, new HashSet<>(standMapper.findZoneIds()),
+                Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE)));
+
+        try {
+            if (name.endsWith(".csv")) {
+                try (InputStream in = file.getInputStream()) {
+                    ImportFileReader.readCsv(in, batch::accept);
+                }
+            } else if (name.endsWith(".xlsx")) {
+                // OPC 包需要随机访问，先落到临时文件，避免整个工作簿读入内存
+                Path temp = Files.createTempFile("stand-import-", ".xlsx");
+                try {
+                    file.transferTo(temp);
+                    ImportFileReader.readXlsx(temp.toFile(), batch::accept);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            } else if (name.endsWith(".geojson") || name.endsWith(".json")) {
+                try (InputStream in = file.getInputStream()) {
+                    ImportFileReader.readGeoJson(in, batch::accept);
+                }
+            } else {
+                throw new RuntimeException("不支持的导入格式: " + file.getOriginalFilename() + "（支持 csv / xlsx / geojson）");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("读取导入文件失败: " + e.getMessage(), e);
+        }
+        batch.flush();
+
+        if (!batch.boundaryIds.isEmpty()) {
+            boundaryService.rebuildLods(BoundaryService.OWNER_STAND, batch.boundaryIds);
+        }
+        if (batch.imported > 0) {
+            dataVersionService.bump(DataVersionService.TABLE_STAND);
+            eventPublisher.publishEvent(DataChangeEvent.bulk(DataVersionService.TABLE_STAND));
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("林分导入完成: 文件={}, 总行数={}, 写入={}, 合并={}, 失败={}, 耗时={}ms",
+                file.getOriginalFilename(), batch.total, batch.imported, batch.merged, batch.failed, elapsed);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", batch.total);
+        result.put("imported", batch.imported);
+        // 文件内小班编码重复，以后出现的行为准
+        result.put("merged", batch.merged);
+        result.put("failed", batch.failed);
+        result.put("boundaries", batch.boundaryIds.size());
+        result.put("errors", batch.errors);
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+
+    /**
+     * 当前批次与计数；批内按小班编码去重（同一条 ON CONFLICT 语句不能两次更新同一行）
+     */
+    private class ImportBatch {
+
+        private final String operator;
+        private final Set<Integer> zoneIds;
+        private final int size;
+        private final Map<String, ForestStand> pending = new LinkedHashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private int total;
+        private int imported;
+        private int merged;
+        private int failed;
+        // 本次写入了边界的林分ID
+        private final Set<Integer> boundaryIds = new LinkedHashSet<>();
+
+        ImportBatch(String operator, Set<Integer> zoneIds, int size) {
+            this.operator = operator;
+            this.zoneIds = zoneIds;
+            this.size = size;
+        }
+
+        void accept(int rowNumber, Map<String, String> values, Geometry geometry) {
+            total++;
+            ForestStand stand;
+            try {
+                stand = toEntity(values, geometry);
+            } catch (IllegalArgumentException e) {
+                failed++;
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add("第 " + rowNumber + " 行: " + e.getMessage());
+                }
+                return;
+            }
+            if (pending.put(stand.getXiaoBanCode(), stand) != null) {
+                merged++;
+            }
+            if (pending.size() >= size) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ForestStand> stands = new ArrayList<>(pending.values());
+            standMapper.upsertBatch(stands, operator);
+            imported += stands.size();
+            stands.stream()
+                    .filter(s -> s.getBoundary() != null && s.getStandId() != null)
+                    .forEach(s -> boundaryIds.add(s.getStandId()));
+            pending.clear();
+        }
+
+        private ForestStand toEntity(Map<String, String> values, Geometry geometry) {
+            StandDTO dto = new StandDTO();
+            values.forEach((key, value) -> {
+                BiConsumer<StandDTO, String> setter = FIELD_SETTERS.get(key.replace("_", "").toLowerCase(Locale.ROOT));
+                if (setter == null) {
+                    return;
+                }
+                try {
+                    setter.accept(dto, value);
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    throw new IllegalArgumentException(key + " 格式错误: " + value);
+                }
+            });
+
+            Geometry boundary = null;
+            if (geometry instanceof Point point && dto.getCenterLon() == null) {
+                dto.setCenterLon(point.getX());
+                dto.setCenterLat(point.getY());
+            } else if (geometry instanceof Polygonal) {
+                boundary = geometry;
+                if (dto.getCenterLon() == null) {
+                    Point center = geometry.getInteriorPoint();
+                    dto.setCenterLon(center.getX());
+                    dto.setCenterLat(center.getY());
+                }
+            }
+
+            Set<ConstraintViolation<StandDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            if (dto.getZoneId() != null && !zoneIds.contains(dto.getZoneId())) {
+                throw new IllegalArgumentException("林场不存在: " + dto.getZoneId());
+            }
+
+            ForestStand entity = standConverter.toEntity(dto);
+            if (entity.getSurveyDate() == null) {
+                entity.setSurveyDate(LocalDate.now());
+            }
+            if (entity.getTotalVolume() == null && entity.getAreaHa() != null && entity.getVolumePerHa() != null) {
+                entity.setTotalVolume(entity.getAreaHa() * entity.getVolumePerHa());
+            }
+            entity.setBoundary(boundary);
+            return entity;
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value.indexOf('/') >= 0 ? LocalDate.parse(value, SLASH_DATE) : LocalDate.parse(value);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.dto.LocateDTO;
+import com.ceshi.forest.entity.SamplePlot;
+import com.ceshi.forest.event.DataChangeEvent;
+import com.ceshi.forest.mapper.BoundaryMapper;
+import com.ceshi.forest.mapper.SamplePlotMapper;
+import com.ceshi.forest.mapper.TreeMeasurementMapper;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.StandLocateService;
+import com.ceshi.forest.util.StandBoundaryIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 小班定位服务实现
+ * 林分边界索引见 {@link StandBoundaryIndex}，数据版本变化后重建
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StandLocateServiceImpl implements StandLocateService {
+
+    // 批量写入样地归属时每批数量
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    // 返回的差异明细上限
+    private static final int MAX_CHANGE_DETAILS = 100;
+
+    private final BoundaryMapper boundaryMapper;
+    private final SamplePlotMapper plotMapper;
+    private final TreeMeasurementMapper treeMapper;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    @Override
+    public LocateDTO locate(double lon, double lat) {
+        LocateDTO result = new LocateDTO();
+        result.setLon(lon);
+        result.setLat(lat);
+        fill(result, currentSnapshot().index().find(lon, lat));
+        return result;
+    }
+
+    @Override
+    public List<LocateDTO> locateBatch(List<LocateDTO> points) {
+        // 同一批次使用同一份索引
+        StandBoundaryIndex index = currentSnapshot().index();
+        for (LocateDTO point : points) {
+            if (point.getLon() != null && point.getLat() != null) {
+                fill(point, index.find(point.getLon(), point.getLat()));
+            }
+        }
+        return points;
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> assignPlots(boolean apply) {
+        StandBoundaryIndex index = currentSnapshot().index();
+
+        List<SamplePlot> changes = new ArrayList<>();
+        List<Map<String, Object>> details = new ArrayList<>();
+        int totalPlots = 0;
+        int withoutCoordinates = 0;
+        int outside = 0;
+
+        // 游标逐行读取，只保留需要变更的样地
+        try (Cursor<SamplePlot> plots = plotMapper.cursorAll()) {
+            for (SamplePlot plot : plots) {
+                totalPlots++;
+                if (plot.getLongitudeDd() == null || plot.getLatitudeDd() == null) {
+                    withoutCoordinates++;
+                    continue;
+                }
+                StandBoundaryIndex.Entry entry = index.find(plot.getLongitudeDd(), plot.getLatitudeDd());
+                if (entry == null) {
+                    outside++;
+                    continue;
+                }
+                if (!entry.standId().equals(plot.getStandId())) {
+                    SamplePlot change = new SamplePlot();
+                    change.setPlotId(plot.getPlotId());
+                    change.setStandId(entry.standId());
+                    changes.add(change);
+
+                    if (details.size() < MAX_CHANGE_DETAILS) {
+                        Map<String, Object> detail = new LinkedHashMap<>();
+                        detail.put("plotId", plot.getPlotId());
+                        detail.put("fromStandId", plot.getStandId());
+                        detail.put("toStandId", entry.standId());
+                        detail.put("toXiaoBanCode", entry.xiaoBanCode());
+                        details.add(detail);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭游标失败", e);
+        }
+
+        if (apply && !changes.isEmpty()) {
+            for (int i = 0; i < changes.size(); i += UPDATE_BATCH_SIZE) {
+                List<SamplePlot> batch = changes.subList(i, Math.min(i + UPDATE_BATCH_SIZE, changes.size()));
+                plotMapper.batchUpdateStandId(batch);
+                // 单木按 stand_id 查询和导出，需随样地一起改
+                treeMapper.syncStandIdByPlotIds(batch.stream().map(SamplePlot::getPlotId).toList());
+            }
+            dataVersionService.bump(DataVersionService.TABLE_PLOT);
+            dataVersionService.bump(DataVersionService.TABLE_TREE);
+            eventPublisher.publishEvent(DataChangeEvent.bulk(DataVersionService.TABLE_PLOT));
+            eventPublisher.publishEvent(DataChangeEvent.bulk(DataVersionService.TABLE_TREE));
+            log.info("样地归属已更新, 数量: {}", changes.size());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalPlots", totalPlots);
+        result.put("withoutCoordinates", withoutCoordinates);
+        result.put("outside", outside);
+        result.put("changed", changes.size());
+        result.put("applied", apply);
+        result.put("changes", details);
+        return result;
+    }
+
+    private void fill(LocateDTO target, StandBoundaryIndex.Entry entry) {
+        if (entry != null) {
+            target.setStandId(entry.standId());
+            target.setXiaoBanCode(entry.xiaoBanCode());
+            target.setStandName(entry.standName());
+        }
+    }
+
+    /**
+     * 获取当前索引，数据版本变化时重建；重建期间其他线程继续使用旧索引
+     */
+    private Snapshot currentSnapshot() {
+        long version = dataVersionService.getVersion(DataVersionService.TABLE_STAND);
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+
+        if (current != null) {
+            if (!rebuildLock.tryLock()) {
+                return current;
+            }
+        } else {
+            rebuildLock.lock();
+        }
+
+        try {
+            current = snapshot;
+            if (current == null || current.version() != version) {
+                current = buildSnapshot(version);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot buildSnapshot(long version) {
+        long start = System.currentTimeMillis();
+        StandBoundaryIndex index = StandBoundaryIndex.build(boundaryMapper.findStandBoundaryIndex());
+        log.info("小班定位索引已构建, 林分数: {}, 耗时: {}ms", index.size(), System.currentTimeMillis() - start);
+        return new Snapshot(version, index);
+    }
+
+    private record Snapshot(long version, StandBoundaryIndex index) {
+    }
+}
@@ -1,16 +1,23 @@
 package com.ceshi.forest.service.impl;
 
+import com.ceshi.forest.converter.TreeConverter;
 import com.ceshi.forest.dto.TreeDTO;
+import com.ceshi.forest.entity.TreeInstance;
 import com.ceshi.forest.entity.TreeMeasurement;
 import com.ceshi.forest.mapper.TreeMeasurementMapper;
 import com.ceshi.forest.service.TreeMeasurementService;
+import com.ceshi.forest.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -21,12 +28,12 @@ import java.util.stream.Collectors;
 public class TreeMeasurementServiceImpl implements TreeMeasurementService {
 
     private final TreeMeasurementMapper treeMapper;
+    private final TreeConverter treeConverter;
 
     @Override
+    @Transactional(readOnly = true)
     public List<TreeDTO> getAllTrees() {
-        return treeMapper.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorUtil.mapToList(treeMapper.cursorAll(), treeConverter::toDTO);
     }
 
     @Override
@@ -35,38 +42,90 @@ public class TreeMeasurementServiceImpl implements TreeMeasurementService {
         if (tree == null) {
             throw new RuntimeException("单木记录不存在");
         }
-        return convertToDTO(tree);
+        return treeConverter.toDTO(tree);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TreeDTO> getTreesByPlotId(Integer plotId) {
-        return treeMapper.findByPlotId(plotId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return treeConverter.toDTOList(treeMapper.findByPlotId(plotId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TreeDTO> getTreesByStandId(Integer standId) {
-        return treeMapper.findByStandId(standId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorUtil.mapToList(treeMapper.cursorByStandId(standId), treeConverter::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TreeDTO> getTreesByZoneId(Integer zoneId) {
+        return CursorUtil.mapToList(treeMapper.cursorByZoneId(zoneId), treeConverter::toDTO);
+    }
+
+    @Override
+    public String getDataVersion(String scope, Integer scopeId) {
+        return switch (scope) {
+            case "stand" -> treeMapper.selectStandDataVersion(scopeId);
+            case "zone" -> treeMapper.selectZoneDataVersion(scopeId);
+            default -> throw new RuntimeException("不支持的导出范围: " + scope);
+        };
+    }
+
+    @Override
+    public int countTrees(String scope, Integer scopeId) {
+        return switch (scope) {
+            case "stand" -> treeMapper.countByStandId(scopeId);
+            case "zone" -> treeMapper.countByZoneId(scopeId);
+            default -> throw new RuntimeException("不支持的导出范围: " + scope);
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void readTrees(String scope, Integer scopeId, Consumer<Iterable<TreeMeasurement>> reader) {
+        Cursor<TreeMeasurement> cursor = switch (scope) {
+            case "stand" -> treeMapper.cursorByStandId(scopeId);
+            case "zone" -> treeMapper.cursorByZoneId(scopeId);
+            default -> throw new RuntimeException("不支持的导出范围: " + scope);
+        };
+        CursorUtil.read(cursor, Function.identity(), reader);
     }
 
     @Override
+    public String getTilesVersion(String scope, Integer scopeId) {
+        return switch (scope) {
+            case "stand" -> treeMapper.selectTilesVersion(scopeId, null);
+            case "zone" -> treeMapper.selectTilesVersion(null, scopeId);
+            default -> throw new RuntimeException("不支持的范围: " + scope);
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void readTileInstances(String scope, Integer scopeId, Consumer<TreeInstance> consumer) {
+        Cursor<TreeInstance> cursor = switch (scope) {
+            case "stand" -> treeMapper.cursorTileInstances(scopeId, null);
+            case "zone" -> treeMapper.cursorTileInstances(null, scopeId);
+            default -> throw new RuntimeException("不支持的范围: " + scope);
+        };
+        CursorUtil.read(cursor, Function.identity(), rows -> rows.forEach(consumer));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TreeDTO> getLargeTrees(Double minDbh) {
-        return treeMapper.findByDbhAvgGreaterThanEqual(minDbh).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorUtil.mapToList(treeMapper.cursorByDbhAvgGreaterThanEqual(minDbh), treeConverter::toDTO);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TreeDTO> getTreesBySpecies(String species) {
-        return treeMapper.findBySpecies(species).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorUtil.mapToList(treeMapper.cursorBySpecies(species), treeConverter::toDTO);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getSpeciesStatistics() {
         List<Map<String, Object>> results = treeMapper.getStatisticsBySpecies();
         List<Map<String, Object>> stats = new ArrayList<>();
@@ -85,6 +144,7 @@ public class TreeMeasurementServiceImpl implements TreeMeasurementService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getStandSpeciesStatistics(Integer standId) {
         List<TreeMeasurement> trees = treeMapper.findByStandId(standId);
 
@@ -108,40 +168,19 @@ public class TreeMeasurementServiceImpl implements TreeMeasurementService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<TreeDTO> getNearbyTrees(Double lon, Double lat, Integer radiusMeters, Integer k) {
+        return treeConverter.toDTOList(treeMapper.findNearbyTrees(lon, lat, radiusMeters, k));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TreeDTO> getTopTrees(Integer limit) {
-        return treeMapper.findAll().stream()
-                .sorted((a, b) -> b.getDbhAvg().compareTo(a.getDbhAvg()))
-                .limit(limit)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return treeConverter.toDTOList(treeMapper.findTopByDbhAvg(limit));
     }
 
     @Override
     public List<TreeDTO> getTreesByStandIdString(String standId) {
         return List.of();
     }
-
-    private TreeDTO convertToDTO(TreeMeasurement tree) {
-        TreeDTO dto = new TreeDTO();
-        dto.setTreeId(tree.getTreeId());
-        dto.setPlotId(tree.getPlotId());
-        dto.setTreeNo(tree.getTreeNo());
-        dto.setSpecies(tree.getSpecies());
-        dto.setDbhAvg(tree.getDbhAvg());
-        dto.setTreeHeight(tree.getTreeHeight());
-        dto.setDiameterHalfHeight(tree.getDiameterHalfHeight());
-        dto.setQ2(tree.getQ2());
-        dto.setF1(tree.getF1());
-        dto.setBasalArea(tree.getBasalArea());
-        dto.setVolume(tree.getVolume());
-        dto.setCrownWidth(tree.getCrownWidth());
-        dto.setDbhDirection1(tree.getDbhDirection1());
-        dto.setDbhDirection2(tree.getDbhDirection2());
-        dto.setHealthStatus(tree.getHealthStatus());
-        dto.setSpeciesCode(tree.getSpeciesCode());
-        dto.setSurveyDate(tree.getSurveyDate() != null ? tree.getSurveyDate().toString() : null);
-        dto.setTreeQuality(tree.getTreeQuality());
-        dto.setStandId(tree.getStandId());
-        return dto;
-    }
 }
\ No newline at end of file
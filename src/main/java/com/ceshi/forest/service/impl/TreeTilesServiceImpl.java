@@ -0,0 +1,298 @@
+package com.ceshi.forest.service.impl;
+
+import com.ceshi.forest.entity.TreeInstance;
+import com.ceshi.forest.event.DataChangeEvent;
+import com.ceshi.forest.service.DataVersionService;
+import com.ceshi.forest.service.TreeMeasurementService;
+import com.ceshi.forest.service.TreeTilesService;
+import com.ceshi.forest.util.GeometryUtil;
+import com.ceshi.forest.util.tiles.I3dmWriter;
+import com.ceshi.forest.util.tiles.TreeModel;
+import com.ceshi.forest.util.tiles.TreeTileBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 单木 3D Tiles 服务实现
+ * 目录结构：{dir}/{scope}-{scopeId}/{version}/tileset.json 与 {tileId}.i3dm，version 为数据指纹的哈希；
+ * 先写临时目录再整体改名，同一版本并发请求只生成一次。旧版本保留一段时间，正在浏览的客户端仍可取到瓦片
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TreeTilesServiceImpl implements TreeTilesService {
+
+    private static final String TILESET_FILE = "tileset.json";
+    private static final String TILE_SUFFIX = ".i3dm";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("[0-9a-f]{16}");
+    private static final Pattern TILE_ID_PATTERN = Pattern.compile("0(-[0-3])*");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final double METERS_PER_DEGREE = Math.PI * GeometryUtil.EARTH_RADIUS_METERS / 180;
+
+    private final TreeMeasurementService treeService;
+
+    @Value("${forest.tiles.dir:${java.io.tmpdir}/forest-tiles}")
+    private String tilesDir;
+
+    // 每个瓦片最多的实例数
+    @Value("${forest.tiles.max-per-tile:1000}")
+    private int maxPerTile;
+
+    @Value("${forest.tiles.max-depth:10}")
+    private int maxDepth;
+
+    // 数据指纹的本地缓存时间，应用外的写入最多延迟这么久生效
+    @Value("${forest.tiles.version-check-seconds:30}")
+    private long versionCheckSeconds;
+
+    // 样地面积缺失时按 1 亩计
+    @Value("${forest.tiles.default-plot-area-m2:667}")
+    private double defaultPlotAreaM2;
+
+    @Value("${forest.tiles.default-tree-height:8}")
+    private float defaultTreeHeight;
+
+    @Value("${forest.tiles.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private Cache<String, String> versions;
+
+    private final Map<Path, CompletableFuture<Void>> building = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Paths.get(tilesDir));
+        versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(versionCheckSeconds))
+                .maximumSize(10_000)
+                .build();
+        log.info("3D Tiles 缓存目录: {}", tilesDir);
+    }
+
+    @Override
+    public Tileset getTileset(String scope, Integer scopeId) {
+        checkScope(scope);
+        String version = versions.get(scope + ":" + scopeId,
+                key -> fingerprint(treeService.getTilesVersion(scope, scopeId)));
+        Path dir = scopeDir(scope, scopeId).resolve(version);
+        if (!Files.isDirectory(dir)) {
+            build(scope, scopeId, dir);
+        }
+        Path file = dir.resolve(TILESET_FILE);
+        return Files.exists(file) ? new Tileset(file, version) : null;
+    }
+
+    @Override
+    public Path getTile(String scope, Integer scopeId, String version, String tileId) {
+        checkScope(scope);
+        if (!VERSION_PATTERN.matcher(version).matches() || !TILE_ID_PATTERN.matcher(tileId).matches()) {
+            return null;
+        }
+        Path file = scopeDir(scope, scopeId).resolve(version).resolve(tileId + TILE_SUFFIX);
+        return Files.exists(file) ? file : null;
+    }
+
+    /**
+     * 单木、样地或林分变化后丢弃指纹缓存，下次请求重新计算
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        switch (event.getTable()) {
+            case DataVersionService.TABLE_TREE, DataVersionService.TABLE_PLOT, DataVersionService.TABLE_STAND ->
+                    versions.invalidateAll();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 清理过期版本：每个范围保留最新版本，其余超过保留时间后删除
+     */
+    @Scheduled(fixedDelayString = "${forest.tiles.cleanup-interval-ms:600000}")
+    public void cleanupExpiredVersions() {
+        FileTime expireBefore = FileTime.fromMillis(System.currentTimeMillis() - retentionMinutes * 60_000);
+        try (Stream<Path> scopes = Files.list(Paths.get(tilesDir))) {
+            for (Path scopeDir : scopes.filter(Files::isDirectory).toList()) {
+                List<Path> dirs;
+                try (Stream<Path> stream = Files.list(scopeDir)) {
+                    dirs = stream.filter(Files::isDirectory)
+                            .sorted(Comparator.comparing(TreeTilesServiceImpl::lastModified).reversed())
+                            .toList();
+                }
+                // 最新的正式版本始终保留；生成失败残留的临时目录同样按保留时间清理
+                boolean latestKept = false;
+                for (Path dir : dirs) {
+                    boolean temp = dir.getFileName().toString().endsWith(TEMP_SUFFIX);
+                    if (!temp && !latestKept) {
+                        latestKept = true;
+                        continue;
+                    }
+                    if (lastModified(dir).compareTo(expireBefore) < 0 && !building.containsKey(dir)) {
+                        deleteRecursively(dir);
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("清理 3D Tiles 缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private void build(String scope, Integer scopeId, Path dir) {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = building.putIfAbsent(dir, mine);
+        if (running != null) {
+            running.join();
+            return;
+        }
+        try {
+            if (!Files.isDirectory(dir)) {
+                generate(scope, scopeId, dir);
+            }
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(dir, mine);
+        }
+    }
+
+    private void generate(String scope, Integer scopeId, Path dir) {
+        long start = System.currentTimeMillis();
+        TreeTileBuilder.Instances instances = new TreeTileBuilder.Instances();
+        treeService.readTileInstances(scope, scopeId, tree -> addInstance(instances, tree));
+        TreeTileBuilder.Tile root = TreeTileBuilder.build(instances, maxPerTile, maxDepth);
+
+        Path temp = dir.resolveSibling(dir.getFileName() + "-" + UUID.randomUUID() + TEMP_SUFFIX);
+        int[] tileCount = {0};
+        try {
+            Files.createDirectories(temp);
+            if (root != null) {
+                byte[] glb = TreeModel.glb();
+                root.forEach(tile -> {
+                    writeTile(temp.resolve(tile.getId() + TILE_SUFFIX), instances, tile.getMembers(), glb);
+                    tileCount[0]++;
+                });
+                String contentPrefix = dir.getFileName() + "/";
+                MAPPER.writeValue(temp.resolve(TILESET_FILE).toFile(),
+                        TreeTileBuilder.tileset(root, instances, contentPrefix));
+            }
+            Files.move(temp, dir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            // 其他实例共享同一目录时可能已生成
+            deleteRecursively(temp);
+        } catch (IOException | UncheckedIOException e) {
+            deleteRecursively(temp);
+            throw new RuntimeException("生成 3D Tiles 失败: " + e.getMessage(), e);
+        }
+        log.info("生成单木 3D Tiles: {} {}，{} 株，{} 个瓦片，耗时 {} ms",
+                scope, scopeId, instances.size(), tileCount[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 单木没有坐标：按树号确定性地散布在样地等面积圆内，每次生成位置相同
+     */
+    private void addInstance(TreeTileBuilder.Instances instances, TreeInstance tree) {
+        double area = tree.getPlotAreaM2() != null && tree.getPlotAreaM2() > 0 ? tree.getPlotAreaM2() : defaultPlotAreaM2;
+        SplittableRandom random = new SplittableRandom(tree.getTreeId());
+        double r = Math.sqrt(area / Math.PI) * Math.sqrt(random.nextDouble());
+        double theta = 2 * Math.PI * random.nextDouble();
+        double lat = tree.getLat() + r * Math.sin(theta) / METERS_PER_DEGREE;
+        double lon = tree.getLon() + r * Math.cos(theta) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(tree.getLat())));
+
+        float height = tree.getTreeHeight() != null && tree.getTreeHeight() > 0
+                ? tree.getTreeHeight().floatValue() : defaultTreeHeight;
+        float crown = tree.getCrownWidth() != null && tree.getCrownWidth() > 0
+                ? tree.getCrownWidth().floatValue() : Math.max(1f, height * 0.3f);
+        instances.add(tree.getTreeId(), tree.getSpecies() != null ? tree.getSpecies() : "未知", lon, lat,
+                tree.getElevation() != null ? tree.getElevation() : 0, height, crown,
+                tree.getDbhAvg() != null ? tree.getDbhAvg().floatValue() : 0f);
+    }
+
+    private static void writeTile(Path file, TreeTileBuilder.Instances instances, int[] members, byte[] glb) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            I3dmWriter.write(instances, members, glb, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path scopeDir(String scope, Integer scopeId) {
+        return Paths.get(tilesDir, scope + "-" + scopeId);
+    }
+
+    private static void checkScope(String scope) {
+        if (!"stand".equals(scope) && !"zone".equals(scope)) {
+            throw new RuntimeException("不支持的范围: " + scope);
+        }
+    }
+
+    private static String fingerprint(String dataVersion) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(dataVersion.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("删除 3D Tiles 文件失败: {}", path);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("删除 3D Tiles 目录失败: {}", dir);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ceshi.forest.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.ceshi.forest.dto.auth.AuthUserDTO;
+import com.ceshi.forest.entity.User;
+import com.ceshi.forest.mapper.RoleMapper;
+import com.ceshi.forest.mapper.UserMapper;
+import com.ceshi.forest.service.CacheService;
+import com.ceshi.forest.service.UserCacheService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 认证用户缓存实现
+ * 快照只放本地缓存（含密码哈希，不写入 Redis），不做过期后宽限；过期时间较短，其他实例上的变更最多延迟一个过期周期生效。
+ * 登录时间先记在内存中，同一用户多次登录只保留最新一次，定时批量更新
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCacheServiceImpl implements UserCacheService {
+
+    private static final String KEY_PREFIX = "forest:auth:user:";
+
+    // 单条 UPDATE ... FROM (VALUES ...) 的最大行数
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final UserMapper userMapper;
+    private final RoleMapper roleMapper;
+    private final CacheService cacheService;
+
+    private final Map<Integer, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    @Value("${forest.auth.user-cache-ttl:120}")
+    private long userCacheTtl;
+
+    @Override
+    public AuthUserDTO getUser(String username) {
+        if (username == null) {
+            return null;
+        }
+        String key = KEY_PREFIX + username;
+        AuthUserDTO user = cacheService.get(key, AuthUserDTO.class);
+        if (user != null) {
+            return user;
+        }
+        // 不用 getOrLoad：带加载函数的条目过期后还有宽限期，禁用、改密后旧快照最多保留两倍过期时间
+        user = ReplicaRoutingDataSource.readFromPrimary(() -> loadUser(username));
+        if (user != null) {
+            cacheService.set(key, user, userCacheTtl, 0);
+        }
+        return user;
+    }
+
+    @Override
+    public void evict(String username) {
+        if (username != null) {
+            cacheService.delete(KEY_PREFIX + username);
+        }
+    }
+
+    @Override
+    public void recordLogin(Integer userId) {
+        if (userId != null) {
+            pendingLogins.put(userId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 批量写入登录时间
+     */
+    @Scheduled(fixedDelayString = "${forest.auth.login-flush-interval-ms:5000}")
+    public void flushLoginTimes() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+        List<User> batch = new ArrayList<>();
+        for (Integer userId : pendingLogins.keySet()) {
+            LocalDateTime time = pendingLogins.remove(userId);
+            if (time == null) {
+                continue;
+            }
+            User user = new User();
+            user.setUserId(userId);
+            user.setLastLoginTime(time);
+            batch.add(user);
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                writeLoginTimes(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeLoginTimes(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLoginTimes();
+    }
+
+    private void writeLoginTimes(List<User> batch) {
+        try {
+            userMapper.updateLastLoginTimes(batch);
+            log.debug("批量更新登录时间: {} 个用户", batch.size());
+        } catch (Exception e) {
+            // 写失败放回队列，已有更新的时间不覆盖
+            batch.forEach(user -> pendingLogins.putIfAbsent(user.getUserId(), user.getLastLoginTime()));
+            log.warn("批量更新登录时间失败，下次重试: {}", e.getMessage());
+        }
+    }
+
+    private AuthUserDTO loadUser(String username) {
+        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
+                .eq(User::getUsername, username));
+        if (user == null) {
+            return null;
+        }
+        AuthUserDTO dto = new AuthUserDTO();
+        dto.setUserId(user.getUserId());
+        dto.setUsername(user.getUsername());
+        dto.setPassword(user.getPassword());
+        dto.setRealName(user.getRealName());
+        dto.setEmail(user.getEmail());
+        dto.setPhone(user.getPhone());
+        dto.setAvatar(user.getAvatar());
+        dto.setStatus(user.getStatus());
+        dto.setRoles(List.copyOf(roleMapper.selectRolesByUserId(user.getUserId())));
+        return dto;
+    }
+}
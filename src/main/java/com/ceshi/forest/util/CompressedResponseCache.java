@@ -0,0 +1,127 @@
+package com.ceshi.forest.util;
+
+import com.ceshi.forest.config.ReplicaRoutingDataSource;
+import com.ceshi.forest.interceptor.DataVersionETagInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预压缩响应缓存
+ * 热点接口按数据版本缓存序列化后的 JSON 及其 gzip 结果，版本不变时不再重复序列化和压缩。
+ * 加载、序列化和压缩都在 Map 之外进行，不在持有桶锁时做数据库 I/O
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompressedResponseCache {
+
+    // Spring 管理的 JsonMapper，与其他接口的序列化结果一致
+    private final JsonMapper jsonMapper;
+
+    // 小于该大小的响应不压缩
+    @Value("${forest.compression.min-size:2048}")
+    private int minSize;
+
+    private final Map<String, Body> bodies = new ConcurrentHashMap<>();
+    // 取得版本的先后顺序；版本号本身不保证单调，安装时按此保留较晚取得的结果
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 返回 JSON 响应，客户端支持 gzip 且内容达到阈值时返回预压缩结果
+     * @param key 缓存键
+     * @param version 数据版本，变化后重新生成；须在加载前取得，加载结果只会比它新
+     * @param loader 数据加载函数，在主库上执行
+     */
+    public ResponseEntity<byte[]> respond(String key, long version, Supplier<Object> loader,
+                                          HttpServletRequest request, HttpServletResponse response) {
+        long seq = sequence.incrementAndGet();
+        Body body = bodies.get(key);
+        if (body == null || body.version != version) {
+            Body built = build(key, version, seq, ReplicaRoutingDataSource.readFromPrimary(loader));
+            bodies.merge(key, built, (existing, fresh) -> existing.seq > fresh.seq ? existing : fresh);
+            body = built;
+        }
+
+        // 响应内容随 Accept-Encoding 变化，共享缓存须按其区分
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (body.gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            // 同一版本的压缩表示使用不同的强 ETag
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null && etag.endsWith("\"")) {
+                response.setHeader(HttpHeaders.ETAG,
+                        etag.substring(0, etag.length() - 1) + DataVersionETagInterceptor.GZIP_SUFFIX + "\"");
+            }
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip);
+        }
+        return builder.body(body.identity);
+    }
+
+    private Body build(String key, long version, long seq, Object data) {
+        try {
+            byte[] identity = jsonMapper.writeValueAsBytes(data);
+            byte[] gzip = null;
+            if (identity.length >= minSize) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(identity.length / 4);
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    out.write(identity);
+                }
+                gzip = buffer.toByteArray();
+            }
+            log.debug("生成预压缩响应: {}, 版本: {}, 原始: {} bytes, gzip: {} bytes",
+                    key, version, identity.length, gzip != null ? gzip.length : 0);
+            return new Body(version, seq, identity, gzip);
+        } catch (IOException e) {
+            throw new RuntimeException("响应序列化失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 解析 Accept-Encoding，gzip 的 q 值大于 0 时视为支持
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            if (!"gzip".equals(coding) && !"*".equals(coding)) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private record Body(long version, long seq, byte[] identity, byte[] gzip) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.ceshi.forest.util;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * MyBatis 游标工具
+ * 调用方须处于事务中（autocommit 关闭），PgJDBC 才会按 fetchSize 分批读取
+ */
+public final class CursorUtil {
+
+    private CursorUtil() {
+    }
+
+    /**
+     * 逐行转换为列表，转换完成后关闭游标；不产生中间的实体列表
+     */
+    public static <E, D> List<D> mapToList(Cursor<E> cursor, Function<? super E, ? extends D> mapper) {
+        List<D> result = new ArrayList<>();
+        try (cursor) {
+            for (E row : cursor) {
+                result.add(mapper.apply(row));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭游标失败", e);
+        }
+        return result;
+    }
+
+    /**
+     * 将游标包装为逐行转换的一次性 Iterable 交给 reader，reader 返回后关闭游标
+     */
+    public static <E, D> void read(Cursor<E> cursor, Function<? super E, ? extends D> mapper,
+                                   Consumer<Iterable<D>> reader) {
+        try (cursor) {
+            Iterable<D> rows = () -> new Iterator<>() {
+                private final Iterator<E> source = cursor.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return source.hasNext();
+                }
+
+                @Override
+                public D next() {
+                    return mapper.apply(source.next());
+                }
+            };
+            reader.accept(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭游标失败", e);
+        }
+    }
+}
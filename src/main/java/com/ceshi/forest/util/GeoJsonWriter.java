@@ -0,0 +1,90 @@
+package com.ceshi.forest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.locationtech.jts.geom.*;
+
+import java.io.IOException;
+
+/**
+ * GeoJSON 几何写出工具
+ * 直接写入 JsonGenerator，坐标按精度四舍五入
+ */
+public class GeoJsonWriter {
+
+    private GeoJsonWriter() {
+    }
+
+    /**
+     * 写出点几何
+     * @param scale 10 的精度次方，如 6 位小数传 1e6
+     */
+    public static void writePoint(JsonGenerator gen, double lon, double lat, double scale) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "Point");
+        gen.writeFieldName("coordinates");
+        writeCoordinate(gen, lon, lat, scale);
+        gen.writeEndObject();
+    }
+
+    /**
+     * 写出任意几何，为空时写出 null
+     */
+    public static void writeGeometry(JsonGenerator gen, Geometry geometry, double scale) throws IOException {
+        if (geometry == null || geometry.isEmpty()) {
+            gen.writeNull();
+            return;
+        }
+
+        gen.writeStartObject();
+        gen.writeStringField("type", geometry.getGeometryType());
+        if (geometry instanceof GeometryCollection && !(geometry instanceof MultiPoint)
+                && !(geometry instanceof MultiLineString) && !(geometry instanceof MultiPolygon)) {
+            gen.writeArrayFieldStart("geometries");
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                writeGeometry(gen, geometry.getGeometryN(i), scale);
+            }
+            gen.writeEndArray();
+        } else {
+            gen.writeFieldName("coordinates");
+            writeCoordinates(gen, geometry, scale);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeCoordinates(JsonGenerator gen, Geometry geometry, double scale) throws IOException {
+        if (geometry instanceof Point point) {
+            writeCoordinate(gen, point.getX(), point.getY(), scale);
+        } else if (geometry instanceof LineString line) {
+            writeSequence(gen, line.getCoordinateSequence(), scale);
+        } else if (geometry instanceof Polygon polygon) {
+            gen.writeStartArray();
+            writeSequence(gen, polygon.getExteriorRing().getCoordinateSequence(), scale);
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                writeSequence(gen, polygon.getInteriorRingN(i).getCoordinateSequence(), scale);
+            }
+            gen.writeEndArray();
+        } else {
+            // MultiPoint / MultiLineString / MultiPolygon
+            gen.writeStartArray();
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                writeCoordinates(gen, geometry.getGeometryN(i), scale);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static void writeSequence(JsonGenerator gen, CoordinateSequence sequence, double scale) throws IOException {
+        gen.writeStartArray();
+        for (int i = 0; i < sequence.size(); i++) {
+            writeCoordinate(gen, sequence.getX(i), sequence.getY(i), scale);
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeCoordinate(JsonGenerator gen, double x, double y, double scale) throws IOException {
+        gen.writeStartArray();
+        gen.writeNumber(Math.round(x * scale) / scale);
+        gen.writeNumber(Math.round(y * scale) / scale);
+        gen.writeEndArray();
+    }
+}
@@ -24,6 +24,18 @@ public class GeometryUtil {
 
     private static final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
+    // 地球平均半径（米）
+    public static final double EARTH_RADIUS_METERS = 6371000.0;
+
+    // Web墨卡托投影范围半宽（米）
+    private static final double WEB_MERCATOR_HALF = 20037508.34;
+
+    // Web墨卡托有效纬度范围
+    private static final double WEB_MERCATOR_MAX_LAT = 85.05112878;
+
+    // Geohash 编码字符表
+    private static final char[] GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
     /**
      * 创建Point几何对象（WGS84）
      * @param longitude 经度
@@ -70,8 +82,14 @@ public class GeometryUtil {
             return Double.NaN;
         }
 
-        final int R = 6371000; // 地球半径（米）
+        return haversine(lon1, lat1, lon2, lat2);
+    }
 
+    /**
+     * Haversine 距离（基本类型参数）
+     * @return 距离（米）
+     */
+    public static double haversine(double lon1, double lat1, double lon2, double lat2) {
         double latDistance = Math.toRadians(lat2 - lat1);
         double lonDistance = Math.toRadians(lon2 - lon1);
 
@@ -81,7 +99,194 @@ public class GeometryUtil {
 
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
 
-        return R * c;
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    // ==================== 批量计算（基本类型、无对象分配） ====================
+
+    /**
+     * 批量计算原点到 N 个点的球面距离（Haversine），原点的三角函数只计算一次
+     * @param originLon 原点经度
+     * @param originLat 原点纬度
+     * @param lons 经度数组
+     * @param lats 纬度数组
+     * @param out 距离输出（米），长度不小于 count
+     * @param count 点数量
+     */
+    public static void distancesHaversine(double originLon, double originLat,
+                                          double[] lons, double[] lats, double[] out, int count) {
+        double lon0 = Math.toRadians(originLon);
+        double lat0 = Math.toRadians(originLat);
+        double cosLat0 = Math.cos(lat0);
+
+        for (int i = 0; i < count; i++) {
+            double lat = Math.toRadians(lats[i]);
+            double sinHalfDLat = Math.sin((lat - lat0) * 0.5);
+            double sinHalfDLon = Math.sin((Math.toRadians(lons[i]) - lon0) * 0.5);
+            double a = sinHalfDLat * sinHalfDLat + cosLat0 * Math.cos(lat) * sinHalfDLon * sinHalfDLon;
+            out[i] = 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        }
+    }
+
+    /**
+     * 批量计算距离的快速近似（等距矩形投影），每个点只有乘法和一次开方
+     * <p>
+     * 误差：经度方向使用原点纬度的 cos，相对误差约为 tan|纬度| × |纬度差(弧度)| / 2。
+     * 在纬度 45° 以内、距离 50km 以内时不超过 0.4%，距离越远、纬度越高误差越大，
+     * 需要精确结果时请对临界点再用 Haversine 复核（见 filterWithinRadius）
+     * </p>
+     */
+    public static void distancesEquirectangular(double originLon, double originLat,
+                                                double[] lons, double[] lats, double[] out, int count) {
+        double kx = Math.toRadians(1) * Math.cos(Math.toRadians(originLat)) * EARTH_RADIUS_METERS;
+        double ky = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+        for (int i = 0; i < count; i++) {
+            double dx = (lons[i] - originLon) * kx;
+            double dy = (lats[i] - originLat) * ky;
+            out[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * 筛选半径内的点：先用等距矩形近似比较平方距离，只对误差带内的点用 Haversine 复核
+     * @param indexes 输出命中点的下标，长度不小于 count
+     * @return 命中数量
+     */
+    public static int filterWithinRadius(double originLon, double originLat, double radiusMeters,
+                                         double[] lons, double[] lats, int count, int[] indexes) {
+        double kx = Math.toRadians(1) * Math.cos(Math.toRadians(originLat)) * EARTH_RADIUS_METERS;
+        double ky = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+        // 误差带：近似距离在 [r(1-e), r(1+e)] 之间的点需要复核
+        double margin = equirectangularErrorBound(originLat, radiusMeters);
+        double inner = radiusMeters * (1 - margin);
+        double outer = radiusMeters * (1 + margin);
+        double innerSq = inner * inner;
+        double outerSq = outer * outer;
+
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            double dx = (lons[i] - originLon) * kx;
+            double dy = (lats[i] - originLat) * ky;
+            double distSq = dx * dx + dy * dy;
+            if (distSq <= innerSq
+                    || (distSq <= outerSq && haversine(originLon, originLat, lons[i], lats[i]) <= radiusMeters)) {
+                indexes[hits++] = i;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 等距矩形近似在指定纬度、半径内的相对误差上界
+     * cos 项误差 tan|纬度|×Δ/2 取 2 倍安全系数，另加平面近似的曲率项 Δ²
+     */
+    public static double equirectangularErrorBound(double originLat, double radiusMeters) {
+        double maxDLat = radiusMeters / EARTH_RADIUS_METERS;
+        double lat = Math.min(Math.abs(originLat) + Math.toDegrees(maxDLat), 89.0);
+        return Math.max(1e-6, Math.tan(Math.toRadians(lat)) * maxDLat + maxDLat * maxDLat);
+    }
+
+    /**
+     * WGS84 批量原地转换为 Web墨卡托，纬度超出投影范围时截断
+     * @param xs 输入经度，输出 X
+     * @param ys 输入纬度，输出 Y
+     * @param count 点数量
+     */
+    public static void toWebMercatorInPlace(double[] xs, double[] ys, int count) {
+        double kx = WEB_MERCATOR_HALF / 180;
+        double ky = WEB_MERCATOR_HALF / Math.PI;
+        for (int i = 0; i < count; i++) {
+            double lat = Math.max(-WEB_MERCATOR_MAX_LAT, Math.min(WEB_MERCATOR_MAX_LAT, ys[i]));
+            xs[i] = xs[i] * kx;
+            ys[i] = Math.log(Math.tan((90 + lat) * Math.PI / 360)) * ky;
+        }
+    }
+
+    /**
+     * WGS84 批量原地转换为 Web墨卡托（交错数组 lon0, lat0, lon1, lat1, ...）
+     * @param coords 交错坐标数组
+     * @param offset 起始下标
+     * @param count 点数量
+     */
+    public static void toWebMercatorInPlace(double[] coords, int offset, int count) {
+        double kx = WEB_MERCATOR_HALF / 180;
+        double ky = WEB_MERCATOR_HALF / Math.PI;
+        int end = offset + count * 2;
+        for (int i = offset; i < end; i += 2) {
+            double lat = Math.max(-WEB_MERCATOR_MAX_LAT, Math.min(WEB_MERCATOR_MAX_LAT, coords[i + 1]));
+            coords[i] = coords[i] * kx;
+            coords[i + 1] = Math.log(Math.tan((90 + lat) * Math.PI / 360)) * ky;
+        }
+    }
+
+    /**
+     * 计算矩形范围，写入调用方提供的数组
+     * @param out 输出 [minLon, minLat, maxLon, maxLat]
+     */
+    public static void calculateExtent(double centerLon, double centerLat,
+                                       double widthMeters, double heightMeters, double[] out) {
+        double latDelta = (heightMeters / 2) / 111000.0;
+        double lonDelta = (widthMeters / 2) / (111000.0 * Math.cos(Math.toRadians(centerLat)));
+        out[0] = centerLon - lonDelta;
+        out[1] = centerLat - latDelta;
+        out[2] = centerLon + lonDelta;
+        out[3] = centerLat + latDelta;
+    }
+
+    // ==================== Geohash ====================
+
+    /**
+     * 计算 Geohash 编码
+     * @param precision 编码长度（1-12）
+     */
+    public static String geohash(double lon, double lat, int precision) {
+        double minLon = -180, maxLon = 180;
+        double minLat = -90, maxLat = 90;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        int length = 0;
+
+        while (length < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash[length++] = GEOHASH_BASE32[ch];
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return new String(hash);
+    }
+
+    /**
+     * Geohash 单元的经度宽度（度）
+     */
+    public static double geohashCellWidth(int precision) {
+        int lonBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lonBits);
     }
 
     /**
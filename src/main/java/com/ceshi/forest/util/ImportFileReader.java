@@ -0,0 +1,295 @@
+package com.ceshi.forest.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入文件流式读取
+ * CSV 逐字符解析、xlsx 使用 POI SAX 事件模型、GeoJSON 使用 Jackson 流式解析逐个读取要素，
+ * 内存占用与文件大小无关，只与单行（单个要素）大小有关
+ */
+public final class ImportFileReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private ImportFileReader() {
+    }
+
+    /**
+     * 逐行回调
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowNumber 行号（CSV/xlsx 为数据行号，从 1 开始；GeoJSON 为要素序号）
+         * @param values 列名 -> 原始文本，空单元格不出现
+         * @param geometry GeoJSON 要素几何，其他格式为 null
+         */
+        void row(int rowNumber, Map<String, String> values, Geometry geometry);
+    }
+
+    // ==================== CSV ====================
+
+    /**
+     * 读取 UTF-8 CSV（RFC 4180：双引号包裹、"" 转义、字段内可换行），首行为表头
+     */
+    public static void readCsv(InputStream in, RowHandler handler) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        // 去掉 Excel 另存为 UTF-8 CSV 时的 BOM
+        if (!header.isEmpty() && !header.get(0).isEmpty() && header.get(0).charAt(0) == '\uFEFF') {
+            header.set(0, header.get(0).substring(1));
+        }
+        int rowNumber = 0;
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(header.size(), record.size()); i++) {
+                putIfNotBlank(values, header.get(i), record.get(i));
+            }
+            handler.row(rowNumber, values, null);
+        }
+    }
+
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // ==================== xlsx ====================
+
+    /**
+     * 读取 xlsx 第一个工作表，首行为表头；单元格按显示格式取文本
+     */
+    public static void readXlsx(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new SheetRowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("解析 Excel 文件失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> header = new ArrayList<>();
+        private final Map<Integer, String> cells = new LinkedHashMap<>();
+        private int headerRow = -1;
+        private int dataRows;
+
+        SheetRowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.isEmpty()) {
+                return;
+            }
+            if (headerRow < 0) {
+                headerRow = rowNum;
+                cells.forEach((col, value) -> {
+                    while (header.size() <= col) {
+                        header.add("");
+                    }
+                    header.set(col, value.trim());
+                });
+                return;
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            cells.forEach((col, value) -> {
+                if (col < header.size()) {
+                    putIfNotBlank(values, header.get(col), value);
+                }
+            });
+            handler.row(++dataRows, values, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference != null && formattedValue != null) {
+                cells.put((int) new CellReference(cellReference).getCol(), formattedValue);
+            }
+        }
+    }
+
+    // ==================== GeoJSON ====================
+
+    /**
+     * 读取 GeoJSON FeatureCollection：properties 作为列，geometry 支持 Point / Polygon / MultiPolygon
+     */
+    public static void readGeoJson(InputStream in, RowHandler handler) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("GeoJSON 必须是 FeatureCollection 对象");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"features".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value != JsonToken.START_ARRAY) {
+                    throw new IOException("features 必须是数组");
+                }
+                int index = 0;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode feature = parser.readValueAsTree();
+                    index++;
+                    Map<String, String> values = new LinkedHashMap<>();
+                    JsonNode properties = feature.path("properties");
+                    properties.properties().forEach(e -> {
+                        JsonNode node = e.getValue();
+                        if (!node.isNull()) {
+                            putIfNotBlank(values, e.getKey(), node.isValueNode() ? node.asText() : node.toString());
+                        }
+                    });
+                    handler.row(index, values, toGeometry(feature.path("geometry")));
+                }
+            }
+        }
+    }
+
+    private static Geometry toGeometry(JsonNode geometry) throws IOException {
+        if (geometry.isMissingNode() || geometry.isNull()) {
+            return null;
+        }
+        JsonNode coordinates = geometry.path("coordinates");
+        String type = geometry.path("type").asText();
+        return switch (type) {
+            case "Point" -> GEOMETRY_FACTORY.createPoint(toCoordinate(coordinates));
+            case "Polygon" -> toPolygon(coordinates);
+            case "MultiPolygon" -> {
+                Polygon[] polygons = new Polygon[coordinates.size()];
+                for (int i = 0; i < polygons.length; i++) {
+                    polygons[i] = toPolygon(coordinates.get(i));
+                }
+                yield GEOMETRY_FACTORY.createMultiPolygon(polygons);
+            }
+            default -> throw new IOException("不支持的几何类型: " + type);
+        };
+    }
+
+    private static Polygon toPolygon(JsonNode rings) {
+        LinearRing shell = toRing(rings.get(0));
+        LinearRing[] holes = new LinearRing[Math.max(0, rings.size() - 1)];
+        for (int i = 0; i < holes.length; i++) {
+            holes[i] = toRing(rings.get(i + 1));
+        }
+        return GEOMETRY_FACTORY.createPolygon(shell, holes);
+    }
+
+    private static LinearRing toRing(JsonNode points) {
+        Coordinate[] coords = new Coordinate[points.size()];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = toCoordinate(points.get(i));
+        }
+        return GEOMETRY_FACTORY.createLinearRing(coords);
+    }
+
+    private static Coordinate toCoordinate(JsonNode point) {
+        return new Coordinate(point.get(0).asDouble(), point.get(1).asDouble());
+    }
+
+    private static void putIfNotBlank(Map<String, String> values, String key, String value) {
+        if (key != null && !key.isBlank() && value != null && !value.isBlank()) {
+            values.put(key.trim(), value.trim());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ceshi.forest.util;
+
+import com.ceshi.forest.entity.ForestStand;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.List;
+
+/**
+ * 林分边界点面索引
+ * 边界预处理为 PreparedGeometry 并放入 STR 树，构建后只读，可被多个线程共享
+ */
+public final class StandBoundaryIndex {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private final STRtree tree;
+    private final int size;
+    private final Envelope extent;
+
+    private StandBoundaryIndex(STRtree tree, int size, Envelope extent) {
+        this.tree = tree;
+        this.size = size;
+        this.extent = extent;
+    }
+
+    /**
+     * 构建索引，跳过没有边界的林分
+     */
+    public static StandBoundaryIndex build(List<ForestStand> stands) {
+        STRtree tree = new STRtree();
+        Envelope extent = new Envelope();
+        int size = 0;
+        for (ForestStand stand : stands) {
+            Geometry boundary = stand.getBoundary();
+            if (boundary == null || boundary.isEmpty()) {
+                continue;
+            }
+            PreparedGeometry prepared = PreparedGeometryFactory.prepare(boundary);
+            tree.insert(boundary.getEnvelopeInternal(),
+                    new Entry(stand.getStandId(), stand.getXiaoBanCode(), stand.getStandName(), prepared));
+            extent.expandToInclude(boundary.getEnvelopeInternal());
+            size++;
+        }
+        tree.build();
+        return new StandBoundaryIndex(tree, size, extent);
+    }
+
+    /**
+     * 边界上的点也算在内；重叠时取 standId 最小的林分，与 PostGIS ST_Covers 查询保持一致
+     * @return 不在任何林分内时返回 null
+     */
+    public Entry find(double lon, double lat) {
+        Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(lon, lat));
+        Entry best = null;
+        for (Object candidate : tree.query(new Envelope(lon, lon, lat, lat))) {
+            Entry entry = (Entry) candidate;
+            if ((best == null || entry.standId() < best.standId()) && entry.geometry().covers(point)) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Envelope extent() {
+        return extent;
+    }
+
+    public record Entry(Integer standId, String xiaoBanCode, String standName, PreparedGeometry geometry) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.ceshi.forest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 增量同步游标：(afterXid, afterId) 为已返回的最后一个变更键
+ * full 表示首次全量同步尚未结束（不返回墓碑和已删除记录），startXid 为全量开始时的水位，
+ * 全量结束后从该水位重新增量拉取，补上翻页期间发生的删除；sinceTime 仅在按时间起步且未翻完时携带
+ *
+ * @param full      首次全量同步
+ * @param startXid  全量开始时的水位，0 表示尚未开始
+ * @param afterXid  已返回的最后事务号
+ * @param afterId   已返回的最后主键
+ * @param sinceTime 起始时间，可为空
+ */
+public record SyncToken(boolean full, long startXid, long afterXid, int afterId, LocalDateTime sinceTime) {
+
+    private static final String VERSION = "v1";
+
+    public static SyncToken initial() {
+        return new SyncToken(true, 0, 0, 0, null);
+    }
+
+    /**
+     * 解析 since 参数：空为首次全量；纯数字为毫秒时间戳；ISO 时间；否则按上次返回的游标解析
+     */
+    public static SyncToken parse(String since) {
+        if (since == null || since.isBlank()) {
+            return initial();
+        }
+        String value = since.trim();
+        if (value.chars().allMatch(Character::isDigit)) {
+            return new SyncToken(false, 0, 0, 0,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(value)), ZoneId.systemDefault()));
+        }
+        try {
+            return new SyncToken(false, 0, 0, 0, LocalDateTime.parse(value));
+        } catch (DateTimeParseException ignored) {
+            // 不是时间，按游标解析
+        }
+        return decode(value);
+    }
+
+    /**
+     * 编码为 URL 安全的字符串
+     */
+    public String encode() {
+        String raw = String.join("|", VERSION, full ? "1" : "0", Long.toString(startXid), Long.toString(afterXid), Integer.toString(afterId),
+                sinceTime != null ? sinceTime.toString() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new SyncToken("1".equals(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                    Integer.parseInt(parts[4]), parts[5].isEmpty() ? null : LocalDateTime.parse(parts[5]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("同步游标无效: " + token);
+        }
+    }
+}
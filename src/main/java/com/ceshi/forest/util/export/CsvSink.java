@@ -0,0 +1,71 @@
+package com.ceshi.forest.util.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV：UTF-8 带 BOM（Excel 直接打开不乱码），首行为中文表头
+ */
+class CsvSink<T> implements ExportSink<T> {
+
+    private final List<ExportColumn<T>> columns;
+    private final Writer writer;
+
+    CsvSink(ExportSchema<T> schema, OutputStream out) {
+        this.columns = schema.getColumns();
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void begin(Map<String, Object> meta, int total) throws IOException {
+        writer.write('\uFEFF');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(columns.get(i).getHeader());
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void row(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(columns.get(i).text(row));
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void end(int written) throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * 包含逗号、引号或换行的字段加双引号，内部引号转义为 ""
+     */
+    private void writeField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
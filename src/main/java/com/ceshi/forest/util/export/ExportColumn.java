@@ -0,0 +1,152 @@
+package com.ceshi.forest.util.export;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * 导出列描述：字段名、表头、类型与取值函数
+ * 各输出格式按类型直接写出数值，不经过通用的 Object -> String 转换；
+ * 数值列用空值判断 + 原始类型取值函数，取值时不做装箱和类型转换
+ */
+public final class ExportColumn<T> {
+
+    public enum Type {
+        INT, DOUBLE, STRING, DATE
+    }
+
+    private final String name;
+    private final String header;
+    private final Type type;
+    // 仅 DOUBLE 列使用：CSV 文本与 Excel 显示的小数位数
+    private final int decimals;
+    private final Predicate<T> isNull;
+    private final ToIntFunction<T> intGetter;
+    private final ToDoubleFunction<T> doubleGetter;
+    private final Function<T, String> stringGetter;
+    private final Function<T, LocalDate> dateGetter;
+
+    private ExportColumn(String name, String header, Type type, int decimals, Predicate<T> isNull,
+                         ToIntFunction<T> intGetter, ToDoubleFunction<T> doubleGetter,
+                         Function<T, String> stringGetter, Function<T, LocalDate> dateGetter) {
+        this.name = name;
+        this.header = header;
+        this.type = type;
+        this.decimals = decimals;
+        this.isNull = isNull;
+        this.intGetter = intGetter;
+        this.doubleGetter = doubleGetter;
+        this.stringGetter = stringGetter;
+        this.dateGetter = dateGetter;
+    }
+
+    /**
+     * @param isNull 该行取值为空时返回 true，此时不会调用 getter
+     */
+    public static <T> ExportColumn<T> ofInt(String name, String header, Predicate<T> isNull, ToIntFunction<T> getter) {
+        return new ExportColumn<>(name, header, Type.INT, 0, isNull, getter, null, null, null);
+    }
+
+    /**
+     * @param isNull 该行取值为空时返回 true，此时不会调用 getter
+     */
+    public static <T> ExportColumn<T> ofDouble(String name, String header, int decimals,
+                                               Predicate<T> isNull, ToDoubleFunction<T> getter) {
+        return new ExportColumn<>(name, header, Type.DOUBLE, decimals, isNull, null, getter, null, null);
+    }
+
+    public static <T> ExportColumn<T> ofString(String name, String header, Function<T, String> getter) {
+        return new ExportColumn<>(name, header, Type.STRING, 0, row -> getter.apply(row) == null,
+                null, null, getter, null);
+    }
+
+    public static <T> ExportColumn<T> ofDate(String name, String header, Function<T, LocalDate> getter) {
+        return new ExportColumn<>(name, header, Type.DATE, 0, row -> getter.apply(row) == null,
+                null, null, null, getter);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getDecimals() {
+        return decimals;
+    }
+
+    /**
+     * INT / DOUBLE 列：先判断是否为空，非空再取值
+     */
+    public boolean isNull(T row) {
+        return isNull.test(row);
+    }
+
+    /**
+     * INT 列取值，调用方须先确认非空
+     */
+    public int intValue(T row) {
+        return intGetter.applyAsInt(row);
+    }
+
+    /**
+     * DOUBLE 列取值，调用方须先确认非空
+     */
+    public double doubleValue(T row) {
+        return doubleGetter.applyAsDouble(row);
+    }
+
+    /**
+     * DATE 列取值，可能为 null
+     */
+    public LocalDate dateValue(T row) {
+        return dateGetter.apply(row);
+    }
+
+    /**
+     * STRING / DATE 列取值，可能为 null
+     */
+    public String stringValue(T row) {
+        if (type == Type.DATE) {
+            LocalDate value = dateGetter.apply(row);
+            return value != null ? value.toString() : null;
+        }
+        return stringGetter.apply(row);
+    }
+
+    /**
+     * 文本形式：空值为空串，DOUBLE 按小数位数四舍五入，DATE 为 yyyy-MM-dd
+     */
+    public String text(T row) {
+        switch (type) {
+            case INT -> {
+                return isNull(row) ? "" : Integer.toString(intValue(row));
+            }
+            case DOUBLE -> {
+                if (isNull(row)) {
+                    return "";
+                }
+                double d = doubleValue(row);
+                if (Double.isNaN(d) || Double.isInfinite(d)) {
+                    return "";
+                }
+                // 与 String.format("%.2f") 结果一致，省去格式串解析
+                return BigDecimal.valueOf(d).setScale(decimals, RoundingMode.HALF_UP).toPlainString();
+            }
+            default -> {
+                String value = stringValue(row);
+                return value != null ? value : "";
+            }
+        }
+    }
+}
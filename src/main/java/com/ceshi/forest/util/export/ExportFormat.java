@@ -0,0 +1,105 @@
+package com.ceshi.forest.util.export;
+
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * 导出格式：扩展名、Content-Type 与对应的写出器
+ */
+public enum ExportFormat {
+
+    CSV("csv", "text/csv;charset=UTF-8") {
+        @Override
+        <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) {
+            return new CsvSink<>(schema, out);
+        }
+    },
+
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet") {
+        @Override
+        <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) {
+            return new XlsxSink<>(schema, out);
+        }
+    },
+
+    JSON("json", "application/json;charset=UTF-8") {
+        @Override
+        <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) throws IOException {
+            return new JsonSink<>(schema, out);
+        }
+    },
+
+    GEOJSON("geojson", "application/geo+json") {
+        @Override
+        <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) throws IOException {
+            return new GeoJsonSink<>(schema, out);
+        }
+
+        @Override
+        public boolean supports(ExportSchema<?> schema) {
+            return schema.hasGeometry();
+        }
+    },
+
+    // Snappy 压缩快，适合在线下载
+    PARQUET("parquet", "application/vnd.apache.parquet") {
+        @Override
+        <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) {
+            return new ParquetSink<>(schema, out, CompressionCodecName.SNAPPY);
+        }
+    },
+
+    // ZSTD 文件更小，适合归档与离线分析
+    PARQUET_ZSTD("parquet", "application/vnd.apache.parquet") {
+        @Override
+        <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) {
+            return new ParquetSink<>(schema, out, CompressionCodecName.ZSTD);
+        }
+    };
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    abstract <T> ExportSink<T> open(ExportSchema<T> schema, OutputStream out) throws IOException;
+
+    /**
+     * 数据集能否以该格式导出（GeoJSON 需要几何）
+     */
+    public boolean supports(ExportSchema<?> schema) {
+        return true;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 解析请求参数，excel 与 xlsx 等价，parquet-zstd 为 ZSTD 压缩的 Parquet；为空时为 CSV
+     */
+    public static ExportFormat of(String format) {
+        if (format == null || format.isBlank()) {
+            return CSV;
+        }
+        return switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "excel", "xlsx" -> XLSX;
+            case "json" -> JSON;
+            case "geojson" -> GEOJSON;
+            case "parquet" -> PARQUET;
+            case "parquet-zstd" -> PARQUET_ZSTD;
+            default -> throw new RuntimeException("不支持的导出格式: " + format);
+        };
+    }
+}
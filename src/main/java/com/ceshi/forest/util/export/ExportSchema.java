@@ -0,0 +1,153 @@
+package com.ceshi.forest.util.export;
+
+import com.ceshi.forest.util.GeoJsonWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * 导出数据集定义：列顺序即输出顺序
+ * 新增数据集只需定义一个 schema，各输出格式通用
+ */
+public final class ExportSchema<T> {
+
+    private final String name;
+    private final String title;
+    private final List<ExportColumn<T>> columns;
+    private final Function<T, Integer> featureId;
+    private final GeometryWriter<T> geometry;
+
+    private ExportSchema(Builder<T> builder) {
+        this.name = builder.name;
+        this.title = builder.title;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(builder.columns));
+        this.featureId = builder.featureId;
+        this.geometry = builder.geometry;
+    }
+
+    /**
+     * @param name 数据集名，用作 JSON 数组字段名
+     * @param title 中文名，用作工作表名与日志
+     */
+    public static <T> Builder<T> builder(String name, String title) {
+        return new Builder<>(name, title);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<ExportColumn<T>> getColumns() {
+        return columns;
+    }
+
+    public Function<T, Integer> getFeatureId() {
+        return featureId;
+    }
+
+    public GeometryWriter<T> getGeometry() {
+        return geometry;
+    }
+
+    public boolean hasGeometry() {
+        return geometry != null;
+    }
+
+    /**
+     * 写出一行的 GeoJSON 几何，无几何时写出 null
+     */
+    @FunctionalInterface
+    public interface GeometryWriter<T> {
+        void write(JsonGenerator gen, T row, double scale) throws IOException;
+    }
+
+    public static final class Builder<T> {
+
+        private final String name;
+        private final String title;
+        private final List<ExportColumn<T>> columns = new ArrayList<>();
+        private Function<T, Integer> featureId;
+        private GeometryWriter<T> geometry;
+
+        private Builder(String name, String title) {
+            this.name = name;
+            this.title = title;
+        }
+
+        /**
+         * 整数列，取值来自包装类型的属性
+         */
+        public Builder<T> intColumn(String name, String header, Function<T, Integer> getter) {
+            return intColumn(name, header, row -> getter.apply(row) == null, row -> getter.apply(row));
+        }
+
+        public Builder<T> intColumn(String name, String header, Predicate<T> isNull, ToIntFunction<T> getter) {
+            columns.add(ExportColumn.ofInt(name, header, isNull, getter));
+            return this;
+        }
+
+        /**
+         * 数值列，默认保留 2 位小数
+         */
+        public Builder<T> doubleColumn(String name, String header, Function<T, Double> getter) {
+            return doubleColumn(name, header, 2, getter);
+        }
+
+        public Builder<T> doubleColumn(String name, String header, int decimals, Function<T, Double> getter) {
+            return doubleColumn(name, header, decimals, row -> getter.apply(row) == null, row -> getter.apply(row));
+        }
+
+        public Builder<T> doubleColumn(String name, String header, int decimals,
+                                       Predicate<T> isNull, ToDoubleFunction<T> getter) {
+            columns.add(ExportColumn.ofDouble(name, header, decimals, isNull, getter));
+            return this;
+        }
+
+        public Builder<T> stringColumn(String name, String header, Function<T, String> getter) {
+            columns.add(ExportColumn.ofString(name, header, getter));
+            return this;
+        }
+
+        public Builder<T> dateColumn(String name, String header, Function<T, LocalDate> getter) {
+            columns.add(ExportColumn.ofDate(name, header, getter));
+            return this;
+        }
+
+        /**
+         * 以经纬度点作为 GeoJSON 几何
+         */
+        public Builder<T> point(Function<T, Integer> featureId, Function<T, Double> lonGetter,
+                                Function<T, Double> latGetter) {
+            this.featureId = featureId;
+            this.geometry = (gen, row, scale) -> {
+                Double lon = lonGetter.apply(row);
+                Double lat = latGetter.apply(row);
+                if (lon == null || lat == null) {
+                    gen.writeNull();
+                } else {
+                    GeoJsonWriter.writePoint(gen, lon, lat, scale);
+                }
+            };
+            return this;
+        }
+
+        public ExportSchema<T> build() {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("导出数据集至少需要一列: " + name);
+            }
+            return new ExportSchema<>(this);
+        }
+    }
+}
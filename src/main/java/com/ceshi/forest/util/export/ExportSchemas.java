@@ -0,0 +1,89 @@
+package com.ceshi.forest.util.export;
+
+import com.ceshi.forest.entity.ForestStand;
+import com.ceshi.forest.entity.SamplePlot;
+import com.ceshi.forest.entity.TreeMeasurement;
+
+/**
+ * 各导出数据集定义
+ * JSON 字段名与接口返回的 DTO 字段名一致，表头沿用原单木导出的中文名
+ */
+public final class ExportSchemas {
+
+    public static final ExportSchema<TreeMeasurement> TREES = ExportSchema.<TreeMeasurement>builder("trees", "单木数据")
+            .intColumn("treeId", "单木编号", TreeMeasurement::getTreeId)
+            .intColumn("plotId", "样地编号", TreeMeasurement::getPlotId)
+            .intColumn("treeNo", "树木编号", TreeMeasurement::getTreeNo)
+            .stringColumn("species", "树种", TreeMeasurement::getSpecies)
+            .doubleColumn("dbhAvg", "平均胸径(cm)", TreeMeasurement::getDbhAvg)
+            .doubleColumn("treeHeight", "树高(m)", TreeMeasurement::getTreeHeight)
+            .doubleColumn("diameterHalfHeight", "1/2高处直径(cm)", TreeMeasurement::getDiameterHalfHeight)
+            .doubleColumn("q2", "Q2", TreeMeasurement::getQ2)
+            .doubleColumn("f1", "F1", TreeMeasurement::getF1)
+            .doubleColumn("basalArea", "断面积(m²)", TreeMeasurement::getBasalArea)
+            .doubleColumn("volume", "材积(m³)", TreeMeasurement::getVolume)
+            .doubleColumn("crownWidth", "冠幅(m)", TreeMeasurement::getCrownWidth)
+            .doubleColumn("dbhDirection1", "胸径1(cm)", TreeMeasurement::getDbhDirection1)
+            .doubleColumn("dbhDirection2", "胸径2(cm)", TreeMeasurement::getDbhDirection2)
+            .stringColumn("healthStatus", "健康状况", TreeMeasurement::getHealthStatus)
+            .stringColumn("speciesCode", "树种代码", TreeMeasurement::getSpeciesCode)
+            .dateColumn("surveyDate", "调查日期", TreeMeasurement::getSurveyDate)
+            .stringColumn("treeQuality", "木材质量", TreeMeasurement::getTreeQuality)
+            .intColumn("standId", "林分编号", TreeMeasurement::getStandId)
+            .build();
+
+    public static final ExportSchema<ForestStand> STANDS = ExportSchema.<ForestStand>builder("stands", "林分数据")
+            .intColumn("standId", "林分编号", ForestStand::getStandId)
+            .intColumn("zoneId", "林场编号", ForestStand::getZoneId)
+            .stringColumn("linBan", "林班", ForestStand::getLinBan)
+            .stringColumn("xiaoBan", "小班", ForestStand::getXiaoBan)
+            .stringColumn("xiaoBanCode", "小班编码", ForestStand::getXiaoBanCode)
+            .stringColumn("standName", "林分名称", ForestStand::getStandName)
+            .stringColumn("dominantSpecies", "优势树种", ForestStand::getDominantSpecies)
+            .stringColumn("speciesComposition", "树种组成", ForestStand::getSpeciesComposition)
+            .stringColumn("origin", "起源", ForestStand::getOrigin)
+            .doubleColumn("areaHa", "面积(ha)", ForestStand::getAreaHa)
+            .intColumn("standAge", "林龄", ForestStand::getStandAge)
+            .doubleColumn("canopyDensity", "郁闭度", ForestStand::getCanopyDensity)
+            .doubleColumn("avgDbh", "平均胸径(cm)", ForestStand::getAvgDbh)
+            .doubleColumn("avgHeight", "平均树高(m)", ForestStand::getAvgHeight)
+            .doubleColumn("volumePerHa", "蓄积量(m³/ha)", ForestStand::getVolumePerHa)
+            .doubleColumn("totalVolume", "总蓄积(m³)", ForestStand::getTotalVolume)
+            .stringColumn("siteType", "立地类型", ForestStand::getSiteType)
+            .intColumn("siteClass", "地位级", ForestStand::getSiteClass)
+            .intColumn("elevation", "海拔(m)", ForestStand::getElevation)
+            .doubleColumn("slope", "坡度(°)", ForestStand::getSlope)
+            .stringColumn("aspect", "坡向", ForestStand::getAspect)
+            .doubleColumn("centerLon", "中心经度", 6, ForestStand::getCenterLon)
+            .doubleColumn("centerLat", "中心纬度", 6, ForestStand::getCenterLat)
+            .dateColumn("surveyDate", "调查日期", ForestStand::getSurveyDate)
+            .stringColumn("surveyor", "调查人", ForestStand::getSurveyor)
+            .stringColumn("remark", "备注", ForestStand::getRemark)
+            .point(ForestStand::getStandId, ForestStand::getCenterLon, ForestStand::getCenterLat)
+            .build();
+
+    public static final ExportSchema<SamplePlot> PLOTS = ExportSchema.<SamplePlot>builder("plots", "样地数据")
+            .intColumn("plotId", "样地编号", SamplePlot::getPlotId)
+            .intColumn("standId", "林分编号", SamplePlot::getStandId)
+            .intColumn("plotNo", "样地号", SamplePlot::getPlotNo)
+            .doubleColumn("plotAreaHa", "样地面积(ha)", 4, SamplePlot::getPlotAreaHa)
+            .doubleColumn("plotAreaM2", "样地面积(m²)", SamplePlot::getPlotAreaM2)
+            .dateColumn("surveyDate", "调查日期", SamplePlot::getSurveyDate)
+            .doubleColumn("longitudeDd", "经度", 6, SamplePlot::getLongitudeDd)
+            .doubleColumn("latitudeDd", "纬度", 6, SamplePlot::getLatitudeDd)
+            .intColumn("elevation", "海拔(m)", SamplePlot::getElevation)
+            .doubleColumn("slope", "坡度(°)", SamplePlot::getSlope)
+            .stringColumn("aspect", "坡向", SamplePlot::getAspect)
+            .intColumn("totalTrees", "株数", SamplePlot::getTotalTrees)
+            .doubleColumn("avgDbh", "平均胸径(cm)", SamplePlot::getAvgDbh)
+            .doubleColumn("avgHeight", "平均树高(m)", SamplePlot::getAvgHeight)
+            .doubleColumn("canopyDensity", "郁闭度", SamplePlot::getCanopyDensity)
+            .doubleColumn("totalVolume", "总蓄积(m³)", SamplePlot::getTotalVolume)
+            .doubleColumn("volumePerHa", "蓄积量(m³/ha)", SamplePlot::getVolumePerHa)
+            .stringColumn("surveyor", "调查人", SamplePlot::getSurveyor)
+            .point(SamplePlot::getPlotId, SamplePlot::getLongitudeDd, SamplePlot::getLatitudeDd)
+            .build();
+
+    private ExportSchemas() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.ceshi.forest.util.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 单一格式的逐行写出器，每次导出新建一个
+ * 只持有当前行（Excel 为最近的窗口行），内存占用与行数无关；close 不关闭底层输出流
+ */
+interface ExportSink<T> extends Closeable {
+
+    /**
+     * 写出文件头
+     * @param meta 附加信息（JSON 写在数组之前），可为空
+     * @param total 总行数，未知时为 -1
+     */
+    void begin(Map<String, Object> meta, int total) throws IOException;
+
+    void row(T row) throws IOException;
+
+    /**
+     * 写出文件尾并刷新
+     * @param written 实际写出行数
+     */
+    void end(int written) throws IOException;
+}
@@ -0,0 +1,62 @@
+package com.ceshi.forest.util.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GeoJSON FeatureCollection：各列写入 properties，坐标保留 6 位小数（约 0.1 米）
+ */
+class GeoJsonSink<T> implements ExportSink<T> {
+
+    private static final double SCALE = 1e6;
+
+    private final ExportSchema<T> schema;
+    private final List<ExportColumn<T>> columns;
+    private final JsonGenerator gen;
+
+    GeoJsonSink(ExportSchema<T> schema, OutputStream out) throws IOException {
+        this.schema = schema;
+        this.columns = schema.getColumns();
+        this.gen = JsonSink.JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public void begin(Map<String, Object> meta, int total) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "FeatureCollection");
+        gen.writeArrayFieldStart("features");
+    }
+
+    @Override
+    public void row(T row) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "Feature");
+        Integer id = schema.getFeatureId() != null ? schema.getFeatureId().apply(row) : null;
+        if (id != null) {
+            gen.writeNumberField("id", id);
+        }
+        gen.writeFieldName("geometry");
+        schema.getGeometry().write(gen, row, SCALE);
+        gen.writeObjectFieldStart("properties");
+        JsonSink.writeColumns(gen, columns, row);
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void end(int written) throws IOException {
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gen.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ceshi.forest.util.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON：{meta..., totalCount, <数据集名>: [...], exportTime}
+ * 总数未知时 totalCount 写在数组之后
+ */
+class JsonSink<T> implements ExportSink<T> {
+
+    static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final ExportSchema<T> schema;
+    private final List<ExportColumn<T>> columns;
+    private final JsonGenerator gen;
+    private int total;
+
+    JsonSink(ExportSchema<T> schema, OutputStream out) throws IOException {
+        this.schema = schema;
+        this.columns = schema.getColumns();
+        this.gen = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        gen.useDefaultPrettyPrinter();
+    }
+
+    @Override
+    public void begin(Map<String, Object> meta, int total) throws IOException {
+        this.total = total;
+        gen.writeStartObject();
+        writeMeta(gen, meta);
+        if (total >= 0) {
+            gen.writeNumberField("totalCount", total);
+        }
+        gen.writeArrayFieldStart(schema.getName());
+    }
+
+    @Override
+    public void row(T row) throws IOException {
+        gen.writeStartObject();
+        writeColumns(gen, columns, row);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void end(int written) throws IOException {
+        gen.writeEndArray();
+        if (total < 0) {
+            gen.writeNumberField("totalCount", written);
+        }
+        gen.writeStringField("exportTime", LocalDateTime.now().toString());
+        gen.writeEndObject();
+        gen.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gen.close();
+    }
+
+    static <T> void writeColumns(JsonGenerator gen, List<ExportColumn<T>> columns, T row) throws IOException {
+        for (ExportColumn<T> column : columns) {
+            switch (column.getType()) {
+                case INT -> {
+                    if (column.isNull(row)) {
+                        gen.writeNullField(column.getName());
+                    } else {
+                        gen.writeNumberField(column.getName(), column.intValue(row));
+                    }
+                }
+                case DOUBLE -> {
+                    if (column.isNull(row)) {
+                        gen.writeNullField(column.getName());
+                    } else {
+                        gen.writeNumberField(column.getName(), column.doubleValue(row));
+                    }
+                }
+                default -> {
+                    String value = column.stringValue(row);
+                    if (value == null) {
+                        gen.writeNullField(column.getName());
+                    } else {
+                        gen.writeStringField(column.getName(), value);
+                    }
+                }
+            }
+        }
+    }
+
+    static void writeMeta(JsonGenerator gen, Map<String, Object> meta) throws IOException {
+        if (meta == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : meta.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                gen.writeNullField(entry.getKey());
+            } else if (value instanceof Integer i) {
+                gen.writeNumberField(entry.getKey(), i);
+            } else if (value instanceof Double d) {
+                gen.writeNumberField(entry.getKey(), d);
+            } else {
+                gen.writeStringField(entry.getKey(), value.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.ceshi.forest.util.export;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parquet：按列类型写出（INT32 / DOUBLE / UTF8 / DATE），文本列字典编码
+ * 行直接交给 RecordConsumer，不生成中间对象；内存中只缓存当前行组，写满后压缩输出
+ */
+class ParquetSink<T> implements ExportSink<T> {
+
+    // 行组越大列式压缩与扫描越好，但每个导出会在内存中缓存一个行组
+    private static final long ROW_GROUP_SIZE = 16L * 1024 * 1024;
+    private static final int PAGE_SIZE = 1024 * 1024;
+
+    private final ExportSchema<T> schema;
+    private final OutputStream out;
+    private final CompressionCodecName codec;
+    private ParquetWriter<T> writer;
+
+    ParquetSink(ExportSchema<T> schema, OutputStream out, CompressionCodecName codec) {
+        this.schema = schema;
+        this.out = out;
+        this.codec = codec;
+    }
+
+    @Override
+    public void begin(Map<String, Object> meta, int total) throws IOException {
+        Builder<T> builder = new Builder<>(new StreamOutputFile(out), new SchemaWriteSupport<>(schema))
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(codec)
+                .withRowGroupSize(ROW_GROUP_SIZE)
+                .withPageSize(PAGE_SIZE)
+                .withDictionaryPageSize(PAGE_SIZE)
+                // 数值列基数高，字典只用于文本列（树种、健康状况等）
+                .withDictionaryEncoding(false);
+        for (ExportColumn<T> column : schema.getColumns()) {
+            if (column.getType() == ExportColumn.Type.STRING) {
+                builder.withDictionaryEncoding(column.getName(), true);
+            }
+        }
+        writer = builder.build();
+    }
+
+    @Override
+    public void row(T row) throws IOException {
+        writer.write(row);
+    }
+
+    @Override
+    public void end(int written) throws IOException {
+        // 写出最后一个行组与文件尾
+        writer.close();
+        writer = null;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    static MessageType toMessageType(ExportSchema<?> schema) {
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        for (ExportColumn<?> column : schema.getColumns()) {
+            switch (column.getType()) {
+                case INT -> builder.optional(PrimitiveTypeName.INT32).named(column.getName());
+                case DOUBLE -> builder.optional(PrimitiveTypeName.DOUBLE).named(column.getName());
+                case DATE -> builder.optional(PrimitiveTypeName.INT32)
+                        .as(LogicalTypeAnnotation.dateType()).named(column.getName());
+                default -> builder.optional(PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.stringType()).named(column.getName());
+            }
+        }
+        return builder.named(schema.getName());
+    }
+
+    private static class Builder<T> extends ParquetWriter.Builder<T, Builder<T>> {
+
+        private final WriteSupport<T> writeSupport;
+
+        Builder(OutputFile file, WriteSupport<T> writeSupport) {
+            super(file);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected Builder<T> self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<T> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+
+        @Override
+        protected WriteSupport<T> getWriteSupport(ParquetConfiguration conf) {
+            return writeSupport;
+        }
+    }
+
+    /**
+     * 按数据集列定义逐字段写出，空值字段跳过（optional）
+     */
+    private static class SchemaWriteSupport<T> extends WriteSupport<T> {
+
+        private final ExportSchema<T> schema;
+        private final List<ExportColumn<T>> columns;
+        private RecordConsumer consumer;
+
+        SchemaWriteSupport(ExportSchema<T> schema) {
+            this.schema = schema;
+            this.columns = schema.getColumns();
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(toMessageType(schema), Map.of("forest.dataset", schema.getName()));
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(T row) {
+            consumer.startMessage();
+            for (int i = 0; i < columns.size(); i++) {
+                ExportColumn<T> column = columns.get(i);
+                switch (column.getType()) {
+                    case INT -> {
+                        if (!column.isNull(row)) {
+                            consumer.startField(column.getName(), i);
+                            consumer.addInteger(column.intValue(row));
+                            consumer.endField(column.getName(), i);
+                        }
+                    }
+                    case DOUBLE -> {
+                        if (!column.isNull(row)) {
+                            consumer.startField(column.getName(), i);
+                            consumer.addDouble(column.doubleValue(row));
+                            consumer.endField(column.getName(), i);
+                        }
+                    }
+                    case DATE -> {
+                        LocalDate value = column.dateValue(row);
+                        if (value != null) {
+                            consumer.startField(column.getName(), i);
+                            consumer.addInteger((int) value.toEpochDay());
+                            consumer.endField(column.getName(), i);
+                        }
+                    }
+                    default -> {
+                        String value = column.stringValue(row);
+                        if (value != null) {
+                            consumer.startField(column.getName(), i);
+                            consumer.addBinary(Binary.fromString(value));
+                            consumer.endField(column.getName(), i);
+                        }
+                    }
+                }
+            }
+            consumer.endMessage();
+        }
+    }
+
+    /**
+     * 顺序写出到任意输出流（如 HTTP 响应），Parquet 只需要当前写入位置，不需要随机访问
+     */
+    private static class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                // 底层流由调用方关闭
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+
+        public String getPath() {
+            return "stream";
+        }
+    }
+}
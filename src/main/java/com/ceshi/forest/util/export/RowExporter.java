@@ -0,0 +1,63 @@
+package com.ceshi.forest.util.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * 按数据集定义逐行导出
+ * rows 可以是游标，只遍历一次；任何格式都不在内存中保留整个结果集
+ */
+public final class RowExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowExporter.class);
+
+    private RowExporter() {
+    }
+
+    /**
+     * @param total 总行数，用于进度回调与 JSON 的 totalCount；未知时传 -1
+     * @param meta JSON 附加字段，可为空
+     * @param out 输出流（不会被关闭）
+     * @param listener 进度回调，可为空
+     * @return 写出的行数
+     */
+    public static <T> int export(ExportSchema<T> schema, ExportFormat format, Iterable<T> rows, int total,
+                                 Map<String, Object> meta, OutputStream out, ProgressListener listener) {
+        if (!format.supports(schema)) {
+            throw new RuntimeException(schema.getTitle() + "不支持导出为 " + format.getExtension());
+        }
+        logger.info("开始导出{}，格式: {}，记录数: {}", schema.getTitle(), format.getExtension(),
+                total >= 0 ? total : "未知");
+
+        int written = 0;
+        try (ExportSink<T> sink = format.open(schema, out)) {
+            sink.begin(meta, total);
+            for (T row : rows) {
+                sink.row(row);
+                written++;
+                if (listener != null) {
+                    listener.onProgress(written, total);
+                }
+            }
+            sink.end(written);
+        } catch (IOException e) {
+            logger.error("{}导出失败: {}", schema.getTitle(), e.getMessage(), e);
+            throw new RuntimeException(format.getExtension().toUpperCase() + " 导出失败", e);
+        }
+
+        logger.info("{}导出完成，格式: {}，记录数: {}", schema.getTitle(), format.getExtension(), written);
+        return written;
+    }
+
+    /**
+     * 导出进度回调
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int written, int total);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ceshi.forest.util.export;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Excel (xlsx)：SXSSF 流式写入，内存中只保留最近 ROW_ACCESS_WINDOW 行，其余行落到临时文件。
+ * 列宽按表头与前 ROW_ACCESS_WINDOW 行的文本长度估算，不使用 autoSizeColumn（逐行测量字体宽度开销大）
+ */
+class XlsxSink<T> implements ExportSink<T> {
+
+    // SXSSF 内存中保留的行数
+    private static final int ROW_ACCESS_WINDOW = 500;
+
+    private final ExportSchema<T> schema;
+    private final List<ExportColumn<T>> columns;
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+    private SXSSFSheet sheet;
+    private CellStyle[] styles;
+    // 各列已见到的最大显示宽度（半角字符数）
+    private int[] widths;
+    private int rowNum;
+
+    XlsxSink(ExportSchema<T> schema, OutputStream out) {
+        this.schema = schema;
+        this.columns = schema.getColumns();
+        this.out = out;
+    }
+
+    @Override
+    public void begin(Map<String, Object> meta, int total) {
+        sheet = workbook.createSheet(schema.getTitle());
+        widths = new int[columns.size()];
+
+        CellStyle headerStyle = createHeaderStyle();
+        CellStyle dataStyle = createDataStyle();
+        // 同一小数位数的列共用一个样式，工作簿样式数量有上限
+        Map<Integer, CellStyle> numberStyles = new HashMap<>();
+        styles = new CellStyle[columns.size()];
+
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columns.size(); i++) {
+            ExportColumn<T> column = columns.get(i);
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(column.getHeader());
+            cell.setCellStyle(headerStyle);
+            widths[i] = displayWidth(column.getHeader());
+            styles[i] = column.getType() == ExportColumn.Type.DOUBLE
+                    ? numberStyles.computeIfAbsent(column.getDecimals(), this::createNumberStyle)
+                    : dataStyle;
+        }
+    }
+
+    @Override
+    public void row(T row) {
+        // 只用第一个窗口内的行估算列宽
+        boolean measure = rowNum <= ROW_ACCESS_WINDOW;
+        Row excelRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columns.size(); i++) {
+            ExportColumn<T> column = columns.get(i);
+            Cell cell = excelRow.createCell(i);
+            cell.setCellStyle(styles[i]);
+            switch (column.getType()) {
+                case INT, DOUBLE -> {
+                    if (column.isNull(row)) {
+                        continue;
+                    }
+                    if (column.getType() == ExportColumn.Type.INT) {
+                        cell.setCellValue(column.intValue(row));
+                    } else {
+                        cell.setCellValue(column.doubleValue(row));
+                    }
+                    if (measure) {
+                        widths[i] = Math.max(widths[i], column.text(row).length());
+                    }
+                }
+                default -> {
+                    String text = column.text(row);
+                    cell.setCellValue(text);
+                    if (measure) {
+                        widths[i] = Math.max(widths[i], displayWidth(text));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void end(int written) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            sheet.setColumnWidth(i, Math.min((widths[i] + 4) * 256, 255 * 256));
+        }
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+
+    /**
+     * 全角字符按两个半角宽度计
+     */
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += text.charAt(i) < 0x2E80 ? 1 : 2;
+        }
+        return width;
+    }
+
+    private CellStyle createHeaderStyle() {
+        CellStyle style = workbook.createCellStyle();
+        style.setFillForegroundColor(IndexedColors.DARK_GREEN.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        Font font = workbook.createFont();
+        font.setColor(IndexedColors.WHITE.getIndex());
+        font.setBold(true);
+        font.setFontHeightInPoints((short) 11);
+        style.setFont(font);
+
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        setThinBorder(style);
+        return style;
+    }
+
+    private CellStyle createDataStyle() {
+        CellStyle style = workbook.createCellStyle();
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        setThinBorder(style);
+        return style;
+    }
+
+    private CellStyle createNumberStyle(int decimals) {
+        CellStyle style = createDataStyle();
+        style.setAlignment(HorizontalAlignment.RIGHT);
+        DataFormat df = workbook.createDataFormat();
+        style.setDataFormat(df.getFormat(decimals > 0 ? "0." + "0".repeat(decimals) : "0"));
+        return style;
+    }
+
+    private void setThinBorder(CellStyle style) {
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+    }
+}
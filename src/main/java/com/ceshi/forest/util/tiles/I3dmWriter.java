@@ -0,0 +1,133 @@
+package com.ceshi.forest.util.tiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * i3dm（Instanced 3D Model）写出
+ * 位置为相对 RTC_CENTER 的 ECEF 坐标（float32），EAST_NORTH_UP 让实例按当地东北天方向摆放，
+ * 缩放为 [冠幅, 冠幅, 树高]；批量表带树号、树种、树高、冠幅、胸径，可用 Cesium3DTileStyle 按树种着色
+ */
+public final class I3dmWriter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // WGS84 椭球
+    private static final double WGS84_A = 6378137.0;
+    private static final double WGS84_E2 = 6.69437999014e-3;
+
+    private static final int HEADER_LENGTH = 32;
+
+    private I3dmWriter() {
+    }
+
+    public static void write(TreeTileBuilder.Instances in, int[] members, byte[] glb, OutputStream out)
+            throws IOException {
+        int n = members.length;
+        double[][] ecef = new double[n][];
+        double cx = 0, cy = 0, cz = 0;
+        for (int k = 0; k < n; k++) {
+            int i = members[k];
+            ecef[k] = toEcef(in.lon(i), in.lat(i), in.ground(i));
+            cx += ecef[k][0] / n;
+            cy += ecef[k][1] / n;
+            cz += ecef[k][2] / n;
+        }
+
+        ByteBuffer featureBin = ByteBuffer.allocate(pad8(n * 24)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int k = 0; k < n; k++) {
+            featureBin.putFloat((float) (ecef[k][0] - cx))
+                    .putFloat((float) (ecef[k][1] - cy))
+                    .putFloat((float) (ecef[k][2] - cz));
+        }
+        for (int k = 0; k < n; k++) {
+            int i = members[k];
+            featureBin.putFloat(in.crownWidth(i)).putFloat(in.crownWidth(i)).putFloat(in.height(i));
+        }
+
+        Map<String, Object> featureTable = new LinkedHashMap<>();
+        featureTable.put("INSTANCES_LENGTH", n);
+        featureTable.put("RTC_CENTER", new double[]{cx, cy, cz});
+        featureTable.put("EAST_NORTH_UP", true);
+        featureTable.put("POSITION", Map.of("byteOffset", 0));
+        featureTable.put("SCALE_NON_UNIFORM", Map.of("byteOffset", n * 12));
+
+        int[] ids = new int[n];
+        String[] species = new String[n];
+        float[] height = new float[n];
+        float[] crownWidth = new float[n];
+        float[] dbh = new float[n];
+        for (int k = 0; k < n; k++) {
+            int i = members[k];
+            ids[k] = in.id(i);
+            species[k] = in.species(i);
+            height[k] = in.height(i);
+            crownWidth[k] = in.crownWidth(i);
+            dbh[k] = in.dbh(i);
+        }
+        Map<String, Object> batchTable = new LinkedHashMap<>();
+        batchTable.put("treeId", ids);
+        batchTable.put("species", species);
+        batchTable.put("height", height);
+        batchTable.put("crownWidth", crownWidth);
+        batchTable.put("dbh", dbh);
+
+        // 头部 32 字节，其后各段起始位置都需 8 字节对齐，JSON 以空格补齐
+        byte[] featureJson = paddedJson(featureTable, HEADER_LENGTH);
+        byte[] batchJson = paddedJson(batchTable, 0);
+        int total = HEADER_LENGTH + featureJson.length + featureBin.capacity() + batchJson.length + glb.length;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("i3dm".getBytes(StandardCharsets.US_ASCII))
+                .putInt(1)
+                .putInt(total)
+                .putInt(featureJson.length)
+                .putInt(featureBin.capacity())
+                .putInt(batchJson.length)
+                .putInt(0)
+                // 1：内嵌 glb
+                .putInt(1);
+        out.write(header.array());
+        out.write(featureJson);
+        out.write(featureBin.array());
+        out.write(batchJson);
+        out.write(glb);
+    }
+
+    /**
+     * WGS84 经纬度（度）+ 椭球高（米）转 ECEF
+     */
+    public static double[] toEcef(double lonDeg, double latDeg, double height) {
+        double lon = Math.toRadians(lonDeg);
+        double lat = Math.toRadians(latDeg);
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double n = WGS84_A / Math.sqrt(1 - WGS84_E2 * sinLat * sinLat);
+        return new double[]{
+                (n + height) * cosLat * Math.cos(lon),
+                (n + height) * cosLat * Math.sin(lon),
+                (n * (1 - WGS84_E2) + height) * sinLat};
+    }
+
+    private static byte[] paddedJson(Map<String, Object> json, int offset) throws IOException {
+        byte[] raw = MAPPER.writeValueAsBytes(json);
+        int length = pad8(offset + raw.length) - offset;
+        byte[] padded = new byte[length];
+        System.arraycopy(raw, 0, padded, 0, raw.length);
+        for (int i = raw.length; i < length; i++) {
+            padded[i] = ' ';
+        }
+        return padded;
+    }
+
+    private static int pad8(int length) {
+        return (length + 7) & ~7;
+    }
+}
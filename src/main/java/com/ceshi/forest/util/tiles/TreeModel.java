@@ -0,0 +1,178 @@
+package com.ceshi.forest.util.tiles;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单位树模型（glb）：树高 1、冠幅 1，树干为六棱柱、树冠为八棱锥，glTF 约定 Y 轴向上
+ * i3dm 中按实例缩放为 [冠幅, 冠幅, 树高]
+ */
+public final class TreeModel {
+
+    private static final float TRUNK_RADIUS = 0.06f;
+    private static final float TRUNK_TOP = 0.35f;
+    private static final float CROWN_RADIUS = 0.5f;
+    private static final float CROWN_BASE = 0.25f;
+
+    private static final float[] TRUNK_COLOR = {0.42f, 0.30f, 0.18f, 1f};
+    private static final float[] CROWN_COLOR = {0.30f, 0.55f, 0.25f, 1f};
+
+    private static final byte[] GLB = build();
+
+    private TreeModel() {
+    }
+
+    public static byte[] glb() {
+        return GLB;
+    }
+
+    private static byte[] build() {
+        List<float[]> trunk = prism(6, TRUNK_RADIUS, 0, TRUNK_TOP);
+        List<float[]> crown = cone(8, CROWN_RADIUS, CROWN_BASE, 1f);
+
+        ByteBuffer bin = ByteBuffer.allocate((trunk.size() + crown.size()) * 2 * 12).order(ByteOrder.LITTLE_ENDIAN);
+        List<Map<String, Object>> views = new ArrayList<>();
+        List<Map<String, Object>> accessors = new ArrayList<>();
+        List<Map<String, Object>> primitives = new ArrayList<>();
+        int material = 0;
+        for (List<float[]> triangles : List.of(trunk, crown)) {
+            int count = triangles.size();
+            float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+            float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+            int positionOffset = bin.position();
+            for (int i = 0; i < count; i += 3) {
+                for (int v = 0; v < 3; v++) {
+                    float[] p = triangles.get(i + v);
+                    for (int axis = 0; axis < 3; axis++) {
+                        bin.putFloat(p[axis]);
+                        min[axis] = Math.min(min[axis], p[axis]);
+                        max[axis] = Math.max(max[axis], p[axis]);
+                    }
+                }
+            }
+            int normalOffset = bin.position();
+            for (int i = 0; i < count; i += 3) {
+                float[] n = normal(triangles.get(i), triangles.get(i + 1), triangles.get(i + 2));
+                for (int v = 0; v < 3; v++) {
+                    bin.putFloat(n[0]).putFloat(n[1]).putFloat(n[2]);
+                }
+            }
+
+            views.add(Map.of("buffer", 0, "byteOffset", positionOffset, "byteLength", count * 12, "target", 34962));
+            views.add(Map.of("buffer", 0, "byteOffset", normalOffset, "byteLength", count * 12, "target", 34962));
+            accessors.add(Map.of("bufferView", views.size() - 2, "componentType", 5126, "count", count,
+                    "type", "VEC3", "min", min, "max", max));
+            accessors.add(Map.of("bufferView", views.size() - 1, "componentType", 5126, "count", count,
+                    "type", "VEC3"));
+            primitives.add(Map.of("attributes", Map.of("POSITION", accessors.size() - 2, "NORMAL", accessors.size() - 1),
+                    "material", material++));
+        }
+
+        Map<String, Object> gltf = new LinkedHashMap<>();
+        gltf.put("asset", Map.of("version", "2.0", "generator", "forest"));
+        gltf.put("scene", 0);
+        gltf.put("scenes", List.of(Map.of("nodes", List.of(0))));
+        gltf.put("nodes", List.of(Map.of("mesh", 0)));
+        gltf.put("meshes", List.of(Map.of("primitives", primitives)));
+        gltf.put("materials", List.of(material(TRUNK_COLOR), material(CROWN_COLOR)));
+        gltf.put("accessors", accessors);
+        gltf.put("bufferViews", views);
+        gltf.put("buffers", List.of(Map.of("byteLength", bin.capacity())));
+        return toGlb(gltf, bin.array());
+    }
+
+    private static Map<String, Object> material(float[] color) {
+        return Map.of("pbrMetallicRoughness", Map.of("baseColorFactor", color, "metallicFactor", 0, "roughnessFactor", 1));
+    }
+
+    /**
+     * 侧面 + 顶面，逆时针为正面
+     */
+    private static List<float[]> prism(int sides, float radius, float bottom, float top) {
+        List<float[]> triangles = new ArrayList<>();
+        for (int i = 0; i < sides; i++) {
+            float[] a = ring(i, sides, radius);
+            float[] b = ring(i + 1, sides, radius);
+            float[] a0 = {a[0], bottom, a[1]};
+            float[] b0 = {b[0], bottom, b[1]};
+            float[] a1 = {a[0], top, a[1]};
+            float[] b1 = {b[0], top, b[1]};
+            add(triangles, a0, b1, b0);
+            add(triangles, a0, a1, b1);
+            add(triangles, new float[]{0, top, 0}, b1, a1);
+        }
+        return triangles;
+    }
+
+    /**
+     * 侧面 + 底面
+     */
+    private static List<float[]> cone(int sides, float radius, float base, float apex) {
+        List<float[]> triangles = new ArrayList<>();
+        for (int i = 0; i < sides; i++) {
+            float[] a = ring(i, sides, radius);
+            float[] b = ring(i + 1, sides, radius);
+            float[] a0 = {a[0], base, a[1]};
+            float[] b0 = {b[0], base, b[1]};
+            add(triangles, a0, new float[]{0, apex, 0}, b0);
+            add(triangles, new float[]{0, base, 0}, a0, b0);
+        }
+        return triangles;
+    }
+
+    // 绕 Y 轴从 +X 转向 +Z 取点，与上面的顶点顺序配合使法线朝外
+    private static float[] ring(int i, int sides, float radius) {
+        double angle = 2 * Math.PI * i / sides;
+        return new float[]{(float) (radius * Math.cos(angle)), (float) (radius * Math.sin(angle))};
+    }
+
+    private static void add(List<float[]> triangles, float[] a, float[] b, float[] c) {
+        triangles.add(a);
+        triangles.add(b);
+        triangles.add(c);
+    }
+
+    private static float[] normal(float[] a, float[] b, float[] c) {
+        float ux = b[0] - a[0], uy = b[1] - a[1], uz = b[2] - a[2];
+        float vx = c[0] - a[0], vy = c[1] - a[1], vz = c[2] - a[2];
+        float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+        float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        return new float[]{nx / length, ny / length, nz / length};
+    }
+
+    private static byte[] toGlb(Map<String, Object> gltf, byte[] bin) {
+        byte[] json;
+        try {
+            json = new ObjectMapper().writeValueAsBytes(gltf);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        int binLength = pad4(bin.length);
+        // i3dm 要求内嵌 glb 按 8 字节对齐，多出的 4 字节补在 JSON 段（BIN 段不能超出 buffer 3 字节以上）
+        int jsonLength = pad4(json.length);
+        if ((jsonLength + binLength) % 8 != 4) {
+            jsonLength += 4;
+        }
+        int total = 12 + 8 + jsonLength + 8 + binLength;
+        ByteBuffer out = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        out.put("glTF".getBytes(StandardCharsets.US_ASCII)).putInt(2).putInt(total);
+        out.putInt(jsonLength).put("JSON".getBytes(StandardCharsets.US_ASCII)).put(json);
+        for (int i = json.length; i < jsonLength; i++) {
+            out.put((byte) ' ');
+        }
+        out.putInt(binLength).put("BIN\0".getBytes(StandardCharsets.US_ASCII)).put(bin);
+        return out.array();
+    }
+
+    private static int pad4(int length) {
+        return (length + 3) & ~3;
+    }
+}
@@ -0,0 +1,247 @@
+package com.ceshi.forest.util.tiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 单木 3D Tiles 四叉树划分
+ * 实例按树高降序排列，每个节点保留前 maxPerTile 株（ADD 细化），其余按经纬度中点分到四个子节点；
+ * 节点的几何误差取未包含的最高树高，相机越近越先补出矮树
+ */
+public final class TreeTileBuilder {
+
+    private TreeTileBuilder() {
+    }
+
+    /**
+     * 实例数据，列式存储
+     */
+    public static final class Instances {
+        private int size;
+        private int[] ids = new int[1024];
+        private String[] species = new String[1024];
+        private double[] lon = new double[1024];
+        private double[] lat = new double[1024];
+        private float[] ground = new float[1024];
+        private float[] height = new float[1024];
+        private float[] crownWidth = new float[1024];
+        private float[] dbh = new float[1024];
+
+        public void add(int id, String speciesName, double lonDeg, double latDeg, float groundHeight,
+                        float treeHeight, float crown, float dbhCm) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                species = Arrays.copyOf(species, capacity);
+                lon = Arrays.copyOf(lon, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                ground = Arrays.copyOf(ground, capacity);
+                height = Arrays.copyOf(height, capacity);
+                crownWidth = Arrays.copyOf(crownWidth, capacity);
+                dbh = Arrays.copyOf(dbh, capacity);
+            }
+            ids[size] = id;
+            species[size] = speciesName;
+            lon[size] = lonDeg;
+            lat[size] = latDeg;
+            ground[size] = groundHeight;
+            height[size] = treeHeight;
+            crownWidth[size] = crown;
+            dbh[size] = dbhCm;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int id(int i) {
+            return ids[i];
+        }
+
+        public String species(int i) {
+            return species[i];
+        }
+
+        public double lon(int i) {
+            return lon[i];
+        }
+
+        public double lat(int i) {
+            return lat[i];
+        }
+
+        public float ground(int i) {
+            return ground[i];
+        }
+
+        public float height(int i) {
+            return height[i];
+        }
+
+        public float crownWidth(int i) {
+            return crownWidth[i];
+        }
+
+        public float dbh(int i) {
+            return dbh[i];
+        }
+    }
+
+    /**
+     * 瓦片节点；members 为实例下标
+     */
+    public static final class Tile {
+        private final String id;
+        private final int[] members;
+        private final double west;
+        private final double south;
+        private final double east;
+        private final double north;
+        private final float minHeight;
+        private final float maxHeight;
+        private final double geometricError;
+        private final List<Tile> children = new ArrayList<>();
+
+        private Tile(String id, int[] members, double[] bounds, float[] heights, double geometricError) {
+            this.id = id;
+            this.members = members;
+            this.west = bounds[0];
+            this.south = bounds[1];
+            this.east = bounds[2];
+            this.north = bounds[3];
+            this.minHeight = heights[0];
+            this.maxHeight = heights[1];
+            this.geometricError = geometricError;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int[] getMembers() {
+            return members;
+        }
+
+        public List<Tile> getChildren() {
+            return children;
+        }
+
+        public double getGeometricError() {
+            return geometricError;
+        }
+
+        /**
+         * 按深度优先遍历全部节点
+         */
+        public void forEach(Consumer<Tile> action) {
+            action.accept(this);
+            children.forEach(child -> child.forEach(action));
+        }
+    }
+
+    /**
+     * 构建四叉树；实例为空时返回 null
+     */
+    public static Tile build(Instances instances, int maxPerTile, int maxDepth) {
+        if (instances.size() == 0) {
+            return null;
+        }
+        Integer[] boxed = new Integer[instances.size()];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> Float.compare(instances.height(b), instances.height(a)));
+        int[] order = new int[boxed.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = boxed[i];
+        }
+        return build(instances, order, "0", 0, Math.max(1, maxPerTile), maxDepth);
+    }
+
+    private static Tile build(Instances in, int[] indices, String id, int depth, int maxPerTile, int maxDepth) {
+        boolean leaf = indices.length <= maxPerTile || depth >= maxDepth;
+        int[] members = leaf ? indices : Arrays.copyOf(indices, maxPerTile);
+        double error = leaf ? 0 : in.height(indices[maxPerTile]);
+        Tile tile = new Tile(id, members, bounds(in, indices), heights(in, indices), error);
+        if (leaf) {
+            return tile;
+        }
+
+        // 子节点按全部实例（含本节点已保留的）的范围划分，保证子节点包围盒落在父节点内
+        double midLon = (tile.west + tile.east) / 2;
+        double midLat = (tile.south + tile.north) / 2;
+        int[][] quadrants = new int[4][indices.length - maxPerTile];
+        int[] counts = new int[4];
+        for (int k = maxPerTile; k < indices.length; k++) {
+            int i = indices[k];
+            int q = (in.lon(i) >= midLon ? 1 : 0) + (in.lat(i) >= midLat ? 2 : 0);
+            quadrants[q][counts[q]++] = i;
+        }
+        for (int q = 0; q < 4; q++) {
+            if (counts[q] > 0) {
+                tile.children.add(build(in, Arrays.copyOf(quadrants[q], counts[q]), id + "-" + q,
+                        depth + 1, maxPerTile, maxDepth));
+            }
+        }
+        return tile;
+    }
+
+    private static double[] bounds(Instances in, int[] indices) {
+        double[] b = {Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int i : indices) {
+            b[0] = Math.min(b[0], in.lon(i));
+            b[1] = Math.min(b[1], in.lat(i));
+            b[2] = Math.max(b[2], in.lon(i));
+            b[3] = Math.max(b[3], in.lat(i));
+        }
+        return b;
+    }
+
+    private static float[] heights(Instances in, int[] indices) {
+        float[] h = {Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int i : indices) {
+            h[0] = Math.min(h[0], in.ground(i));
+            h[1] = Math.max(h[1], in.ground(i) + in.height(i));
+        }
+        return h;
+    }
+
+    /**
+     * 生成 tileset.json 内容（3D Tiles 1.0）
+     * @param contentPrefix 瓦片文件相对 tileset.json 的路径前缀
+     */
+    public static Map<String, Object> tileset(Tile root, Instances instances, String contentPrefix) {
+        Map<String, Object> tileset = new LinkedHashMap<>();
+        tileset.put("asset", Map.of("version", "1.0", "generator", "forest"));
+        // 整个数据集都不渲染时的误差：最高树高
+        tileset.put("geometricError", Math.max(1f, instances.height(root.members[0])));
+        tileset.put("properties", Map.of("height", Map.of("minimum", 0, "maximum", root.maxHeight)));
+        Map<String, Object> rootJson = tileJson(root, contentPrefix);
+        rootJson.put("refine", "ADD");
+        tileset.put("root", rootJson);
+        return tileset;
+    }
+
+    private static Map<String, Object> tileJson(Tile tile, String contentPrefix) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        // 包围盒按经纬度外扩约 20 米，避免边缘树冠被裁剪
+        double pad = Math.toRadians(0.0002);
+        json.put("boundingVolume", Map.of("region", new double[]{
+                Math.toRadians(tile.west) - pad, Math.toRadians(tile.south) - pad,
+                Math.toRadians(tile.east) + pad, Math.toRadians(tile.north) + pad,
+                tile.minHeight, tile.maxHeight}));
+        json.put("geometricError", tile.geometricError);
+        json.put("content", Map.of("uri", contentPrefix + tile.id + ".i3dm"));
+        if (!tile.children.isEmpty()) {
+            List<Map<String, Object>> children = new ArrayList<>();
+            tile.children.forEach(child -> children.add(tileJson(child, contentPrefix)));
+            json.put("children", children);
+        }
+        return json;
+    }
+}
@@ -0,0 +1,130 @@
+-- 基线结构：与 db/schema.sql 手工建库后的线上结构一致
+-- 已有库由 baseline-on-migrate 直接标记为版本 1，不会重复执行本脚本
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+-- 1. 林场表
+CREATE TABLE IF NOT EXISTS forest_zone (
+    zone_id SERIAL PRIMARY KEY,
+    zone_name VARCHAR(100),
+    zone_code VARCHAR(50),
+    admin_region VARCHAR(100),
+    total_area_ha DECIMAL(10,2),
+    forest_area_ha DECIMAL(10,2),
+    established_date DATE,
+    manager_name VARCHAR(50),
+    contact_phone VARCHAR(30),
+    center_lon DECIMAL(10,6),
+    center_lat DECIMAL(10,6),
+    geom GEOMETRY(POINT, 4326)
+);
+
+-- 2. 林分表（小班）
+CREATE TABLE IF NOT EXISTS forest_stand (
+    stand_id SERIAL PRIMARY KEY,
+    zone_id INTEGER REFERENCES forest_zone(zone_id),
+    lin_ban VARCHAR(20),
+    xiao_ban VARCHAR(20),
+    xiao_ban_code VARCHAR(20), -- 如：01-05
+    stand_name VARCHAR(100),
+    area_ha DECIMAL(8,2),
+    site_type VARCHAR(50),
+    site_class INTEGER,
+    origin VARCHAR(20),
+    stand_age INTEGER,
+    canopy_density DECIMAL(4,2),
+    avg_height DECIMAL(5,2),
+    avg_dbh DECIMAL(5,2),
+    volume_per_ha DECIMAL(8,2),
+    total_volume DECIMAL(10,2),
+    dominant_species VARCHAR(50),
+    species_composition JSONB, -- [{"species":"马尾松","ratio":0.7},...]
+    center_lon DECIMAL(10,6),
+    center_lat DECIMAL(10,6),
+    elevation INTEGER,
+    slope DECIMAL(5,2),
+    aspect VARCHAR(10),
+    survey_date DATE,
+    surveyor VARCHAR(50),
+    remark TEXT,
+    create_time TIMESTAMP DEFAULT NOW(),
+    update_time TIMESTAMP DEFAULT NOW(),
+    create_by VARCHAR(50),
+    update_by VARCHAR(50),
+    deleted INTEGER NOT NULL DEFAULT 0,
+    geom GEOMETRY(POINT, 4326)
+);
+
+-- 3. 样地表
+CREATE TABLE IF NOT EXISTS sample_plot (
+    plot_id SERIAL PRIMARY KEY,
+    stand_id INTEGER REFERENCES forest_stand(stand_id),
+    plot_no INTEGER,
+    plot_area_ha DECIMAL(6,4),
+    plot_area_m2 DECIMAL(8,2),
+    survey_date DATE,
+    longitude_dd DECIMAL(10,6),
+    latitude_dd DECIMAL(10,6),
+    elevation INTEGER,
+    slope DECIMAL(5,2),
+    aspect VARCHAR(10),
+    total_trees INTEGER,
+    avg_dbh DECIMAL(5,2),
+    avg_height DECIMAL(5,2),
+    canopy_density DECIMAL(4,2),
+    total_volume DECIMAL(10,4),
+    volume_per_ha DECIMAL(8,2),
+    surveyor VARCHAR(50),
+    geom GEOMETRY(POINT, 4326)
+);
+
+-- 4. 单木表
+CREATE TABLE IF NOT EXISTS tree_measurement (
+    tree_id SERIAL PRIMARY KEY,
+    plot_id INTEGER REFERENCES sample_plot(plot_id),
+    stand_id INTEGER,
+    tree_no INTEGER,
+    species VARCHAR(50),
+    species_code VARCHAR(20),
+    dbh_direction1 DECIMAL(5,2),
+    dbh_direction2 DECIMAL(5,2),
+    dbh_avg DECIMAL(5,2),
+    tree_height DECIMAL(5,2),
+    diameter_half_height DECIMAL(5,2),
+    q2 DECIMAL(8,4),
+    f1 DECIMAL(8,4),
+    basal_area DECIMAL(8,2),
+    volume DECIMAL(10,4),
+    crown_width DECIMAL(5,2),
+    tree_quality VARCHAR(20),
+    health_status VARCHAR(20),
+    survey_date DATE
+);
+
+-- 5. 用户与角色
+CREATE TABLE IF NOT EXISTS sys_user (
+    user_id SERIAL PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    real_name VARCHAR(50),
+    email VARCHAR(100),
+    phone VARCHAR(30),
+    avatar VARCHAR(255),
+    status INTEGER DEFAULT 1,
+    create_time TIMESTAMP DEFAULT NOW(),
+    update_time TIMESTAMP DEFAULT NOW(),
+    last_login_time TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS sys_role (
+    role_id SERIAL PRIMARY KEY,
+    role_name VARCHAR(50),
+    role_code VARCHAR(50) NOT NULL UNIQUE,
+    description VARCHAR(255),
+    create_time TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS sys_user_role (
+    user_id INTEGER NOT NULL REFERENCES sys_user(user_id),
+    role_id INTEGER NOT NULL REFERENCES sys_role(role_id),
+    PRIMARY KEY (user_id, role_id)
+);
@@ -0,0 +1,16 @@
+-- 林分/林场边界（面）与多级简化结果
+-- 已有库按版本 1 建立基线，基线脚本不会执行；边界相关结构在此补齐，须早于 V3 的索引
+ALTER TABLE forest_zone ADD COLUMN IF NOT EXISTS boundary GEOMETRY(MULTIPOLYGON, 4326);
+ALTER TABLE forest_stand ADD COLUMN IF NOT EXISTS boundary GEOMETRY(MULTIPOLYGON, 4326);
+
+-- 按缩放级别选择，level 0 为原始边界
+CREATE TABLE IF NOT EXISTS boundary_lod (
+    owner_type VARCHAR(10) NOT NULL, -- stand / zone
+    owner_id INTEGER NOT NULL,
+    lod_level SMALLINT NOT NULL,
+    tolerance DOUBLE PRECISION NOT NULL, -- 简化容差（度）
+    vertex_count INTEGER,
+    geom GEOMETRY(MULTIPOLYGON, 4326) NOT NULL,
+    PRIMARY KEY (owner_type, owner_id, lod_level)
+);
+CREATE INDEX IF NOT EXISTS idx_boundary_lod_geom ON boundary_lod USING GIST (geom);
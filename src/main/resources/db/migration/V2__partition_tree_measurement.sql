@@ -0,0 +1,50 @@
+-- 单木表按调查年份（survey_date）范围分区
+-- 按年份入库、按年份归档，旧年份分区可整体分离；无调查日期的记录落入默认分区。
+-- 分区表的唯一约束必须包含分区键，tree_id 改为普通索引（见 V3），唯一性由序列保证
+
+-- 创建某一年度的分区（已存在则跳过）
+-- 新年度数据写入前执行：SELECT forest_create_tree_partition(2027);
+-- 若默认分区中已有该年度数据，需先将其移出，否则创建失败
+CREATE OR REPLACE FUNCTION forest_create_tree_partition(p_year INTEGER) RETURNS VOID AS $$
+BEGIN
+    EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF tree_measurement FOR VALUES FROM (%L) TO (%L)',
+            'tree_measurement_y' || p_year,
+            make_date(p_year, 1, 1),
+            make_date(p_year + 1, 1, 1));
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE tree_measurement RENAME TO tree_measurement_legacy;
+
+CREATE TABLE tree_measurement (
+    LIKE tree_measurement_legacy INCLUDING DEFAULTS INCLUDING COMMENTS
+) PARTITION BY RANGE (survey_date);
+
+ALTER TABLE tree_measurement
+    ADD CONSTRAINT tree_measurement_plot_fk FOREIGN KEY (plot_id) REFERENCES sample_plot(plot_id);
+
+-- 覆盖已有数据的全部年份，并预建下一年度
+DO $$
+DECLARE
+    first_year INTEGER;
+    last_year INTEGER := EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1;
+BEGIN
+    SELECT LEAST(COALESCE(MIN(EXTRACT(YEAR FROM survey_date))::INTEGER, last_year - 1), last_year - 1),
+           GREATEST(COALESCE(MAX(EXTRACT(YEAR FROM survey_date))::INTEGER, last_year), last_year)
+    INTO first_year, last_year
+    FROM tree_measurement_legacy;
+
+    FOR y IN first_year .. last_year LOOP
+        PERFORM forest_create_tree_partition(y);
+    END LOOP;
+END $$;
+
+CREATE TABLE tree_measurement_default PARTITION OF tree_measurement DEFAULT;
+
+INSERT INTO tree_measurement SELECT * FROM tree_measurement_legacy;
+
+-- 序列随旧表删除，先转交给新表
+ALTER SEQUENCE tree_measurement_tree_id_seq OWNED BY tree_measurement.tree_id;
+
+DROP TABLE tree_measurement_legacy;
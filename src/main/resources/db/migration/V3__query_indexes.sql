@@ -0,0 +1,79 @@
+-- 按 mapper 查询建立索引
+-- 软删除查询一律使用 WHERE deleted = 0 的部分索引；INCLUDE 列用于列表/统计查询的仅索引扫描。
+-- tree_measurement 为分区表，父表上的索引会自动建到每个分区
+
+-- ========== forest_stand ==========
+-- findAll / cursorAll / findAllKeys（布隆过滤器重建）
+CREATE INDEX IF NOT EXISTS idx_stand_active_id
+    ON forest_stand (stand_id) INCLUDE (xiao_ban_code) WHERE deleted = 0;
+-- findByXiaoBanCode / countByXiaoBanCode
+CREATE INDEX IF NOT EXISTS idx_stand_xiao_ban_code
+    ON forest_stand (xiao_ban_code) WHERE deleted = 0;
+-- findByDominantSpecies（ORDER BY stand_id）/ getStatisticsBySpecies
+CREATE INDEX IF NOT EXISTS idx_stand_species
+    ON forest_stand (dominant_species, stand_id) INCLUDE (area_ha, total_volume) WHERE deleted = 0;
+-- findByVolumePerHaGreaterThan（ORDER BY volume_per_ha DESC）
+CREATE INDEX IF NOT EXISTS idx_stand_volume_per_ha
+    ON forest_stand (volume_per_ha DESC) WHERE deleted = 0;
+-- findByStandAgeGreaterThanEqual（ORDER BY stand_age DESC）
+CREATE INDEX IF NOT EXISTS idx_stand_age
+    ON forest_stand (stand_age DESC) WHERE deleted = 0;
+-- findNearbyStands / findInExtent / cursorInExtent 的经纬度外包框；cursorStandPoints（格网聚合）
+CREATE INDEX IF NOT EXISTS idx_stand_center
+    ON forest_stand (center_lat, center_lon) INCLUDE (stand_id, total_volume, dominant_species) WHERE deleted = 0;
+-- 按林场关联的单木查询与数据版本
+CREATE INDEX IF NOT EXISTS idx_stand_zone
+    ON forest_stand (zone_id) WHERE deleted = 0;
+CREATE INDEX IF NOT EXISTS idx_stand_geom
+    ON forest_stand USING GIST (geom);
+-- 林分边界空间查询
+CREATE INDEX IF NOT EXISTS idx_stand_boundary
+    ON forest_stand USING GIST (boundary) WHERE deleted = 0;
+
+-- ========== forest_zone ==========
+CREATE INDEX IF NOT EXISTS idx_zone_geom
+    ON forest_zone USING GIST (geom);
+CREATE INDEX IF NOT EXISTS idx_zone_boundary
+    ON forest_zone USING GIST (boundary);
+
+-- ========== sample_plot ==========
+-- findByStandId / getPlotStatisticsByStandId
+CREATE INDEX IF NOT EXISTS idx_plot_stand
+    ON sample_plot (stand_id) INCLUDE (volume_per_ha, total_volume);
+-- findByVolumePerHaGreaterThan
+CREATE INDEX IF NOT EXISTS idx_plot_volume_per_ha
+    ON sample_plot (volume_per_ha);
+-- cursorInExtent
+CREATE INDEX IF NOT EXISTS idx_plot_lat_lon
+    ON sample_plot (latitude_dd, longitude_dd);
+CREATE INDEX IF NOT EXISTS idx_plot_geom
+    ON sample_plot USING GIST (geom);
+
+-- ========== tree_measurement ==========
+-- findById / cursorAll（ORDER BY tree_id）
+CREATE INDEX IF NOT EXISTS idx_tree_id
+    ON tree_measurement (tree_id);
+-- findByPlotId / calculatePlotVolume
+CREATE INDEX IF NOT EXISTS idx_tree_plot
+    ON tree_measurement (plot_id) INCLUDE (volume);
+-- findByStandId / cursorByStandId（ORDER BY tree_id）/ countByStandId / selectStandDataVersion；按林场查询的内表
+CREATE INDEX IF NOT EXISTS idx_tree_stand
+    ON tree_measurement (stand_id, tree_id) INCLUDE (volume);
+-- findBySpecies / cursorBySpecies（ORDER BY tree_id）
+CREATE INDEX IF NOT EXISTS idx_tree_species
+    ON tree_measurement (species, tree_id);
+-- findByDbhAvgGreaterThanEqual / findTopByDbhAvg（ORDER BY dbh_avg DESC LIMIT）
+CREATE INDEX IF NOT EXISTS idx_tree_dbh_avg
+    ON tree_measurement (dbh_avg DESC);
+
+-- ========== boundary_lod ==========
+-- cursorStandBoundaries / cursorZoneBoundaries（按类型与级别取全部）
+CREATE INDEX IF NOT EXISTS idx_boundary_lod_level
+    ON boundary_lod (owner_type, lod_level, owner_id);
+
+-- ========== sys_user_role ==========
+-- selectRolesByUserId 使用主键 (user_id, role_id)，无需额外索引
+
+ANALYZE forest_stand;
+ANALYZE sample_plot;
+ANALYZE tree_measurement;
@@ -0,0 +1,17 @@
+-- 附近查询（ST_DWithin / KNN <->）按 geography 计算球面距离，需在同一表达式上建 GiST 索引
+CREATE INDEX IF NOT EXISTS idx_stand_geog
+    ON forest_stand USING GIST ((geom::geography)) WHERE deleted = 0;
+CREATE INDEX IF NOT EXISTS idx_plot_geog
+    ON sample_plot USING GIST ((geom::geography));
+
+-- 此前新增林分未写入 geom，按中心点补齐
+UPDATE forest_stand
+SET geom = ST_SetSRID(ST_MakePoint(center_lon, center_lat), 4326)
+WHERE geom IS NULL AND center_lon IS NOT NULL AND center_lat IS NOT NULL;
+
+UPDATE sample_plot
+SET geom = ST_SetSRID(ST_MakePoint(longitude_dd, latitude_dd), 4326)
+WHERE geom IS NULL AND longitude_dd IS NOT NULL AND latitude_dd IS NOT NULL;
+
+ANALYZE forest_stand;
+ANALYZE sample_plot;
@@ -0,0 +1,33 @@
+-- 有效林分的小班编码唯一，批量导入按此做 INSERT ... ON CONFLICT
+-- 已删除的林分不参与约束，编码可被重新使用
+
+-- 已有重复编码时建索引只会报笼统的唯一性错误；先检查并列出重复编码，
+-- 需人工确认保留哪条（其余置 deleted = 1 或改编码）后再重新迁移
+DO $$
+DECLARE
+    dup_count INTEGER;
+    dup_list TEXT;
+BEGIN
+    SELECT COUNT(*), string_agg(xiao_ban_code || '(' || cnt || '条: ' || ids || ')', ', ')
+    INTO dup_count, dup_list
+    FROM (
+        SELECT xiao_ban_code, COUNT(*) AS cnt, string_agg(stand_id::text, ',' ORDER BY stand_id) AS ids
+        FROM forest_stand
+        WHERE deleted = 0 AND xiao_ban_code IS NOT NULL
+        GROUP BY xiao_ban_code
+        HAVING COUNT(*) > 1
+        ORDER BY xiao_ban_code
+        LIMIT 50
+    ) d;
+
+    IF dup_count > 0 THEN
+        RAISE EXCEPTION '有效林分存在重复的小班编码，无法创建唯一索引 uk_stand_xiao_ban_code（最多列出 50 个）: %', dup_list
+            USING HINT = '处理重复林分后重新执行迁移：SELECT xiao_ban_code, array_agg(stand_id) FROM forest_stand WHERE deleted = 0 GROUP BY xiao_ban_code HAVING COUNT(*) > 1';
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_stand_xiao_ban_code
+    ON forest_stand (xiao_ban_code) WHERE deleted = 0;
+
+-- 被唯一索引取代
+DROP INDEX IF EXISTS idx_stand_xiao_ban_code;
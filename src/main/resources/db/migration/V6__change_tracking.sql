@@ -0,0 +1,78 @@
+-- 增量同步：记录每行最后一次写入的事务号（xid8）和时间，删除记录写入墓碑表
+-- 游标按 (change_xid, 主键) 推进，只读取早于当前快照 xmin 的事务，
+-- 提交较晚的长事务不会因为事务号小于已返回的水位而被跳过。需要 PostgreSQL 13+
+
+CREATE OR REPLACE FUNCTION forest_touch_change() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id();
+    NEW.change_time := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 参数：表名、主键列名
+CREATE OR REPLACE FUNCTION forest_record_tombstone() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO change_tombstone (table_name, entity_id)
+    VALUES (TG_ARGV[0], (to_jsonb(OLD) ->> TG_ARGV[1])::INTEGER);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TABLE IF NOT EXISTS change_tombstone (
+    table_name VARCHAR(64) NOT NULL,
+    entity_id INTEGER NOT NULL,
+    change_xid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    deleted_at TIMESTAMP NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_tombstone_change ON change_tombstone (table_name, change_xid, entity_id);
+CREATE INDEX IF NOT EXISTS idx_tombstone_deleted_at ON change_tombstone (deleted_at);
+
+-- 墓碑清理水位：游标早于该水位的客户端需要全量重新同步
+CREATE TABLE IF NOT EXISTS change_log_floor (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    floor_xid XID8 NOT NULL,
+    floor_time TIMESTAMP NOT NULL
+);
+INSERT INTO change_log_floor (id, floor_xid, floor_time) VALUES (1, '0', now())
+ON CONFLICT (id) DO NOTHING;
+
+-- 已有数据统一为 0 号事务（常量默认值，不重写表）
+ALTER TABLE forest_stand
+    ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT '0',
+    ADD COLUMN IF NOT EXISTS change_time TIMESTAMP NOT NULL DEFAULT now();
+ALTER TABLE sample_plot
+    ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT '0',
+    ADD COLUMN IF NOT EXISTS change_time TIMESTAMP NOT NULL DEFAULT now();
+ALTER TABLE tree_measurement
+    ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT '0',
+    ADD COLUMN IF NOT EXISTS change_time TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_stand_change ON forest_stand (change_xid, stand_id) INCLUDE (deleted);
+CREATE INDEX IF NOT EXISTS idx_stand_change_time ON forest_stand (change_time);
+CREATE INDEX IF NOT EXISTS idx_plot_change ON sample_plot (change_xid, plot_id);
+CREATE INDEX IF NOT EXISTS idx_plot_change_time ON sample_plot (change_time);
+CREATE INDEX IF NOT EXISTS idx_tree_change ON tree_measurement (change_xid, tree_id);
+CREATE INDEX IF NOT EXISTS idx_tree_change_time ON tree_measurement (change_time);
+
+DROP TRIGGER IF EXISTS trg_stand_touch_change ON forest_stand;
+CREATE TRIGGER trg_stand_touch_change BEFORE INSERT OR UPDATE ON forest_stand
+    FOR EACH ROW EXECUTE FUNCTION forest_touch_change();
+DROP TRIGGER IF EXISTS trg_plot_touch_change ON sample_plot;
+CREATE TRIGGER trg_plot_touch_change BEFORE INSERT OR UPDATE ON sample_plot
+    FOR EACH ROW EXECUTE FUNCTION forest_touch_change();
+-- 分区表上的 BEFORE 行触发器需要 PostgreSQL 13+
+DROP TRIGGER IF EXISTS trg_tree_touch_change ON tree_measurement;
+CREATE TRIGGER trg_tree_touch_change BEFORE INSERT OR UPDATE ON tree_measurement
+    FOR EACH ROW EXECUTE FUNCTION forest_touch_change();
+
+-- 林分为软删除（deleted = 1 走 UPDATE），物理删除同样记录墓碑
+DROP TRIGGER IF EXISTS trg_stand_tombstone ON forest_stand;
+CREATE TRIGGER trg_stand_tombstone AFTER DELETE ON forest_stand
+    FOR EACH ROW EXECUTE FUNCTION forest_record_tombstone('forest_stand', 'stand_id');
+DROP TRIGGER IF EXISTS trg_plot_tombstone ON sample_plot;
+CREATE TRIGGER trg_plot_tombstone AFTER DELETE ON sample_plot
+    FOR EACH ROW EXECUTE FUNCTION forest_record_tombstone('sample_plot', 'plot_id');
+DROP TRIGGER IF EXISTS trg_tree_tombstone ON tree_measurement;
+CREATE TRIGGER trg_tree_tombstone AFTER DELETE ON tree_measurement
+    FOR EACH ROW EXECUTE FUNCTION forest_record_tombstone('tree_measurement', 'tree_id');
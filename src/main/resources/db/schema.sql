@@ -1,3 +1,5 @@
+-- 结构参考；实际建表、分区与索引以 db/migration 下的 Flyway 迁移脚本为准
+
 -- 1. 林场表
 CREATE TABLE forest_zone (
                              zone_id SERIAL PRIMARY KEY,
@@ -52,4 +54,19 @@ CREATE TABLE tree_measurement (
                                   f1 DECIMAL(8,4),
                                   basal_area DECIMAL(8,2),
                                   volume DECIMAL(10,4)
-);
\ No newline at end of file
+);
+-- 5. 林分/林场边界（面）
+ALTER TABLE forest_zone ADD COLUMN IF NOT EXISTS boundary GEOMETRY(MULTIPOLYGON, 4326);
+ALTER TABLE forest_stand ADD COLUMN IF NOT EXISTS boundary GEOMETRY(MULTIPOLYGON, 4326);
+
+-- 6. 边界多级简化结果（按缩放级别选择，level 0 为原始边界）
+CREATE TABLE IF NOT EXISTS boundary_lod (
+                                            owner_type VARCHAR(10) NOT NULL, -- stand / zone
+                                            owner_id INTEGER NOT NULL,
+                                            lod_level SMALLINT NOT NULL,
+                                            tolerance DOUBLE PRECISION NOT NULL, -- 简化容差（度）
+                                            vertex_count INTEGER,
+                                            geom GEOMETRY(MULTIPOLYGON, 4326) NOT NULL,
+                                            PRIMARY KEY (owner_type, owner_id, lod_level)
+);
+CREATE INDEX IF NOT EXISTS idx_boundary_lod_geom ON boundary_lod USING GIST (geom);
@@ -0,0 +1,98 @@
+package com.ceshi.forest.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 路由规则测试：数据源仅作占位，不建立连接
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource("jdbc:postgresql://localhost:5432/primary"),
+                List.of(new DriverManagerDataSource("jdbc:postgresql://localhost:5433/replica0"),
+                        new DriverManagerDataSource("jdbc:postgresql://localhost:5434/replica1")),
+                1000, 60000);
+        routing.afterPropertiesSet();
+        routing.updateReplicaState(0, true, 0);
+        routing.updateReplicaState(1, true, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplicasRoundRobin() {
+        beginTransaction(true);
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void keepsWritesAndNonTransactionalCallsOnPrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        beginTransaction(false);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void skipsLaggingReplicasAndFallsBackToPrimary() {
+        routing.updateReplicaState(0, true, 5000);
+        beginTransaction(true);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        routing.updateReplicaState(1, false, Long.MAX_VALUE);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readsOwnWritesFromPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("surveyor", null, List.of()));
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+
+        beginTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("other", null, List.of()));
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readFromPrimaryOverridesReadOnlyRouting() {
+        beginTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY,
+                ReplicaRoutingDataSource.readFromPrimary(routing::determineCurrentLookupKey));
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void parsesWalPositions() {
+        assertEquals(0x16_B374D848L, ReplicaRoutingDataSource.parseLsn("16/B374D848"));
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ceshi.forest.event;
+
+import com.ceshi.forest.dto.ChangeEventDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeBroadcasterTest {
+
+    @Test
+    void deliversInOrderAndFiltersByTable() {
+        ChangeBroadcaster broadcaster = new ChangeBroadcaster("n1", 16, 8, Runnable::run);
+        RecordingSink stands = new RecordingSink();
+        RecordingSink all = new RecordingSink();
+        broadcaster.subscribe(Set.of("forest_stand"), stands, null);
+        broadcaster.subscribe(Set.of(), all, null);
+
+        broadcaster.publish(change("forest_stand", 1));
+        broadcaster.publish(change("sample_plot", 2));
+        broadcaster.publish(change("forest_stand", 3));
+
+        assertEquals(List.of("n1:1", "n1:3"), stands.ids);
+        assertEquals(List.of("n1:1", "n1:2", "n1:3"), all.ids);
+    }
+
+    @Test
+    void resumesFromLastEventIdOrAsksForResync() {
+        ChangeBroadcaster broadcaster = new ChangeBroadcaster("n1", 16, 8, Runnable::run);
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.publish(change("forest_stand", i));
+        }
+
+        RecordingSink resumed = new RecordingSink();
+        broadcaster.subscribe(Set.of(), resumed, "n1:3");
+        assertEquals(List.of("n1:4", "n1:5"), resumed.ids);
+        assertEquals(0, resumed.resyncs);
+
+        RecordingSink otherNode = new RecordingSink();
+        broadcaster.subscribe(Set.of(), otherNode, "n2:3");
+        assertTrue(otherNode.ids.isEmpty());
+        assertEquals(1, otherNode.resyncs);
+    }
+
+    @Test
+    void laggingSubscriberIsResyncedInsteadOfBuffering() {
+        List<Runnable> pending = new ArrayList<>();
+        ChangeBroadcaster broadcaster = new ChangeBroadcaster("n1", 16, 4, pending::add);
+        RecordingSink slow = new RecordingSink();
+        broadcaster.subscribe(Set.of(), slow, null);
+
+        for (int i = 1; i <= 10; i++) {
+            broadcaster.publish(change("forest_stand", i));
+        }
+        // 推送任务只提交了一次，积压期间不会重复排队
+        assertEquals(1, pending.size());
+        pending.remove(0).run();
+
+        assertEquals(1, slow.resyncs);
+        assertTrue(slow.ids.isEmpty());
+
+        broadcaster.publish(change("forest_stand", 11));
+        pending.remove(0).run();
+        assertEquals(List.of("n1:11"), slow.ids);
+    }
+
+    @Test
+    void failingSinkIsRemoved() {
+        ChangeBroadcaster broadcaster = new ChangeBroadcaster("n1", 16, 8, Runnable::run);
+        RecordingSink broken = new RecordingSink();
+        broken.fail = true;
+        broadcaster.subscribe(Set.of(), broken, null);
+
+        broadcaster.publish(change("forest_stand", 1));
+        assertEquals(0, broadcaster.size());
+        assertTrue(broken.closed);
+    }
+
+    private static ChangeEventDTO change(String table, int id) {
+        ChangeEventDTO change = new ChangeEventDTO();
+        change.setTable(table);
+        change.setOp("UPDATE");
+        change.setEntityId(id);
+        return change;
+    }
+
+    private static class RecordingSink implements ChangeBroadcaster.Sink {
+        final List<String> ids = new ArrayList<>();
+        int resyncs;
+        boolean fail;
+        boolean closed;
+
+        @Override
+        public void send(ChangeEventDTO event) throws IOException {
+            if (fail) {
+                throw new IOException("broken pipe");
+            }
+            ids.add(event.getId());
+        }
+
+        @Override
+        public void resync(String reason) {
+            resyncs++;
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.ceshi.forest.mapper;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 执行计划回归：在大数据量夹具上对每条 XML 查询语句执行 EXPLAIN，出现大表顺序扫描即失败。
+ * 需要可迁移的 PostgreSQL，设置 FOREST_PLAN_CHECK=true 后运行；夹具在测试事务内生成并回滚
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfEnvironmentVariable(named = "FOREST_PLAN_CHECK", matches = "true")
+class MapperQueryPlanTest {
+
+    private static final Set<String> LARGE_TABLES = Set.of("forest_stand", "sample_plot", "tree_measurement");
+
+    // 本身就是全表读取或全表聚合的语句
+    private static final Set<String> FULL_SCAN_EXPECTED = Set.of(
+            "ForestStandMapper.findAll",
+            "ForestStandMapper.cursorAll",
+            "ForestStandMapper.findAllKeys",
+            "ForestStandMapper.getStatisticsBySpecies",
+            "SamplePlotMapper.findAll",
+            "SamplePlotMapper.cursorAll",
+            "TreeMeasurementMapper.findAll",
+            "TreeMeasurementMapper.cursorAll",
+            "TreeMeasurementMapper.getStatisticsBySpecies",
+            "GridMapper.cursorStandPoints",
+            "GridMapper.cursorPlotPoints",
+            "GridMapper.cursorTreePoints",
+            "BoundaryMapper.findAllBoundaries",
+            "BoundaryMapper.findStandBoundaryIndex");
+
+    private static final String[] FIXTURE_SQL = {
+            """
+            INSERT INTO forest_zone (zone_name, zone_code, center_lon, center_lat)
+            SELECT '计划测试林场' || g, 'PZ' || g, 118.8, 32.18 FROM generate_series(1, 100) g
+            """,
+            """
+            INSERT INTO forest_stand (zone_id, xiao_ban_code, area_ha, dominant_species, stand_age,
+                                      volume_per_ha, total_volume, center_lon, center_lat, geom, deleted)
+            SELECT z.ids[1 + g % array_length(z.ids, 1)], 'P-' || g, 10 + g % 50, '树种' || (g % 200),
+                   1 + g % 200, g % 1000, (g % 1000) * 20, c.lon, c.lat,
+                   ST_SetSRID(ST_MakePoint(c.lon, c.lat), 4326), CASE WHEN g % 50 = 0 THEN 1 ELSE 0 END
+            FROM generate_series(1, 50000) g
+            CROSS JOIN LATERAL (SELECT 118.0 + (g % 1000) * 0.001 AS lon, 32.0 + (g / 1000) * 0.001 AS lat) c,
+                 (SELECT array_agg(zone_id) AS ids FROM forest_zone) z
+            """,
+            """
+            INSERT INTO sample_plot (stand_id, plot_no, volume_per_ha, total_volume, longitude_dd, latitude_dd, geom, survey_date)
+            SELECT s.stand_id, n, s.volume_per_ha, s.total_volume / 100, s.center_lon + n * 0.0001, s.center_lat,
+                   ST_SetSRID(ST_MakePoint(s.center_lon + n * 0.0001, s.center_lat), 4326),
+                   make_date(2018 + s.stand_id % 8, 1 + s.stand_id % 12, 1)
+            FROM forest_stand s, generate_series(1, 2) n
+            WHERE s.xiao_ban_code LIKE 'P-%'
+            """,
+            """
+            INSERT INTO tree_measurement (plot_id, stand_id, tree_no, species, dbh_avg, tree_height, volume, survey_date)
+            SELECT p.plot_id, p.stand_id, n, '树种' || ((p.plot_id * 5 + n) % 200), 5 + ((p.plot_id * 5 + n) % 750) * 0.1,
+                   3 + n, 0.05 * n, p.survey_date
+            FROM sample_plot p, generate_series(1, 5) n
+            WHERE p.stand_id IN (SELECT stand_id FROM forest_stand WHERE xiao_ban_code LIKE 'P-%')
+            """,
+            "ANALYZE forest_zone",
+            "ANALYZE forest_stand",
+            "ANALYZE sample_plot",
+            "ANALYZE tree_measurement"
+    };
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void mapperSelectsAvoidSequentialScansOnLargeTables() throws SQLException {
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : FIXTURE_SQL) {
+                stmt.execute(sql);
+            }
+        }
+
+        Map<String, Object> params = sampleParams(conn);
+        List<String> violations = new ArrayList<>();
+        int checked = 0;
+        // 同一语句以全名和短名各注册一次，按对象去重
+        for (MappedStatement ms : new LinkedHashSet<>(sqlSessionFactory.getConfiguration().getMappedStatements())) {
+            if (ms.getSqlCommandType() != SqlCommandType.SELECT
+                    || ms.getResource() == null || !ms.getResource().contains(".xml")
+                    || FULL_SCAN_EXPECTED.contains(shortId(ms))) {
+                continue;
+            }
+            String plan = explain(conn, ms, params);
+            checked++;
+            for (String table : LARGE_TABLES) {
+                // 分区表的计划节点为 "Seq Scan on tree_measurement_y2024"
+                if (plan.contains("Seq Scan on " + table)) {
+                    violations.add(shortId(ms) + " 顺序扫描 " + table + ":\n" + plan);
+                }
+            }
+        }
+
+        assertTrue(checked > 0, "未找到可检查的查询语句");
+        assertTrue(violations.isEmpty(), String.join("\n\n", violations));
+    }
+
+    /**
+     * 各语句用到的参数名统一放在一个 Map 中；条件取值保证选择性足够高
+     */
+    private Map<String, Object> sampleParams(Connection conn) throws SQLException {
+        int standId;
+        int zoneId;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT stand_id, zone_id FROM forest_stand WHERE xiao_ban_code = 'P-501'")) {
+            rs.next();
+            standId = rs.getInt(1);
+            zoneId = rs.getInt(2);
+        }
+        long horizon;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint")) {
+            rs.next();
+            horizon = rs.getLong(1);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", standId);
+        params.put("standId", standId);
+        params.put("plotId", standId);
+        params.put("zoneId", zoneId);
+        params.put("ownerId", standId);
+        params.put("ownerType", "stand");
+        params.put("level", 0);
+        params.put("code", "P-501");
+        params.put("species", "树种7");
+        params.put("minVolume", 990.0);
+        params.put("minAge", 198);
+        params.put("minDbh", 79.0);
+        params.put("limit", 10);
+        params.put("lon", 118.5);
+        params.put("lat", 32.02);
+        params.put("radius", 200.0);
+        params.put("minLon", 118.50);
+        params.put("maxLon", 118.51);
+        params.put("minLat", 32.02);
+        params.put("maxLat", 32.022);
+        // findByIds（foreach）
+        params.put("ids", List.of(standId, standId + 1, standId + 2));
+        // 增量同步键集分页：参数为空时条件恒假，计划不会触及表
+        params.put("table", "forest_stand");
+        params.put("horizon", horizon);
+        params.put("afterXid", 0L);
+        params.put("afterId", 0);
+        params.put("liveOnly", true);
+        return params;
+    }
+
+    private String explain(Connection conn, MappedStatement ms, Map<String, Object> params) throws SQLException {
+        BoundSql boundSql = ms.getBoundSql(params);
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(ms, params, boundSql).setParameters(ps);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static String shortId(MappedStatement ms) {
+        String id = ms.getId();
+        int methodDot = id.lastIndexOf('.');
+        int typeDot = id.lastIndexOf('.', methodDot - 1);
+        return id.substring(typeDot + 1);
+    }
+}
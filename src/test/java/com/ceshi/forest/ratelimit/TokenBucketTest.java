@@ -0,0 +1,52 @@
+package com.ceshi.forest.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(0));
+        }
+        long wait = bucket.tryConsume(0);
+        assertTrue(wait > 0 && wait <= SECOND);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertTrue(bucket.tryConsume(SECOND) > 0);
+    }
+
+    @Test
+    void remoteConsumptionDrainsLocalTokens() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        bucket.tryConsume(0);
+        long local = bucket.takeUnsynced();
+        assertEquals(1, local);
+
+        // 首次同步只记录基线
+        assertEquals(0, bucket.applySync(5, local));
+        // 本地 0 个，集群累计增加 6 个，全部来自其他实例
+        assertEquals(6, bucket.applySync(11, bucket.takeUnsynced()));
+        bucket.drain(6, 0);
+        assertEquals(3, bucket.available(0), 1e-9);
+    }
+
+    @Test
+    void classifiesExpensiveEndpoints() {
+        assertEquals(EndpointClass.EXPORT, EndpointClass.classify("GET", "/api/trees/stand/export"));
+        assertEquals(EndpointClass.EXPORT, EndpointClass.classify("POST", "/api/exports"));
+        assertEquals(EndpointClass.EXPORT, EndpointClass.classify("GET", "/api/exports/abc/download"));
+        assertEquals(EndpointClass.READ, EndpointClass.classify("GET", "/api/exports/abc"));
+        assertEquals(EndpointClass.PROXY, EndpointClass.classify("GET", "/geoserver/wms"));
+        assertEquals(EndpointClass.BULK, EndpointClass.classify("GET", "/api/trees"));
+        assertEquals(EndpointClass.READ, EndpointClass.classify("GET", "/api/trees/12"));
+        assertNull(EndpointClass.classify("GET", "/static/app.js"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ceshi.forest.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10000, 0.001);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("id:" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("id:" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("id:" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.mightContain("id:" + i)) {
+                falsePositives++;
+            }
+        }
+        // 目标 1%，留出余量
+        assertTrue(falsePositives < 2000, "误判数: " + falsePositives);
+        assertFalse(filter.mightContain("code:不存在的小班"));
+    }
+}
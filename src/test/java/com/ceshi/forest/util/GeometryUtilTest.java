@@ -0,0 +1,90 @@
+package com.ceshi.forest.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeometryUtilTest {
+
+    private static final double ORIGIN_LON = 118.79;
+    private static final double ORIGIN_LAT = 32.06;
+
+    @Test
+    void batchHaversineMatchesScalar() {
+        double[] lons = {118.80, 118.50, 119.20};
+        double[] lats = {32.07, 31.90, 32.40};
+        double[] out = new double[3];
+
+        GeometryUtil.distancesHaversine(ORIGIN_LON, ORIGIN_LAT, lons, lats, out, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(GeometryUtil.distanceHaversine(ORIGIN_LON, ORIGIN_LAT, lons[i], lats[i]), out[i], 1e-6);
+        }
+    }
+
+    @Test
+    void equirectangularStaysWithinDocumentedBound() {
+        int n = 10000;
+        double[] lons = new double[n];
+        double[] lats = new double[n];
+        randomPoints(lons, lats, n);
+
+        double[] exact = new double[n];
+        double[] fast = new double[n];
+        GeometryUtil.distancesHaversine(ORIGIN_LON, ORIGIN_LAT, lons, lats, exact, n);
+        GeometryUtil.distancesEquirectangular(ORIGIN_LON, ORIGIN_LAT, lons, lats, fast, n);
+
+        double bound = GeometryUtil.equirectangularErrorBound(ORIGIN_LAT, 50000);
+        for (int i = 0; i < n; i++) {
+            if (exact[i] > 100 && exact[i] <= 50000) {
+                assertTrue(Math.abs(fast[i] - exact[i]) / exact[i] <= bound);
+            }
+        }
+    }
+
+    @Test
+    void filterWithinRadiusMatchesExactDistance() {
+        int n = 10000;
+        double[] lons = new double[n];
+        double[] lats = new double[n];
+        randomPoints(lons, lats, n);
+
+        double[] exact = new double[n];
+        GeometryUtil.distancesHaversine(ORIGIN_LON, ORIGIN_LAT, lons, lats, exact, n);
+        int expected = 0;
+        for (double d : exact) {
+            if (d <= 30000) {
+                expected++;
+            }
+        }
+
+        int[] indexes = new int[n];
+        assertEquals(expected, GeometryUtil.filterWithinRadius(ORIGIN_LON, ORIGIN_LAT, 30000, lons, lats, n, indexes));
+    }
+
+    @Test
+    void webMercatorInPlaceMatchesScalar() {
+        double[] xs = {ORIGIN_LON};
+        double[] ys = {ORIGIN_LAT};
+        double[] interleaved = {ORIGIN_LON, ORIGIN_LAT};
+
+        GeometryUtil.toWebMercatorInPlace(xs, ys, 1);
+        GeometryUtil.toWebMercatorInPlace(interleaved, 0, 1);
+
+        double[] expected = GeometryUtil.wgs84ToWebMercator(ORIGIN_LON, ORIGIN_LAT);
+        assertArrayEquals(expected, new double[]{xs[0], ys[0]}, 1e-6);
+        assertArrayEquals(expected, interleaved, 1e-6);
+    }
+
+    private void randomPoints(double[] lons, double[] lats, int n) {
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            lons[i] = ORIGIN_LON + (random.nextDouble() - 0.5);
+            lats[i] = ORIGIN_LAT + (random.nextDouble() - 0.5) * 0.9;
+        }
+    }
+}
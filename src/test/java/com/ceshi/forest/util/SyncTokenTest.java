@@ -0,0 +1,47 @@
+package com.ceshi.forest.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncTokenTest {
+
+    @Test
+    void blankSinceStartsFullSync() {
+        SyncToken token = SyncToken.parse(" ");
+        assertTrue(token.full());
+        assertEquals(0, token.afterXid());
+        assertNull(token.sinceTime());
+    }
+
+    @Test
+    void timestampsStartIncrementalSync() {
+        SyncToken iso = SyncToken.parse("2026-05-01T08:00:00");
+        assertFalse(iso.full());
+        assertEquals(LocalDateTime.of(2026, 5, 1, 8, 0), iso.sinceTime());
+
+        SyncToken millis = SyncToken.parse("1777622400000");
+        assertFalse(millis.full());
+        assertTrue(millis.sinceTime() != null);
+    }
+
+    @Test
+    void encodedTokenRoundTrips() {
+        SyncToken token = new SyncToken(true, 900, 812, 42, LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        assertEquals(token, SyncToken.parse(token.encode()));
+
+        SyncToken plain = new SyncToken(false, 0, 1000, Integer.MAX_VALUE, null);
+        assertEquals(plain, SyncToken.parse(plain.encode()));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThrows(RuntimeException.class, () -> SyncToken.parse("not-a-token"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ceshi.forest.util.export;
+
+import com.ceshi.forest.entity.SamplePlot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowExporterTest {
+
+    private static final ExportSchema<String[]> PAIRS = ExportSchema.<String[]>builder("pairs", "测试")
+            .stringColumn("key", "键", row -> row[0])
+            .stringColumn("value", "值", row -> row[1])
+            .build();
+
+    @Test
+    void csvQuotesFieldsWithSeparators() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = RowExporter.export(PAIRS, ExportFormat.CSV,
+                List.of(new String[]{"a,b", "say \"hi\""}, new String[]{"plain", null}), 2, null, out, null);
+
+        assertEquals(2, written);
+        assertEquals("\uFEFF键,值\n\"a,b\",\"say \"\"hi\"\"\"\nplain,\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void jsonAndGeoJsonKeepTypesAndNulls() throws Exception {
+        SamplePlot plot = new SamplePlot();
+        plot.setPlotId(7);
+        plot.setPlotAreaHa(0.0667);
+        plot.setLongitudeDd(118.8123456);
+        plot.setLatitudeDd(32.1812345);
+        plot.setSurveyDate(LocalDate.of(2024, 5, 1));
+        ObjectMapper mapper = new ObjectMapper();
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        RowExporter.export(ExportSchemas.PLOTS, ExportFormat.JSON, List.of(plot), -1, Map.of("zoneId", 3), json, null);
+        JsonNode root = mapper.readTree(json.toByteArray());
+        assertEquals(3, root.get("zoneId").asInt());
+        assertEquals(1, root.get("totalCount").asInt());
+        JsonNode row = root.get("plots").get(0);
+        assertEquals(7, row.get("plotId").asInt());
+        assertEquals(0.0667, row.get("plotAreaHa").asDouble());
+        assertEquals("2024-05-01", row.get("surveyDate").asText());
+        assertTrue(row.get("standId").isNull());
+
+        ByteArrayOutputStream geoJson = new ByteArrayOutputStream();
+        RowExporter.export(ExportSchemas.PLOTS, ExportFormat.GEOJSON, List.of(plot), -1, null, geoJson, null);
+        JsonNode feature = mapper.readTree(geoJson.toByteArray()).get("features").get(0);
+        assertEquals(7, feature.get("id").asInt());
+        assertEquals("Point", feature.get("geometry").get("type").asText());
+        assertEquals(118.812346, feature.get("geometry").get("coordinates").get(0).asDouble(), 1e-9);
+    }
+
+    @Test
+    void parquetKeepsColumnTypes() throws Exception {
+        SamplePlot plot = new SamplePlot();
+        plot.setPlotId(7);
+        plot.setVolumePerHa(123.456789);
+        plot.setSurveyDate(LocalDate.of(2024, 5, 1));
+        Path file = Files.createTempFile("plots-", ".parquet");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                RowExporter.export(ExportSchemas.PLOTS, ExportFormat.PARQUET_ZSTD, List.of(plot, plot), -1, null, out, null);
+            }
+            try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+                MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+                assertEquals(2, reader.getRecordCount());
+                assertEquals(PrimitiveTypeName.INT32, schema.getType("plotId").asPrimitiveType().getPrimitiveTypeName());
+                assertEquals(PrimitiveTypeName.DOUBLE, schema.getType("volumePerHa").asPrimitiveType().getPrimitiveTypeName());
+                assertEquals(LogicalTypeAnnotation.dateType(), schema.getType("surveyDate").getLogicalTypeAnnotation());
+                assertEquals(LogicalTypeAnnotation.stringType(), schema.getType("aspect").getLogicalTypeAnnotation());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void geoJsonRequiresGeometry() {
+        assertThrows(RuntimeException.class, () -> RowExporter.export(PAIRS, ExportFormat.GEOJSON,
+                List.<String[]>of(), 0, null, new ByteArrayOutputStream(), null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ceshi.forest.util.tiles;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TreeTileBuilderTest {
+
+    private static TreeTileBuilder.Instances randomTrees(int count) {
+        TreeTileBuilder.Instances instances = new TreeTileBuilder.Instances();
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            instances.add(i, "杉木", 118.7 + random.nextDouble() * 0.05, 32.1 + random.nextDouble() * 0.05,
+                    20, (float) (5 + random.nextDouble() * 25), 4, 20);
+        }
+        return instances;
+    }
+
+    @Test
+    void everyTreeAppearsInExactlyOneTile() {
+        TreeTileBuilder.Instances instances = randomTrees(20000);
+        TreeTileBuilder.Tile root = TreeTileBuilder.build(instances, 1000, 8);
+
+        Set<Integer> seen = new HashSet<>();
+        int[] total = {0};
+        root.forEach(tile -> {
+            assertTrue(tile.getMembers().length <= 1000);
+            for (int i : tile.getMembers()) {
+                seen.add(i);
+                total[0]++;
+            }
+        });
+        assertEquals(20000, total[0]);
+        assertEquals(20000, seen.size());
+    }
+
+    @Test
+    void parentKeepsTallestTreesAndErrorShrinksWithDepth() {
+        TreeTileBuilder.Instances instances = randomTrees(5000);
+        TreeTileBuilder.Tile root = TreeTileBuilder.build(instances, 500, 8);
+
+        float shortestKept = Float.MAX_VALUE;
+        for (int i : root.getMembers()) {
+            shortestKept = Math.min(shortestKept, instances.height(i));
+        }
+        assertTrue(shortestKept >= root.getGeometricError());
+        for (TreeTileBuilder.Tile child : root.getChildren()) {
+            assertTrue(child.getGeometricError() <= root.getGeometricError());
+        }
+    }
+
+    @Test
+    void emptyInputHasNoTiles() {
+        assertNull(TreeTileBuilder.build(new TreeTileBuilder.Instances(), 1000, 8));
+    }
+
+    @Test
+    void i3dmSectionsAreAligned() throws Exception {
+        TreeTileBuilder.Instances instances = randomTrees(37);
+        int[] members = new int[37];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = i;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        I3dmWriter.write(instances, members, TreeModel.glb(), out);
+        byte[] bytes = out.toByteArray();
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals("i3dm", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(bytes.length, header.getInt(8));
+        int featureJson = header.getInt(12);
+        int featureBin = header.getInt(16);
+        int batchJson = header.getInt(20);
+        assertEquals(0, (32 + featureJson) % 8);
+        assertEquals(0, (32 + featureJson + featureBin) % 8);
+        int glbStart = 32 + featureJson + featureBin + batchJson;
+        assertEquals(0, glbStart % 8);
+        assertEquals("glTF", new String(bytes, glbStart, 4, StandardCharsets.US_ASCII));
+        assertEquals(0, TreeModel.glb().length % 8);
+    }
+}